@@ -0,0 +1,86 @@
+package in.raghuenggcollege.events.benchmarks;
+
+import in.raghuenggcollege.events.CollegeEventsApplication;
+import in.raghuenggcollege.events.dto.EventPage;
+import in.raghuenggcollege.events.dto.EventSearchCriteria;
+import in.raghuenggcollege.events.service.EventService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+// GET /api/events/search over 100k seeded events (DataSeeder, seed.events):
+// the first page against a page ~80k rows in, reached by following nextCursor.
+// With keyset paging both should cost about the same; an OFFSET scan would grow
+// with the depth. "any" pages through every event on idx_events_start_time,
+// "CSE" through one department on idx_events_department_start_time.
+// Runs the application on the in-memory H2 of the test profile; seeding takes
+// a minute or so before the first warmup iteration.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventSearchPagingBenchmark {
+
+    private static final int EVENTS = 100_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int DEEP_ROWS = 80_000;
+
+    @Param({ "any", "CSE" })
+    private String department;
+
+    private ConfigurableApplicationContext context;
+    private EventService eventService;
+    private String deepCursor;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(CollegeEventsApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:paging;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "seed.events=" + EVENTS,
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=500")
+                .run();
+        eventService = context.getBean(EventService.class);
+
+        // Walk the cursors once; a department holds only its share of the rows
+        int pages = ("any".equals(department) ? DEEP_ROWS : DEEP_ROWS / 6) / PAGE_SIZE;
+        String cursor = null;
+        for (int i = 0; i < pages; i++) {
+            cursor = search(cursor).getNextCursor();
+            if (cursor == null) {
+                throw new IllegalStateException("Ran out of events after " + i + " pages");
+            }
+        }
+        deepCursor = cursor;
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public EventPage firstPage() {
+        return search(null);
+    }
+
+    @Benchmark
+    public EventPage deepPage() {
+        return search(deepCursor);
+    }
+
+    private EventPage search(String cursor) {
+        EventSearchCriteria criteria = new EventSearchCriteria();
+        if (!"any".equals(department)) {
+            criteria.setDepartment(department);
+        }
+        return eventService.searchEvents(criteria, cursor, PAGE_SIZE);
+    }
+}
@@ -0,0 +1,99 @@
+package in.raghuenggcollege.events.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import in.raghuenggcollege.events.entity.Event;
+import in.raghuenggcollege.events.entity.Registration;
+import in.raghuenggcollege.events.entity.RegistrationStatus;
+import in.raghuenggcollege.events.entity.Role;
+import in.raghuenggcollege.events.entity.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Response bodies for the event listing and "my registrations", serialized with
+// the same ObjectMapper setup Spring Boot uses (JavaTimeModule, ISO dates).
+// Registration goes through the @JsonIgnoreProperties paths on user and event.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({ "1", "50", "500" })
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<Event> events;
+    private List<Registration> registrations;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        User admin = User.builder()
+                .id(1L)
+                .email("admin@raghuenggcollege.in")
+                .password("$2a$10$abcdefghijklmnopqrstuv")
+                .fullName("Super Admin")
+                .role(Role.SUPER_ADMIN)
+                .department("General")
+                .isVerified(true)
+                .createdAt(LocalDateTime.now())
+                .build();
+        User student = User.builder()
+                .id(2L)
+                .email("student@raghuenggcollege.in")
+                .password("$2a$10$abcdefghijklmnopqrstuv")
+                .fullName("Student")
+                .role(Role.STUDENT)
+                .department("CSE")
+                .isVerified(true)
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        events = new ArrayList<>(size);
+        registrations = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Event event = Event.builder()
+                    .id((long) i + 1)
+                    .title("Event " + i)
+                    .description("A reasonably sized description for event " + i + " in the benchmark data set.")
+                    .startTime(start.plusHours(i))
+                    .endTime(start.plusHours(i + 2))
+                    .venue("Seminar Hall " + (i % 5))
+                    .capacity(100)
+                    .department(i % 2 == 0 ? "CSE" : "ECE")
+                    .tags("tech,workshop")
+                    .bannerUrl("https://example.org/banner/" + i + ".png")
+                    .createdBy(admin)
+                    .attendeeCount((long) (i % 100))
+                    .build();
+            events.add(event);
+            registrations.add(Registration.builder()
+                    .id((long) i + 1)
+                    .user(student)
+                    .event(event)
+                    .status(RegistrationStatus.CONFIRMED)
+                    .registeredAt(LocalDateTime.now())
+                    .updatedAt(LocalDateTime.now())
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public byte[] events() throws Exception {
+        return objectMapper.writeValueAsBytes(events);
+    }
+
+    @Benchmark
+    public byte[] registrations() throws Exception {
+        return objectMapper.writeValueAsBytes(registrations);
+    }
+}
@@ -0,0 +1,176 @@
+package in.raghuenggcollege.events.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import in.raghuenggcollege.events.config.JwtAuthenticationFilter;
+import in.raghuenggcollege.events.entity.Role;
+import in.raghuenggcollege.events.entity.User;
+import in.raghuenggcollege.events.repository.TokenRevocationRepository;
+import in.raghuenggcollege.events.repository.UserRepository;
+import in.raghuenggcollege.events.service.TokenRevocationList;
+import in.raghuenggcollege.events.service.UserPrincipalCache;
+import in.raghuenggcollege.events.util.JwtUtil;
+import in.raghuenggcollege.events.util.SamplingTurboFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// JwtAuthenticationFilter on an authenticated request (principal cached), with
+// its per-request log line disabled, written synchronously, handed to an
+// AsyncAppender, or handed over after 1-in-100 sampling. Output goes to a null
+// stream, so the numbers are formatting, locking and queueing, not disk I/O.
+// Four threads, since appender contention is the point.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class JwtFilterLoggingBenchmark {
+
+    @Param({ "off", "sync", "async", "async-sampled" })
+    private String logging;
+
+    private JwtAuthenticationFilter filter;
+    private HttpServletRequest request;
+    private HttpServletResponse response;
+    private final FilterChain chain = (req, res) -> {
+    };
+
+    private LoggerContext loggerContext;
+    private Logger filterLogger;
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = new JwtUtil();
+        Fields.set(jwtUtil, "secret", "your_very_secure_secret_key_which_should_be_long_enough_for_hs256_algorithm");
+        Fields.set(jwtUtil, "jwtExpiration", 86_400_000L);
+        jwtUtil.init();
+        User user = User.builder()
+                .id(1L)
+                .email("student@raghuenggcollege.in")
+                .fullName("Benchmark Student")
+                .role(Role.STUDENT)
+                .department("CSE")
+                .isVerified(true)
+                .build();
+
+        UserPrincipalCache principalCache = new UserPrincipalCache(stub(UserRepository.class, (name, args) ->
+                name.equals("findByEmail") ? Optional.of(user) : null));
+        Fields.set(principalCache, "ttlSeconds", 3600L);
+        Fields.set(principalCache, "maxSize", 10_000);
+        // No revocations stored; the template is only used when the filters rotate
+        TokenRevocationList revocationList = new TokenRevocationList(jwtUtil,
+                stub(TokenRevocationRepository.class, (name, args) ->
+                        name.equals("findActiveSince") ? List.of() : null),
+                new TransactionTemplate(), new SimpleMeterRegistry());
+        Fields.set(revocationList, "expectedPerPeriod", 100_000);
+        Fields.set(revocationList, "falsePositiveRate", 0.0001);
+        revocationList.init();
+        filter = new JwtAuthenticationFilter(jwtUtil, principalCache, revocationList);
+
+        String authorization = "Bearer " + jwtUtil.generateToken(user);
+        request = stub(HttpServletRequest.class, (name, args) -> switch (name) {
+            case "getHeader" -> "Authorization".equals(args[0]) ? authorization : null;
+            case "getRemoteAddr" -> "127.0.0.1";
+            case "getDispatcherType" -> DispatcherType.REQUEST;
+            default -> null;
+        });
+        response = stub(HttpServletResponse.class, (name, args) -> null);
+
+        configureLogging();
+    }
+
+    @TearDown
+    public void tearDown() {
+        filterLogger.detachAndStopAllAppenders();
+        loggerContext.resetTurboFilterList();
+    }
+
+    @Benchmark
+    public void authenticatedRequest() throws Exception {
+        filter.doFilter(request, response, chain);
+        SecurityContextHolder.clearContext();
+    }
+
+    private void configureLogging() {
+        loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        filterLogger = loggerContext.getLogger(JwtAuthenticationFilter.class);
+        filterLogger.detachAndStopAllAppenders();
+        filterLogger.setAdditive(false);
+        if (logging.equals("off")) {
+            filterLogger.setLevel(Level.INFO);
+            return;
+        }
+        filterLogger.setLevel(Level.DEBUG);
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%15.15t] [%X{requestId:-}] %-40.40logger{39} : %m%n");
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> sink = new OutputStreamAppender<>();
+        sink.setContext(loggerContext);
+        sink.setEncoder(encoder);
+        sink.setOutputStream(OutputStream.nullOutputStream());
+        sink.start();
+
+        Appender<ILoggingEvent> appender = sink;
+        if (logging.startsWith("async")) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(loggerContext);
+            async.setQueueSize(8192);
+            async.setNeverBlock(true);
+            async.addAppender(sink);
+            async.start();
+            appender = async;
+        }
+        filterLogger.addAppender(appender);
+
+        if (logging.equals("async-sampled")) {
+            SamplingTurboFilter sampling = new SamplingTurboFilter();
+            sampling.setContext(loggerContext);
+            sampling.setCategory(JwtAuthenticationFilter.class.getName());
+            sampling.setOneIn(100);
+            sampling.start();
+            loggerContext.addTurboFilter(sampling);
+        }
+    }
+
+    private interface Answer {
+        Object answer(String method, Object[] args);
+    }
+
+    // Interface stub answering by method name; unanswered booleans are false
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, Answer answer) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            Object result = answer.answer(method.getName(), args);
+            if (result == null && method.getReturnType() == boolean.class) {
+                return false;
+            }
+            if (result == null && method.getReturnType() == int.class) {
+                return 0;
+            }
+            return result;
+        });
+    }
+}
@@ -0,0 +1,69 @@
+package in.raghuenggcollege.events.benchmarks;
+
+import in.raghuenggcollege.events.entity.Role;
+import in.raghuenggcollege.events.entity.User;
+import in.raghuenggcollege.events.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Token issue and verification, as done on every login and every request
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private User user;
+    private String token;
+    private Claims claims;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        Fields.set(jwtUtil, "secret", "your_very_secure_secret_key_which_should_be_long_enough_for_hs256_algorithm");
+        Fields.set(jwtUtil, "jwtExpiration", 86_400_000L);
+        jwtUtil.init();
+
+        user = User.builder()
+                .id(1L)
+                .email("student@raghuenggcollege.in")
+                .fullName("Benchmark Student")
+                .role(Role.STUDENT)
+                .department("CSE")
+                .isVerified(true)
+                .build();
+        token = jwtUtil.generateToken(user);
+        claims = jwtUtil.parseToken(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtil.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtUtil.isTokenValid(token, user);
+    }
+
+    // What JwtAuthenticationFilter pays: one parse, then the checks on the claims
+    @Benchmark
+    public boolean parseOnceAndValidate() {
+        return jwtUtil.isTokenValid(jwtUtil.parseToken(token), user);
+    }
+
+    @Benchmark
+    public boolean validateParsedClaims() {
+        return jwtUtil.isTokenValid(claims, user);
+    }
+}
@@ -0,0 +1,49 @@
+package in.raghuenggcollege.events.benchmarks;
+
+import in.raghuenggcollege.events.service.ReminderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// ReminderService.schedule/unschedule for a batch of events: the per-type
+// fire-time window checks plus the DelayQueue bookkeeping an hourly refresh does.
+// Repositories are not touched on this path, so the service runs without them.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReminderWindowBenchmark {
+
+    @Param({ "100", "1000" })
+    private int events;
+
+    private ReminderService reminderService;
+    private LocalDateTime[] startTimes;
+
+    @Setup
+    public void setUp() {
+        reminderService = new ReminderService(null, null, null, null, new SimpleMeterRegistry());
+        Fields.set(reminderService, "horizonHours", 2L);
+
+        // Spread starts over the next 26 hours so every reminder type is in play
+        LocalDateTime now = LocalDateTime.now();
+        startTimes = new LocalDateTime[events];
+        for (int i = 0; i < events; i++) {
+            startTimes[i] = now.plusMinutes(5 + (26L * 60 * i) / events);
+        }
+    }
+
+    @Benchmark
+    public void scheduleAndUnschedule() {
+        for (int i = 0; i < events; i++) {
+            reminderService.schedule((long) i, startTimes[i]);
+        }
+        for (int i = 0; i < events; i++) {
+            reminderService.unschedule((long) i);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package in.raghuenggcollege.events.benchmarks;
+
+import in.raghuenggcollege.events.dto.EventNotification;
+import in.raghuenggcollege.events.service.EventFanout;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// A burst of edits to one event pushed through Spring's SimpleBroker to 5k
+// simulated STOMP sessions. "single-topic" is the old behaviour: every edit is
+// its own prose message on /topic/events, delivered to everyone. "partitioned"
+// goes through EventFanout: sessions listen on their department and one tag,
+// and the burst is coalesced into one message per topic. The client outbound
+// channel only counts deliveries, so this measures broker matching and message
+// building, not socket writes.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StompFanoutBenchmark {
+
+    private static final String[] DEPARTMENTS = { "CSE", "ECE", "EEE", "MECH", "CIVIL", "IT", "AIML", "MBA", "MCA",
+            "BSH" };
+    private static final String[] TAGS = { "ai", "workshop", "hackathon", "sports", "music", "placement", "seminar",
+            "robotics", "cloud", "quiz" };
+
+    @Param({ "5000" })
+    private int subscribers;
+
+    @Param({ "1", "10" })
+    private int edits;
+
+    @Param({ "single-topic", "partitioned" })
+    private String layout;
+
+    private SimpleBrokerMessageHandler broker;
+    private SimpMessagingTemplate messagingTemplate;
+    private EventFanout eventFanout;
+    private long delivered;
+
+    @Setup
+    public void setUp() {
+        MessageChannel clientOutbound = (message, timeout) -> {
+            if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.MESSAGE) {
+                delivered++;
+            }
+            return true;
+        };
+        broker = new SimpleBrokerMessageHandler(new ExecutorSubscribableChannel(), clientOutbound,
+                new ExecutorSubscribableChannel(), List.of("/topic", "/queue"));
+        broker.start();
+        messagingTemplate = new SimpMessagingTemplate((message, timeout) -> {
+            broker.handleMessage(message);
+            return true;
+        });
+        eventFanout = new EventFanout(messagingTemplate, Jackson2ObjectMapperBuilder.json().build(),
+                new SimpleMeterRegistry());
+
+        for (int i = 0; i < subscribers; i++) {
+            String session = "session-" + i;
+            broker.handleMessage(frame(SimpMessageType.CONNECT, session, null, null));
+            if (layout.equals("single-topic")) {
+                broker.handleMessage(frame(SimpMessageType.SUBSCRIBE, session, "sub-0", EventFanout.ALL_EVENTS));
+            } else {
+                broker.handleMessage(frame(SimpMessageType.SUBSCRIBE, session, "sub-0", EventFanout.ALL_EVENTS));
+                broker.handleMessage(frame(SimpMessageType.SUBSCRIBE, session, "sub-1",
+                        EventFanout.departmentTopic(DEPARTMENTS[i % DEPARTMENTS.length])));
+                broker.handleMessage(frame(SimpMessageType.SUBSCRIBE, session, "sub-2",
+                        EventFanout.tagTopic(TAGS[i % TAGS.length])));
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        broker.stop();
+    }
+
+    // Returns the number of messages delivered to sessions
+    @Benchmark
+    public long editBurst() {
+        delivered = 0;
+        for (int i = 0; i < edits; i++) {
+            if (layout.equals("single-topic")) {
+                messagingTemplate.convertAndSend(EventFanout.ALL_EVENTS, "Event Update: Hackathon has been modified.");
+            } else {
+                eventFanout.publish(EventNotification.builder()
+                        .eventId(42L)
+                        .type(EventNotification.Type.UPDATED)
+                        .title("Hackathon")
+                        .department("CSE")
+                        .tags(List.of("ai", "workshop"))
+                        .message("Event Update: Hackathon has been modified.")
+                        .changes(Map.of("venue", "Seminar Hall " + i))
+                        .build());
+            }
+        }
+        eventFanout.flush();
+        return delivered;
+    }
+
+    private static Message<byte[]> frame(SimpMessageType type, String session, String subscription,
+            String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+        accessor.setSessionId(session);
+        accessor.setSubscriptionId(subscription);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
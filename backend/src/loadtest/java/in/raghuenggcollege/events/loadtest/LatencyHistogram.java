@@ -0,0 +1,57 @@
+package in.raghuenggcollege.events.loadtest;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Lock-free latency histogram with log-spaced buckets (5% wide) from 1µs to
+// about an hour. Percentiles are reported as the bucket's upper bound.
+class LatencyHistogram {
+
+    private static final double GROWTH = 1.05;
+    private static final int BUCKETS = 460;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    void recordNanos(long nanos) {
+        long micros = Math.max(1, nanos / 1_000);
+        int bucket = (int) Math.min(BUCKETS - 1, Math.log(micros) / Math.log(GROWTH));
+        counts.incrementAndGet(bucket);
+        count.incrementAndGet();
+        max.accumulateAndGet(nanos, Math::max);
+    }
+
+    // Not atomic with concurrent recording; call between runs
+    void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        max.set(0);
+    }
+
+    long getCount() {
+        return count.get();
+    }
+
+    double maxMillis() {
+        return max.get() / 1_000_000.0;
+    }
+
+    double percentileMillis(double percentile) {
+        long total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(Math.pow(GROWTH, i + 1) / 1_000.0, maxMillis());
+            }
+        }
+        return maxMillis();
+    }
+}
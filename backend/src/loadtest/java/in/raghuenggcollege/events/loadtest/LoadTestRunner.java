@@ -0,0 +1,395 @@
+package in.raghuenggcollege.events.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import in.raghuenggcollege.events.config.DataSeeder;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Drives a mixed read/write workload against the running app over HTTP once it
+// is up, then logs throughput, latency percentiles, SQL statements per
+// operation and connection pool waits. Each worker thread is a seeded student
+// with their own token and registrations.
+@Component
+@Profile("loadtest")
+@RequiredArgsConstructor
+@lombok.extern.slf4j.Slf4j
+public class LoadTestRunner {
+
+    private static final String SIGNUP_PASSWORD = "LoadTest@123";
+
+    private final SmtpSink smtpSink;
+    private final PoolWaitTracker poolWaitTracker;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ObjectMapper objectMapper;
+    private final ConfigurableApplicationContext context;
+    private final Environment environment;
+
+    @Value("${loadtest.threads:16}")
+    private int threads;
+
+    @Value("${loadtest.warmup-seconds:5}")
+    private int warmupSeconds;
+
+    @Value("${loadtest.duration-seconds:30}")
+    private int durationSeconds;
+
+    @Value("${loadtest.exit-on-finish:true}")
+    private boolean exitOnFinish;
+
+    @Value("${seed.users:0}")
+    private int seededUsers;
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final AtomicInteger signups = new AtomicInteger();
+    private String baseUrl;
+    private List<Long> eventIds;
+
+    // Share of operations, out of the summed weights
+    private enum Scenario {
+        LIST_EVENTS("GET /api/events", 40),
+        SEARCH_EVENTS("GET /api/events/search", 15),
+        TAG_FACETS("GET /api/events/tags", 5),
+        EVENT_DETAIL("GET /api/events/{id}", 10),
+        MY_REGISTRATIONS("GET /api/registrations/my", 10),
+        REGISTER("POST /api/registrations/events/{id}", 8),
+        REGISTER_INTENT("POST .../{id}/intents > poll ticket", 4),
+        CANCEL("DELETE /api/registrations/{id}", 6),
+        SIGNUP("signup: register > OTP > verify > login", 2);
+
+        private final String label;
+        private final int weight;
+
+        Scenario(String label, int weight) {
+            this.label = label;
+            this.weight = weight;
+        }
+    }
+
+    private static class Worker {
+        final String email;
+        final String token;
+        final Map<Long, Long> registrations = new HashMap<>(); // eventId -> registrationId
+
+        Worker(String email, String token) {
+            this.email = email;
+            this.token = token;
+        }
+    }
+
+    private static class ScenarioStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final AtomicLong errors = new AtomicLong();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        new Thread(this::runAndExit, "loadtest-runner").start();
+    }
+
+    private void runAndExit() {
+        int exitCode = 0;
+        try {
+            run();
+        } catch (Exception e) {
+            log.error("Load test failed", e);
+            exitCode = 1;
+        }
+        if (exitOnFinish) {
+            int code = exitCode;
+            System.exit(SpringApplication.exit(context, () -> code));
+        }
+    }
+
+    private void run() throws Exception {
+        baseUrl = "http://localhost:" + environment.getProperty("local.server.port");
+        eventIds = fetchEventIds();
+        List<Worker> workers = login(Math.min(threads, seededUsers));
+        if (workers.isEmpty() || eventIds.isEmpty()) {
+            throw new IllegalStateException("Nothing to drive: set seed.users and seed.events");
+        }
+
+        Map<Scenario, Long> statements = calibrate(workers.get(0));
+
+        log.info("Warming up for {}s with {} threads", warmupSeconds, workers.size());
+        drive(workers, warmupSeconds, new EnumMap<>(Scenario.class));
+        poolWaitTracker.getWaits().reset();
+
+        log.info("Measuring for {}s with {} threads", durationSeconds, workers.size());
+        Map<Scenario, ScenarioStats> stats = new EnumMap<>(Scenario.class);
+        long started = System.nanoTime();
+        drive(workers, durationSeconds, stats);
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+        report(workers.size(), elapsedSeconds, stats, statements);
+    }
+
+    // Runs each scenario a few times on its own and keeps the smallest number of
+    // statements Hibernate prepared, so background jobs don't skew the count
+    private Map<Scenario, Long> calibrate(Worker worker) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        Map<Scenario, Long> statements = new EnumMap<>(Scenario.class);
+        for (Scenario scenario : Scenario.values()) {
+            long fewest = Long.MAX_VALUE;
+            for (int i = 0; i < 3; i++) {
+                long before = statistics.getPrepareStatementCount();
+                execute(scenario, worker);
+                fewest = Math.min(fewest, statistics.getPrepareStatementCount() - before);
+            }
+            statements.put(scenario, fewest);
+        }
+        return statements;
+    }
+
+    private void drive(List<Worker> workers, int seconds, Map<Scenario, ScenarioStats> stats) throws InterruptedException {
+        for (Scenario scenario : Scenario.values()) {
+            stats.putIfAbsent(scenario, new ScenarioStats());
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService pool = Executors.newFixedThreadPool(workers.size());
+        for (Worker worker : workers) {
+            pool.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    Scenario scenario = pick(worker);
+                    ScenarioStats scenarioStats = stats.get(scenario);
+                    long start = System.nanoTime();
+                    boolean ok;
+                    try {
+                        ok = execute(scenario, worker);
+                    } catch (Exception e) {
+                        ok = false;
+                    }
+                    scenarioStats.latency.recordNanos(System.nanoTime() - start);
+                    if (!ok) {
+                        scenarioStats.errors.incrementAndGet();
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+    }
+
+    private Scenario pick(Worker worker) {
+        int total = Arrays.stream(Scenario.values()).mapToInt(s -> s.weight).sum();
+        int roll = ThreadLocalRandom.current().nextInt(total);
+        Scenario picked = Scenario.LIST_EVENTS;
+        for (Scenario scenario : Scenario.values()) {
+            roll -= scenario.weight;
+            if (roll < 0) {
+                picked = scenario;
+                break;
+            }
+        }
+        // Keep writes possible: cancel needs a registration, register needs a free event
+        if (picked == Scenario.CANCEL && worker.registrations.isEmpty()) {
+            return Scenario.REGISTER;
+        }
+        if ((picked == Scenario.REGISTER || picked == Scenario.REGISTER_INTENT)
+                && worker.registrations.size() >= eventIds.size()) {
+            return Scenario.CANCEL;
+        }
+        return picked;
+    }
+
+    private boolean execute(Scenario scenario, Worker worker) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (scenario) {
+            case LIST_EVENTS:
+                return ok(send("GET", "/api/events", null, null));
+            case SEARCH_EVENTS:
+                String[] departments = { "CSE", "ECE", "EEE", "MECH", "CIVIL", "General" };
+                return ok(send("GET", "/api/events/search?size=20&department="
+                        + departments[random.nextInt(departments.length)], null, null));
+            case TAG_FACETS:
+                return ok(send("GET", "/api/events/tags", null, null));
+            case EVENT_DETAIL:
+                return ok(send("GET", "/api/events/" + randomEvent(), null, null));
+            case MY_REGISTRATIONS:
+                return ok(send("GET", "/api/registrations/my", worker.token, null));
+            case REGISTER:
+                return register(worker);
+            case REGISTER_INTENT:
+                return registerIntent(worker);
+            case CANCEL:
+                if (worker.registrations.isEmpty()) {
+                    return register(worker);
+                }
+                Long eventId = worker.registrations.keySet().iterator().next();
+                Long registrationId = worker.registrations.remove(eventId);
+                return ok(send("DELETE", "/api/registrations/" + registrationId, worker.token, null));
+            case SIGNUP:
+                return signup();
+            default:
+                throw new IllegalArgumentException(scenario.name());
+        }
+    }
+
+    private boolean register(Worker worker) throws Exception {
+        Long eventId = unregisteredEvent(worker);
+        if (worker.registrations.containsKey(eventId)) {
+            return ok(send("GET", "/api/events/" + eventId, null, null));
+        }
+        HttpResponse<String> response = send("POST", "/api/registrations/events/" + eventId, worker.token, null);
+        if (!ok(response)) {
+            return false;
+        }
+        worker.registrations.put(eventId, objectMapper.readTree(response.body()).get("id").asLong());
+        return true;
+    }
+
+    // The burst-mode path: queue an intent, then poll its ticket until the
+    // registration is decided (the timing covers both)
+    private boolean registerIntent(Worker worker) throws Exception {
+        Long eventId = unregisteredEvent(worker);
+        if (worker.registrations.containsKey(eventId)) {
+            return ok(send("GET", "/api/events/" + eventId, null, null));
+        }
+        HttpResponse<String> response = send("POST", "/api/registrations/events/" + eventId + "/intents",
+                worker.token, null);
+        if (!ok(response)) {
+            return false;
+        }
+        JsonNode ticket = objectMapper.readTree(response.body());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while ("QUEUED".equals(ticket.path("status").asText())) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+            response = send("GET", "/api/registrations/tickets/" + ticket.get("ticketId").asText(), worker.token, null);
+            if (!ok(response)) {
+                return false;
+            }
+            ticket = objectMapper.readTree(response.body());
+        }
+        if ("REJECTED".equals(ticket.path("status").asText())) {
+            return false;
+        }
+        worker.registrations.put(eventId, ticket.get("registrationId").asLong());
+        return true;
+    }
+
+    // A random event the worker has not registered for, if one turns up within a few tries
+    private Long unregisteredEvent(Worker worker) {
+        Long eventId = randomEvent();
+        for (int i = 0; i < 10 && worker.registrations.containsKey(eventId); i++) {
+            eventId = randomEvent();
+        }
+        return eventId;
+    }
+
+    // The full new-user path: register, read the OTP from the sink, verify, log in
+    private boolean signup() throws Exception {
+        String email = "loadtest.signup" + signups.incrementAndGet() + "@raghuenggcollege.in";
+        Map<String, String> account = Map.of("fullName", "Load Test Signup", "email", email,
+                "password", SIGNUP_PASSWORD);
+        if (!ok(send("POST", "/api/auth/register", null, account))) {
+            return false;
+        }
+        String otp = smtpSink.awaitOtp(email, 10_000);
+        if (!ok(send("POST", "/api/auth/verify", null, Map.of("email", email, "otp", otp)))) {
+            return false;
+        }
+        return ok(send("POST", "/api/auth/login", null, Map.of("email", email, "password", SIGNUP_PASSWORD)));
+    }
+
+    private List<Worker> login(int count) throws Exception {
+        List<Worker> workers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String email = DataSeeder.bulkUserEmail(i);
+            HttpResponse<String> response = send("POST", "/api/auth/login", null,
+                    Map.of("email", email, "password", DataSeeder.BULK_PASSWORD));
+            if (!ok(response)) {
+                throw new IllegalStateException("Login failed for " + email + ": " + response.statusCode());
+            }
+            workers.add(new Worker(email, objectMapper.readTree(response.body()).get("token").asText()));
+        }
+        return workers;
+    }
+
+    private List<Long> fetchEventIds() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode event : objectMapper.readTree(send("GET", "/api/events", null, null).body())) {
+            ids.add(event.get("id").asLong());
+        }
+        return ids;
+    }
+
+    private Long randomEvent() {
+        return eventIds.get(ThreadLocalRandom.current().nextInt(eventIds.size()));
+    }
+
+    private HttpResponse<String> send(String method, String path, String token, Object body)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        if (body != null) {
+            request.header("Content-Type", "application/json");
+        }
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static boolean ok(HttpResponse<?> response) {
+        return response.statusCode() / 100 == 2;
+    }
+
+    private void report(int workers, double seconds, Map<Scenario, ScenarioStats> stats, Map<Scenario, Long> statements) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%nLoad test: %d threads, %.1fs, %d events%n", workers, seconds, eventIds.size()));
+        out.append(String.format("%-42s %9s %7s %9s %8s %8s %8s %8s %7s%n", "operation", "count", "errors",
+                "ops/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "sql/op"));
+        long total = 0;
+        long errors = 0;
+        for (Scenario scenario : Scenario.values()) {
+            ScenarioStats s = stats.get(scenario);
+            LatencyHistogram latency = s.latency;
+            total += latency.getCount();
+            errors += s.errors.get();
+            out.append(String.format("%-42s %9d %7d %9.1f %8.2f %8.2f %8.2f %8.2f %7d%n", scenario.label,
+                    latency.getCount(), s.errors.get(), latency.getCount() / seconds,
+                    latency.percentileMillis(50), latency.percentileMillis(90), latency.percentileMillis(99),
+                    latency.maxMillis(), statements.get(scenario)));
+        }
+        out.append(String.format("%-42s %9d %7d %9.1f%n", "total", total, errors, total / seconds));
+
+        LatencyHistogram waits = poolWaitTracker.getWaits();
+        out.append(String.format("Connection pool (max %d): %d borrows, wait p50 %.3f ms, p99 %.3f ms, max %.3f ms, %d timeouts%n",
+                poolWaitTracker.getMaxConnections(), waits.getCount(), waits.percentileMillis(50),
+                waits.percentileMillis(99), waits.maxMillis(), poolWaitTracker.getTimeouts()));
+        out.append(String.format("Mail sink received %d messages%n", smtpSink.getMessageCount()));
+        out.append("sql/op counts statements prepared through Hibernate in a single-threaded calibration pass; "
+                + "JdbcTemplate batches (outbox fan-out) are not included");
+        log.info(out.toString());
+    }
+}
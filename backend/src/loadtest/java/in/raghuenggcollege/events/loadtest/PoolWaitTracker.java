@@ -0,0 +1,57 @@
+package in.raghuenggcollege.events.loadtest;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Records how long requests wait to borrow a Hikari connection
+@Component
+@Profile("loadtest")
+public class PoolWaitTracker implements BeanPostProcessor, MetricsTrackerFactory {
+
+    private final LatencyHistogram waits = new LatencyHistogram();
+    private final AtomicLong timeouts = new AtomicLong();
+    private volatile PoolStats poolStats;
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource) {
+            dataSource.setMetricsTrackerFactory(this);
+        }
+        return bean;
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolStats = poolStats;
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                waits.recordNanos(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.incrementAndGet();
+            }
+        };
+    }
+
+    LatencyHistogram getWaits() {
+        return waits;
+    }
+
+    long getTimeouts() {
+        return timeouts.get();
+    }
+
+    int getMaxConnections() {
+        return poolStats == null ? 0 : poolStats.getMaxConnections();
+    }
+}
@@ -0,0 +1,149 @@
+package in.raghuenggcollege.events.loadtest;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Minimal in-process SMTP server the load test points spring.mail at. It
+// accepts everything, counts messages and keeps the latest OTP per recipient
+// so the signup flow can be completed without a real inbox.
+@Component
+@Profile("loadtest")
+@lombok.extern.slf4j.Slf4j
+public class SmtpSink {
+
+    private static final Pattern OTP = Pattern.compile("verification code is: (\\d{6})");
+
+    @Value("${loadtest.smtp.port:3025}")
+    private int port;
+
+    private final ConcurrentHashMap<String, String> otps = new ConcurrentHashMap<>();
+    private final AtomicLong messages = new AtomicLong();
+    private final ExecutorService connections = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "smtp-sink");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ServerSocket serverSocket;
+
+    @PostConstruct
+    void start() throws IOException {
+        serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        connections.execute(this::acceptLoop);
+        log.info("SMTP sink listening on 127.0.0.1:{}", port);
+    }
+
+    @PreDestroy
+    void stop() throws IOException {
+        serverSocket.close();
+        connections.shutdownNow();
+    }
+
+    public long getMessageCount() {
+        return messages.get();
+    }
+
+    // Waits for the next OTP mailed to the address and consumes it
+    public String awaitOtp(String email, long timeoutMillis) throws InterruptedException {
+        String key = email.toLowerCase(Locale.ROOT);
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (System.currentTimeMillis() < deadline) {
+            String otp = otps.remove(key);
+            if (otp != null) {
+                return otp;
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("No OTP mailed to " + email + " within " + timeoutMillis + " ms");
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    log.warn("SMTP sink accept failed", e);
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+            reply(out, "220 loadtest SMTP sink");
+            List<String> recipients = new ArrayList<>();
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.toUpperCase(Locale.ROOT);
+                if (command.startsWith("RCPT TO:")) {
+                    recipients.add(address(line.substring(8)));
+                    reply(out, "250 OK");
+                } else if (command.startsWith("MAIL FROM:") || command.startsWith("RSET")) {
+                    recipients.clear();
+                    reply(out, "250 OK");
+                } else if (command.startsWith("DATA")) {
+                    reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    deliver(recipients, readData(in));
+                    reply(out, "250 OK");
+                } else if (command.startsWith("QUIT")) {
+                    reply(out, "221 Bye");
+                    return;
+                } else {
+                    reply(out, "250 OK"); // EHLO, HELO, NOOP and anything else
+                }
+            }
+        } catch (IOException e) {
+            log.debug("SMTP sink connection closed", e);
+        }
+    }
+
+    private String readData(BufferedReader in) throws IOException {
+        StringBuilder data = new StringBuilder();
+        String line;
+        while ((line = in.readLine()) != null && !line.equals(".")) {
+            data.append(line).append('\n');
+        }
+        return data.toString();
+    }
+
+    private void deliver(List<String> recipients, String data) {
+        messages.incrementAndGet();
+        Matcher matcher = OTP.matcher(data);
+        if (matcher.find()) {
+            recipients.forEach(recipient -> otps.put(recipient, matcher.group(1)));
+        }
+    }
+
+    private static String address(String value) {
+        return value.trim().replace("<", "").replace(">", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static void reply(PrintWriter out, String line) {
+        out.print(line + "\r\n");
+        out.flush();
+    }
+}
@@ -1,23 +1,49 @@
 package in.raghuenggcollege.events.config;
 
+import in.raghuenggcollege.events.entity.InvalidationScope;
+import in.raghuenggcollege.events.entity.User;
 import in.raghuenggcollege.events.repository.UserRepository;
+import in.raghuenggcollege.events.service.ClusterInvalidations;
+import in.raghuenggcollege.events.service.UserPrincipalCache;
+import in.raghuenggcollege.events.util.CalibratedBCryptPasswordEncoder;
+import in.raghuenggcollege.events.util.TimedPasswordEncoder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
 @RequiredArgsConstructor
+@lombok.extern.slf4j.Slf4j
 public class ApplicationConfig {
 
     private final UserRepository repository;
+    private final UserPrincipalCache userPrincipalCache;
+    private final ClusterInvalidations clusterInvalidations;
+    private final MeterRegistry meterRegistry;
+
+    // BCrypt cost: a fixed value, or 0 to calibrate at startup towards target-ms per hash
+    @Value("${auth.bcrypt.strength:0}")
+    private int bcryptStrength;
+
+    @Value("${auth.bcrypt.target-ms:250}")
+    private long bcryptTargetMs;
+
+    @Value("${auth.bcrypt.min-strength:10}")
+    private int bcryptMinStrength;
+
+    @Value("${auth.bcrypt.max-strength:14}")
+    private int bcryptMaxStrength;
 
     @Bean
     public UserDetailsService userDetailsService() {
@@ -25,10 +51,27 @@ public class ApplicationConfig {
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
 
+    // Stores the rehash DaoAuthenticationProvider makes after a login whose
+    // stored hash has a different BCrypt cost
+    @Bean
+    public UserDetailsPasswordService userDetailsPasswordService() {
+        return (userDetails, newPassword) -> {
+            User user = repository.findByEmail(userDetails.getUsername())
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+            user.setPassword(newPassword);
+            repository.save(user);
+            userPrincipalCache.evict(user.getEmail());
+            clusterInvalidations.publish(InvalidationScope.USER, user.getEmail());
+            log.debug("Rehashed password for {}", user.getEmail());
+            return user;
+        };
+    }
+
     @Bean
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService());
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService());
         authProvider.setPasswordEncoder(passwordEncoder());
         return authProvider;
     }
@@ -40,6 +83,13 @@ public class ApplicationConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        CalibratedBCryptPasswordEncoder bcrypt = bcryptStrength > 0
+                ? new CalibratedBCryptPasswordEncoder(bcryptStrength)
+                : CalibratedBCryptPasswordEncoder.calibrate(bcryptTargetMs, bcryptMinStrength, bcryptMaxStrength);
+        log.info("BCrypt strength {} ({})", bcrypt.getStrength(), bcryptStrength > 0 ? "configured" : "calibrated");
+        Gauge.builder("auth.password.strength", bcrypt, CalibratedBCryptPasswordEncoder::getStrength)
+                .strongReference(true)
+                .register(meterRegistry);
+        return new TimedPasswordEncoder(bcrypt, meterRegistry);
     }
 }
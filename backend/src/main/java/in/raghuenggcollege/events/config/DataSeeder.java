@@ -6,24 +6,42 @@ import in.raghuenggcollege.events.entity.User;
 import in.raghuenggcollege.events.repository.EventRepository;
 import in.raghuenggcollege.events.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
+@lombok.extern.slf4j.Slf4j
 public class DataSeeder implements CommandLineRunner {
 
+    public static final String BULK_PASSWORD = "LoadTest@123";
+    private static final String[] BULK_DEPARTMENTS = { "CSE", "ECE", "EEE", "MECH", "CIVIL", "General" };
+    private static final String[] BULK_TAGS = { "AI", "ML", "Cultural", "Sports", "Workshop", "Hackathon",
+            "Seminar", "Music", "Robotics", "Career" };
+
     private final UserRepository userRepository;
     private final EventRepository eventRepository;
     private final PasswordEncoder passwordEncoder;
 
+    // Extra generated students and events, for load testing (0 = none)
+    @Value("${seed.users:0}")
+    private int bulkUsers;
+
+    @Value("${seed.events:0}")
+    private int bulkEvents;
+
     @Override
     public void run(String... args) throws Exception {
         seedUsers();
         seedEvents();
+        seedBulkUsers();
+        seedBulkEvents();
     }
 
     private void seedUsers() {
@@ -38,7 +56,7 @@ public class DataSeeder implements CommandLineRunner {
                     .department("Administration")
                     .build();
             userRepository.save(admin);
-            System.out.println("✅ Seeded SUPER_ADMIN");
+            log.info("Seeded SUPER_ADMIN");
         }
 
         // DEPT ADMIN (CSE)
@@ -52,7 +70,7 @@ public class DataSeeder implements CommandLineRunner {
                     .department("CSE")
                     .build();
             userRepository.save(cseAdmin);
-            System.out.println("✅ Seeded CSE DEPT_ADMIN");
+            log.info("Seeded CSE DEPT_ADMIN");
         }
 
         // STUDENT
@@ -66,7 +84,7 @@ public class DataSeeder implements CommandLineRunner {
                     .department("CSE")
                     .build();
             userRepository.save(student);
-            System.out.println("✅ Seeded STUDENT");
+            log.info("Seeded STUDENT");
         }
     }
 
@@ -103,7 +121,59 @@ public class DataSeeder implements CommandLineRunner {
 
             eventRepository.save(event1);
             eventRepository.save(event2);
-            System.out.println("✅ Seeded Events: AI Workshop & College Fest");
+            log.info("Seeded Events: AI Workshop & College Fest");
+        }
+    }
+
+    // loadtest.user<N>@raghuenggcollege.in, all with the password BULK_PASSWORD
+    private void seedBulkUsers() {
+        if (bulkUsers <= 0 || userRepository.existsByEmail(bulkUserEmail(0))) {
+            return;
+        }
+        String password = passwordEncoder.encode(BULK_PASSWORD); // Hashed once; BCrypt per user would take minutes
+        List<User> users = new ArrayList<>(bulkUsers);
+        for (int i = 0; i < bulkUsers; i++) {
+            users.add(User.builder()
+                    .fullName("Load Test User " + i)
+                    .email(bulkUserEmail(i))
+                    .password(password)
+                    .role(Role.STUDENT)
+                    .isVerified(true)
+                    .department(BULK_DEPARTMENTS[i % BULK_DEPARTMENTS.length])
+                    .build());
+        }
+        userRepository.saveAll(users);
+        log.info("Seeded {} load test users", bulkUsers);
+    }
+
+    // Spread over the next 30 days with mixed departments, tags and capacities,
+    // including a few small events so waitlists form
+    private void seedBulkEvents() {
+        if (bulkEvents <= 0 || eventRepository.count() >= bulkEvents) {
+            return;
         }
+        User superAdmin = userRepository.findByEmail("admin@raghuenggcollege.in").orElseThrow();
+        LocalDateTime start = LocalDateTime.now().plusHours(3).withMinute(0).withSecond(0).withNano(0);
+        List<Event> events = new ArrayList<>(bulkEvents);
+        for (int i = 0; i < bulkEvents; i++) {
+            LocalDateTime startTime = start.plusMinutes(i * (30L * 24 * 60) / bulkEvents);
+            events.add(Event.builder()
+                    .title("Load Test Event " + i)
+                    .description("Generated event " + i + " for load testing.")
+                    .venue("Hall " + (i % 12))
+                    .startTime(startTime)
+                    .endTime(startTime.plusHours(2))
+                    .capacity(i % 10 == 0 ? 5 : 50 + (i % 5) * 100)
+                    .createdBy(superAdmin)
+                    .department(BULK_DEPARTMENTS[i % BULK_DEPARTMENTS.length])
+                    .tags(BULK_TAGS[i % BULK_TAGS.length] + ", " + BULK_TAGS[(i * 7 + 3) % BULK_TAGS.length])
+                    .build());
+        }
+        eventRepository.saveAll(events);
+        log.info("Seeded {} load test events", bulkEvents);
+    }
+
+    public static String bulkUserEmail(int index) {
+        return "loadtest.user" + index + "@raghuenggcollege.in";
     }
 }
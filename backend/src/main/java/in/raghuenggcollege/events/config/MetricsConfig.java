@@ -0,0 +1,62 @@
+package in.raghuenggcollege.events.config;
+
+import in.raghuenggcollege.events.service.LoginExecutor;
+import in.raghuenggcollege.events.service.MailDispatcher;
+import in.raghuenggcollege.events.service.UpcomingEventsCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Publishes the counters our in-house components already keep. Scraped at
+// /actuator/prometheus; see monitoring/ for the Prometheus and Grafana setup.
+@Configuration
+public class MetricsConfig {
+
+    // Same names and tags as Micrometer's own cache binders
+    @Bean
+    public MeterBinder upcomingEventsCacheMetrics(UpcomingEventsCache cache) {
+        return registry -> {
+            FunctionCounter.builder("cache.gets", cache, UpcomingEventsCache::getHits)
+                    .tags("cache", "upcoming-events", "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", cache, UpcomingEventsCache::getMisses)
+                    .tags("cache", "upcoming-events", "result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("cache.evictions", cache, UpcomingEventsCache::getEvictions)
+                    .tags("cache", "upcoming-events")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder mailDispatcherMetrics(MailDispatcher dispatcher) {
+        return registry -> {
+            Gauge.builder("mail.queue.depth", dispatcher, MailDispatcher::getQueueDepth)
+                    .register(registry);
+            FunctionCounter.builder("mail.messages", dispatcher, MailDispatcher::getSentCount)
+                    .tag("outcome", "sent")
+                    .register(registry);
+            FunctionCounter.builder("mail.messages", dispatcher, MailDispatcher::getFailedCount)
+                    .tag("outcome", "failed")
+                    .register(registry);
+            FunctionCounter.builder("mail.messages", dispatcher, MailDispatcher::getRejectedCount)
+                    .tag("outcome", "rejected")
+                    .register(registry);
+            Gauge.builder("mail.batch.average", dispatcher, MailDispatcher::getAverageBatchMillis)
+                    .baseUnit("milliseconds")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder loginExecutorMetrics(LoginExecutor loginExecutor) {
+        return registry -> {
+            Gauge.builder("auth.login.queue.depth", loginExecutor, LoginExecutor::getQueueDepth)
+                    .register(registry);
+            Gauge.builder("auth.login.active", loginExecutor, LoginExecutor::getActiveCount)
+                    .register(registry);
+        };
+    }
+}
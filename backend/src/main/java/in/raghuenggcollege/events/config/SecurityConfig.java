@@ -34,6 +34,9 @@ public class SecurityConfig {
                                                 .permitAll()
                                                 .requestMatchers(org.springframework.http.HttpMethod.OPTIONS, "/**")
                                                 .permitAll()
+                                                // Prometheus scrapes without a token; keep /actuator off the public proxy
+                                                .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                                                .requestMatchers("/actuator/**").hasRole("SUPER_ADMIN")
                                                 .requestMatchers("/api/registrations/**").authenticated()
                                                 .anyRequest().authenticated())
                                 .sessionManagement(session -> session
@@ -0,0 +1,43 @@
+package in.raghuenggcollege.events.config;
+
+import in.raghuenggcollege.events.util.SqlStatementCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+// SQL statements and time per @Service method call, including nested calls.
+// Only calls made through the Spring proxy are seen, not calls within a class.
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceSqlMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("within(@org.springframework.stereotype.Service in.raghuenggcollege.events..*)")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        SqlStatementCounter.Snapshot before = SqlStatementCounter.snapshot();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            SqlStatementCounter.Snapshot used = SqlStatementCounter.snapshot().since(before);
+            String service = joinPoint.getSignature().getDeclaringType().getSimpleName();
+            String method = joinPoint.getSignature().getName();
+            DistributionSummary.builder("service.sql.statements")
+                    .tags("service", service, "method", method)
+                    .register(meterRegistry)
+                    .record(used.statements());
+            Timer.builder("service.sql.time")
+                    .tags("service", service, "method", method)
+                    .register(meterRegistry)
+                    .record(used.nanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package in.raghuenggcollege.events.config;
+
+import in.raghuenggcollege.events.util.SqlStatementCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// SQL statements, SQL time and entities loaded per request, tagged by route.
+// Runs ahead of the security chain (just after RequestIdFilter) so the JWT user lookup is counted too.
+// Requests over the statement budget are logged, which is where N+1 patterns show up.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+@lombok.extern.slf4j.Slf4j
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${sql.instrumentation.statement-budget:20}")
+    private long statementBudget;
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        SqlStatementCounter.Snapshot before = SqlStatementCounter.snapshot();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            record(request, SqlStatementCounter.snapshot().since(before));
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatementCounter.Snapshot used) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(used.statements());
+        Timer.builder("http.server.requests.sql.time")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(used.nanos(), TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("http.server.requests.entities.loaded")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(used.entitiesLoaded());
+
+        if (used.statements() > statementBudget) {
+            meterRegistry.counter("http.server.requests.sql.budget.exceeded", "method", method, "uri", uri)
+                    .increment();
+            log.warn("{} {} ran {} SQL statements (budget {}), {} ms in SQL, {} entities loaded",
+                    method, request.getRequestURI(), used.statements(), statementBudget,
+                    TimeUnit.NANOSECONDS.toMillis(used.nanos()), used.entitiesLoaded());
+        }
+    }
+}
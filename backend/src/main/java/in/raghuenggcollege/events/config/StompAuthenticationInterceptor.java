@@ -0,0 +1,65 @@
+package in.raghuenggcollege.events.config;
+
+import in.raghuenggcollege.events.service.TokenRevocationList;
+import in.raghuenggcollege.events.service.UserPrincipalCache;
+import in.raghuenggcollege.events.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+// The STOMP counterpart of JwtAuthenticationFilter: a CONNECT frame carrying
+// "Authorization: Bearer <jwt>" makes the session belong to that user, so
+// convertAndSendToUser reaches it. Connections without a valid token stay
+// anonymous and can still subscribe to the public topics.
+@Component
+@RequiredArgsConstructor
+@lombok.extern.slf4j.Slf4j
+public class StompAuthenticationInterceptor implements ChannelInterceptor {
+
+    private final JwtUtil jwtUtil;
+    private final UserPrincipalCache userPrincipalCache;
+    private final TokenRevocationList tokenRevocationList;
+
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() != StompCommand.CONNECT) {
+            return message;
+        }
+        String authHeader = accessor.getFirstNativeHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return message;
+        }
+        Claims claims;
+        try {
+            claims = jwtUtil.parseToken(authHeader.substring(7));
+        } catch (JwtException | IllegalArgumentException e) {
+            return message;
+        }
+        if (claims.getSubject() == null || tokenRevocationList.isRevoked(claims)) {
+            return message;
+        }
+        UserDetails userDetails;
+        try {
+            userDetails = userPrincipalCache.load(claims.getSubject());
+        } catch (UsernameNotFoundException e) {
+            return message;
+        }
+        if (jwtUtil.isTokenValid(claims, userDetails)) {
+            accessor.setUser(new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+            log.debug("STOMP session authenticated as {}", claims.getSubject());
+        }
+        return message;
+    }
+}
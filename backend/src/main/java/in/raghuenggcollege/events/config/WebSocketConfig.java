@@ -1,21 +1,86 @@
 package in.raghuenggcollege.events.config;
 
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
+// broker.mode=simple keeps subscriptions in this JVM, which is fine for a
+// single instance. broker.mode=relay relays STOMP frames to a shared broker
+// (RabbitMQ, ActiveMQ, Artemis with the STOMP plugin), so a message sent on one
+// node reaches clients connected to any node and the load balancer needs no
+// sticky sessions for WebSockets. User destinations (/user/queue/...) work
+// across nodes too: each node broadcasts its connected users on
+// USER_REGISTRY_BROADCAST, and a message for a user the sending node doesn't
+// know yet goes out on USER_DESTINATION_BROADCAST for the node holding the
+// session to resolve.
+// Relay mode is also what switches on the rest of the multi-node support:
+// ClusterInvalidations keeps caches and the tag index in step, and OTPs are
+// kept in the database. Seat counts, waitlists and decided admission tickets
+// live in the database anyway.
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
+@lombok.extern.slf4j.Slf4j
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    static final String USER_DESTINATION_BROADCAST = "/topic/unresolved-user-destination";
+    static final String USER_REGISTRY_BROADCAST = "/topic/simp-user-registry";
+
+    private final StompAuthenticationInterceptor stompAuthenticationInterceptor;
+
+    @Value("${broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${broker.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${broker.relay.passcode:guest}")
+    private String relayPasscode;
+
+    @Value("${broker.relay.virtual-host:}")
+    private String relayVirtualHost;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic", "/queue");
+        switch (brokerMode.trim().toLowerCase()) {
+            case "simple" -> config.enableSimpleBroker("/topic", "/queue");
+            case "relay" -> {
+                StompBrokerRelayRegistration relay = config.enableStompBrokerRelay("/topic", "/queue")
+                        .setRelayHost(relayHost)
+                        .setRelayPort(relayPort)
+                        .setClientLogin(relayLogin)
+                        .setClientPasscode(relayPasscode)
+                        .setSystemLogin(relayLogin)
+                        .setSystemPasscode(relayPasscode)
+                        .setUserDestinationBroadcast(USER_DESTINATION_BROADCAST)
+                        .setUserRegistryBroadcast(USER_REGISTRY_BROADCAST);
+                if (!relayVirtualHost.isBlank()) {
+                    relay.setVirtualHost(relayVirtualHost);
+                }
+                log.info("STOMP relay to {}:{}, running as one of several nodes", relayHost, relayPort);
+            }
+            default -> throw new IllegalStateException("Unknown broker.mode '" + brokerMode + "', expected simple or relay");
+        }
         config.setApplicationDestinationPrefixes("/app");
     }
 
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompAuthenticationInterceptor);
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws")
@@ -6,8 +6,10 @@ import in.raghuenggcollege.events.dto.RegisterRequest;
 import in.raghuenggcollege.events.dto.ResendOtpRequest;
 import in.raghuenggcollege.events.dto.VerifyRequest;
 import in.raghuenggcollege.events.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,9 +21,12 @@ public class AuthController {
 
     private final AuthService service;
 
+    // getRemoteAddr() is the client: behind a trusted proxy Tomcat has already
+    // taken it from X-Forwarded-For (server.forward-headers-strategy=native)
     @PostMapping("/register")
-    public ResponseEntity<String> register(@RequestBody @Valid RegisterRequest request) {
-        service.register(request);
+    public ResponseEntity<String> register(@RequestBody @Valid RegisterRequest request,
+            HttpServletRequest httpRequest) {
+        service.register(request, httpRequest.getRemoteAddr());
         return ResponseEntity.ok("User registered successfully. details sent to email.");
     }
 
@@ -32,8 +37,9 @@ public class AuthController {
     }
 
     @PostMapping("/resend-otp")
-    public ResponseEntity<String> resendOtp(@RequestBody @Valid ResendOtpRequest request) {
-        service.resendOtp(request.getEmail());
+    public ResponseEntity<String> resendOtp(@RequestBody @Valid ResendOtpRequest request,
+            HttpServletRequest httpRequest) {
+        service.resendOtp(request.getEmail(), httpRequest.getRemoteAddr());
         return ResponseEntity.ok("OTP resent successfully. Please check your email.");
     }
 
@@ -41,4 +47,15 @@ public class AuthController {
     public ResponseEntity<AuthenticationResponse> authenticate(@RequestBody AuthenticationRequest request) {
         return ResponseEntity.ok(service.authenticate(request));
     }
+
+    // Revokes the bearer token; all=true signs the user out on every device
+    @PostMapping("/logout")
+    public ResponseEntity<String> logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestParam(defaultValue = "false") boolean all) {
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            service.logout(authorization.substring(7), all);
+        }
+        return ResponseEntity.ok("Logged out successfully.");
+    }
 }
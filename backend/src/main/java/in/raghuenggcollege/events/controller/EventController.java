@@ -1,15 +1,29 @@
 package in.raghuenggcollege.events.controller;
 
+import in.raghuenggcollege.events.dto.AnnouncementRequest;
+import in.raghuenggcollege.events.dto.EventImportResult;
+import in.raghuenggcollege.events.dto.EventPage;
+import in.raghuenggcollege.events.dto.EventSearchCriteria;
 import in.raghuenggcollege.events.entity.Event;
+import in.raghuenggcollege.events.entity.RegistrationStatus;
+import in.raghuenggcollege.events.service.EventBulkService;
 import in.raghuenggcollege.events.service.EventService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/events")
@@ -18,10 +32,81 @@ import java.util.List;
 public class EventController {
 
     private final EventService eventService;
+    private final EventBulkService eventBulkService;
 
-    @GetMapping
-    public ResponseEntity<List<Event>> getAllEvents() {
-        return ResponseEntity.ok(eventService.getAllUpcomingEvents());
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getAllEvents() {
+        // Pre-serialized JSON straight from the listing cache
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(eventService.getAllUpcomingEventsJson());
+    }
+
+    // Keyset-paginated search; pass back nextCursor to fetch the following page
+    @GetMapping("/search")
+    public ResponseEntity<EventPage> searchEvents(
+            @RequestParam(required = false) String department,
+            @RequestParam(required = false) List<String> tags,
+            @RequestParam(required = false) List<String> anyTags,
+            @RequestParam(required = false) String venue,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        EventSearchCriteria criteria = EventSearchCriteria.builder()
+                .department(department)
+                .tags(tags)
+                .anyTags(anyTags)
+                .venue(venue)
+                .from(from != null ? from : LocalDateTime.now()) // Upcoming events unless told otherwise
+                .to(to)
+                .build();
+        return ResponseEntity.ok(eventService.searchEvents(criteria, cursor, size));
+    }
+
+    // Upcoming event count per tag, for the listing page filters
+    @GetMapping("/tags")
+    public ResponseEntity<Map<String, Integer>> getTagFacets() {
+        return ResponseEntity.ok(eventService.getTagFacets());
+    }
+
+    // Bulk import of a CSV (with header row) or NDJSON body; bad rows are reported, not fatal
+    @PostMapping(value = "/import", consumes = { "text/csv", "application/x-ndjson" })
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'DEPT_ADMIN')")
+    public ResponseEntity<EventImportResult> importEvents(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return ResponseEntity.ok(eventBulkService.importEvents(body,
+                EventBulkService.Format.fromContentType(contentType), authentication.getName()));
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'DEPT_ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportEvents(@RequestParam(defaultValue = "csv") String format) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        EventBulkService.Format exportFormat = EventBulkService.Format.fromName(format);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"events." + exportFormat.name().toLowerCase() + "\"")
+                .body(eventBulkService.exportEvents(exportFormat, authentication.getName()));
+    }
+
+    // Attendee list for gate check-in; cancelled registrations are left out unless asked for
+    @GetMapping("/{id}/attendees")
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'DEPT_ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportAttendees(@PathVariable Long id,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) List<RegistrationStatus> status) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        EventBulkService.Format exportFormat = EventBulkService.Format.fromName(format);
+        List<RegistrationStatus> statuses = status != null && !status.isEmpty() ? status
+                : List.of(RegistrationStatus.CONFIRMED, RegistrationStatus.WAITLIST, RegistrationStatus.ATTENDED);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"event-" + id + "-attendees." + exportFormat.name().toLowerCase() + "\"")
+                .body(eventBulkService.exportAttendees(id, statuses, exportFormat, authentication.getName()));
     }
 
     @GetMapping("/{id}")
@@ -43,6 +128,15 @@ public class EventController {
         return ResponseEntity.ok(eventService.updateEvent(id, event, authentication.getName()));
     }
 
+    @PostMapping("/{id}/announcements")
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'DEPT_ADMIN')")
+    public ResponseEntity<Map<String, Integer>> announce(@PathVariable Long id,
+            @RequestBody @Valid AnnouncementRequest announcement) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        int queued = eventService.announce(id, announcement, authentication.getName());
+        return ResponseEntity.accepted().body(Map.of("recipients", queued));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'DEPT_ADMIN')")
     public ResponseEntity<Void> deleteEvent(@PathVariable Long id) {
@@ -1,6 +1,9 @@
 package in.raghuenggcollege.events.controller;
 
+import in.raghuenggcollege.events.dto.MyRegistration;
+import in.raghuenggcollege.events.dto.RegistrationTicket;
 import in.raghuenggcollege.events.entity.Registration;
+import in.raghuenggcollege.events.service.RegistrationAdmissionQueue;
 import in.raghuenggcollege.events.service.RegistrationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -17,6 +20,7 @@ import java.util.List;
 public class RegistrationController {
 
     private final RegistrationService registrationService;
+    private final RegistrationAdmissionQueue admissionQueue;
 
     @PostMapping("/events/{eventId}")
     public ResponseEntity<Registration> register(@PathVariable Long eventId) {
@@ -24,6 +28,19 @@ public class RegistrationController {
         return ResponseEntity.ok(registrationService.registerUser(eventId, auth.getName()));
     }
 
+    // Burst-mode entry point: queues the registration and returns a ticket to poll
+    @PostMapping("/events/{eventId}/intents")
+    public ResponseEntity<RegistrationTicket> registerIntent(@PathVariable Long eventId) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return ResponseEntity.accepted().body(admissionQueue.submit(eventId, auth.getName()));
+    }
+
+    @GetMapping("/tickets/{ticketId}")
+    public ResponseEntity<RegistrationTicket> getTicket(@PathVariable String ticketId) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return ResponseEntity.ok(admissionQueue.getTicket(ticketId, auth.getName()));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> cancel(@PathVariable Long id) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
@@ -32,7 +49,7 @@ public class RegistrationController {
     }
 
     @GetMapping("/my")
-    public ResponseEntity<List<Registration>> getMyRegistrations() {
+    public ResponseEntity<List<MyRegistration>> getMyRegistrations() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         return ResponseEntity.ok(registrationService.getUserRegistrations(auth.getName()));
     }
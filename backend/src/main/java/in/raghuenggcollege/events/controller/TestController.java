@@ -10,6 +10,7 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 @RequestMapping("/api/test")
 @RequiredArgsConstructor
+@lombok.extern.slf4j.Slf4j
 public class TestController {
 
     private final JavaMailSender mailSender;
@@ -24,7 +25,7 @@ public class TestController {
             mailSender.send(message);
             return "✅ Email sent successfully!";
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Test email failed", e);
             return "❌ Error: " + e.getMessage() + " || Type: " + e.getClass().getName();
         }
     }
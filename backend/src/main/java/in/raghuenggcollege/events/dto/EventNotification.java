@@ -0,0 +1,33 @@
+package in.raghuenggcollege.events.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+// What STOMP subscribers receive on the event topics
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventNotification {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        IMPORTED // Bulk import; no eventId
+    }
+
+    private Long eventId;
+    private Type type;
+    private String title;
+    private String department;
+    private List<String> tags;
+    private String message; // Human-readable, for toasts
+    private Map<String, Object> changes; // Field -> new value; UPDATED only
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,18 @@
+package in.raghuenggcollege.events.dto;
+
+import in.raghuenggcollege.events.entity.Event;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventPage {
+    private List<Event> items;
+    private String nextCursor; // null on the last page
+}
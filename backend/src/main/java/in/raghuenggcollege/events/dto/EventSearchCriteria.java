@@ -0,0 +1,29 @@
+package in.raghuenggcollege.events.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventSearchCriteria {
+    private String department;
+    private List<String> tags; // Every tag must match
+    private List<String> anyTags; // At least one tag must match
+    private String venue;
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    // Keyset position: only events after (afterStartTime, afterId) are returned
+    private LocalDateTime afterStartTime;
+    private Long afterId;
+
+    // Candidate ids resolved from the tag index; takes the place of the tag filters
+    private List<Long> eventIds;
+}
@@ -0,0 +1,46 @@
+package in.raghuenggcollege.events.dto;
+
+import in.raghuenggcollege.events.entity.RegistrationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Row of the "my registrations" dashboard. Filled from one flat join query;
+// serializes to the same nested {id, status, registeredAt, event: {...}} shape
+// the frontend used to get from the Registration entity.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MyRegistration {
+
+    private Long id;
+    private RegistrationStatus status;
+    private LocalDateTime registeredAt;
+    private EventSummary event;
+
+    // Used by the JPQL constructor expression in RegistrationRepository
+    public MyRegistration(Long id, RegistrationStatus status, LocalDateTime registeredAt, Long eventId,
+            String title, String venue, String department, LocalDateTime startTime, LocalDateTime endTime,
+            String bannerUrl) {
+        this(id, status, registeredAt, new EventSummary(eventId, title, venue, department, startTime, endTime,
+                bannerUrl));
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class EventSummary {
+        private Long id;
+        private String title;
+        private String venue;
+        private String department;
+        private LocalDateTime startTime;
+        private LocalDateTime endTime;
+        private String bannerUrl;
+    }
+}
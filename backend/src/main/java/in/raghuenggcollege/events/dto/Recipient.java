@@ -0,0 +1,7 @@
+package in.raghuenggcollege.events.dto;
+
+import in.raghuenggcollege.events.entity.RegistrationStatus;
+
+// Just what a notification needs from a registration - no entities are loaded
+public record Recipient(Long registrationId, String email, String fullName, RegistrationStatus status) {
+}
@@ -0,0 +1,38 @@
+package in.raghuenggcollege.events.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Receipt for a queued registration; poll it or subscribe to /user/queue/registrations
+@Data
+@Builder(toBuilder = true)
+@AllArgsConstructor
+@NoArgsConstructor
+public class RegistrationTicket {
+
+    public enum Status {
+        QUEUED,
+        CONFIRMED,
+        WAITLIST,
+        REJECTED
+    }
+
+    private String ticketId;
+    private Long eventId;
+    private Status status;
+    private Long registrationId;
+    private Long position; // Intents ahead of this one while QUEUED
+    private String message;
+    private LocalDateTime updatedAt;
+
+    @JsonIgnore
+    private String userEmail;
+
+    @JsonIgnore
+    private long sequence;
+}
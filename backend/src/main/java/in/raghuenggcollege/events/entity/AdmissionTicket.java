@@ -0,0 +1,46 @@
+package in.raghuenggcollege.events.entity;
+
+import in.raghuenggcollege.events.dto.RegistrationTicket;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// The outcome of a burst-mode registration intent, written in the same
+// transaction as the registration so any node can answer for the ticket (see
+// RegistrationAdmissionQueue). Rows are deleted after the ticket TTL.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "admission_tickets", indexes = {
+        @Index(name = "idx_admission_tickets_updated", columnList = "updated_at")
+})
+public class AdmissionTicket {
+
+    @Id
+    @Column(name = "ticket_id", length = 36)
+    private String ticketId;
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Column(name = "user_email", nullable = false)
+    private String userEmail;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private RegistrationTicket.Status status;
+
+    @Column(name = "registration_id")
+    private Long registrationId;
+
+    private String message;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
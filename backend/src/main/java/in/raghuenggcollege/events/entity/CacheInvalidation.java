@@ -0,0 +1,41 @@
+package in.raghuenggcollege.events.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+// A change other nodes must drop from their in-memory state, written in the
+// same transaction as the change and polled by ClusterInvalidations. Rows are
+// deleted after a few minutes.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "cache_invalidations", indexes = {
+        @Index(name = "idx_cache_invalidations_created", columnList = "created_at")
+})
+public class CacheInvalidation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 36)
+    private String origin; // Node that made the change; it has already applied it
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private InvalidationScope scope;
+
+    private String subject;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
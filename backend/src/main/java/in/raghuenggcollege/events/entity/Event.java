@@ -6,7 +6,6 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
-import org.hibernate.annotations.Formula;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -16,7 +15,11 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "events")
+@Table(name = "events", indexes = {
+        @Index(name = "idx_events_start_time", columnList = "start_time, id"),
+        @Index(name = "idx_events_department_start_time", columnList = "department, start_time, id"),
+        @Index(name = "idx_events_venue_start_time", columnList = "venue, start_time, id")
+})
 public class Event {
 
     @Id
@@ -48,8 +51,11 @@ public class Event {
 
     private String department; // The department this event belongs to
 
-    @Formula("(SELECT COUNT(*) FROM registrations r WHERE r.event_id = id AND r.status = 'CONFIRMED')")
-    private Long attendeeCount;
+    // The seat ledger (see SeatLedger); repaired by EventCounterReconciler
+    @Builder.Default
+    @com.fasterxml.jackson.annotation.JsonProperty(access = com.fasterxml.jackson.annotation.JsonProperty.Access.READ_ONLY)
+    @Column(name = "confirmed_count", nullable = false, updatable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long attendeeCount = 0L;
 
     @com.fasterxml.jackson.annotation.JsonIgnoreProperties({ "hibernateLazyInitializer", "handler", "password" })
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,31 @@
+package in.raghuenggcollege.events.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One normalized tag of an event; Event.tags keeps the display string
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "event_tags", uniqueConstraints = {
+        @UniqueConstraint(columnNames = { "event_id", "tag" })
+}, indexes = {
+        @Index(name = "idx_event_tags_tag", columnList = "tag, event_id")
+})
+public class EventTag {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Column(nullable = false, length = 64)
+    private String tag;
+}
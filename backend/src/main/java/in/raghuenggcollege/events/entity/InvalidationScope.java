@@ -0,0 +1,8 @@
+package in.raghuenggcollege.events.entity;
+
+// What a CacheInvalidation row tells the other nodes to drop
+public enum InvalidationScope {
+    EVENT,              // An event was created, edited or deleted; subject is its id
+    USER_REGISTRATIONS, // A user's registrations changed; subject is the email
+    USER                // A user's account changed; subject is the email
+}
@@ -0,0 +1,6 @@
+package in.raghuenggcollege.events.entity;
+
+public enum OutboxChannel {
+    EMAIL,
+    BROADCAST
+}
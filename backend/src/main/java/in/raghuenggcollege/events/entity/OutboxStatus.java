@@ -0,0 +1,8 @@
+package in.raghuenggcollege.events.entity;
+
+public enum OutboxStatus {
+    PENDING,
+    IN_FLIGHT,
+    SENT,
+    FAILED
+}
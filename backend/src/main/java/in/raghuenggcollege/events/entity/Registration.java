@@ -17,6 +17,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "registrations", uniqueConstraints = {
         @UniqueConstraint(columnNames = { "user_id", "event_id" })
+}, indexes = {
+        @Index(name = "idx_registrations_event_status_registered", columnList = "event_id, status, registered_at")
 })
 public class Registration {
 
@@ -38,8 +40,9 @@ public class Registration {
     @Column(nullable = false)
     private RegistrationStatus status;
 
+    // When the user last (re-)registered; orders the waitlist
     @CreationTimestamp
-    @Column(name = "registered_at", nullable = false, updatable = false)
+    @Column(name = "registered_at", nullable = false)
     private LocalDateTime registeredAt;
 
     @UpdateTimestamp
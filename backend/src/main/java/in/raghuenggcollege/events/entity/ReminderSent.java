@@ -0,0 +1,45 @@
+package in.raghuenggcollege.events.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+// Marks a reminder as sent. The unique key makes each reminder fire once, even
+// across restarts or several nodes; a rescheduled event gets fresh reminders
+// because its start time changes.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "reminders_sent", uniqueConstraints = {
+        @UniqueConstraint(columnNames = { "event_id", "reminder_type", "event_start_time" })
+})
+public class ReminderSent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "reminder_type", nullable = false, length = 32)
+    private ReminderType reminderType;
+
+    @Column(name = "event_start_time", nullable = false)
+    private LocalDateTime eventStartTime;
+
+    @Column(name = "recipient_count")
+    private Integer recipientCount;
+
+    @CreationTimestamp
+    @Column(name = "sent_at", updatable = false)
+    private LocalDateTime sentAt;
+}
@@ -0,0 +1,25 @@
+package in.raghuenggcollege.events.entity;
+
+import java.time.Duration;
+
+public enum ReminderType {
+    DAY_BEFORE(Duration.ofHours(24), "24 hours"),
+    HOUR_BEFORE(Duration.ofHours(1), "1 hour"),
+    QUARTER_HOUR_BEFORE(Duration.ofMinutes(15), "15 minutes");
+
+    private final Duration offset;
+    private final String label;
+
+    ReminderType(Duration offset, String label) {
+        this.offset = offset;
+        this.label = label;
+    }
+
+    public Duration getOffset() {
+        return offset;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
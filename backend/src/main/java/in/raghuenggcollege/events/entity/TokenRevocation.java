@@ -0,0 +1,45 @@
+package in.raghuenggcollege.events.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+// A logout, shared between nodes through TokenRevocationList. Either one token
+// (jti) or every token the user was issued at or before revokedBefore. Rows are
+// deleted once the tokens they block have expired.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "token_revocations", indexes = {
+        @Index(name = "idx_token_revocations_created", columnList = "created_at"),
+        @Index(name = "idx_token_revocations_expires", columnList = "expires_at")
+})
+public class TokenRevocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String email;
+
+    @Column(length = 64)
+    private String jti; // Null when all of the user's tokens are revoked
+
+    @Column(name = "revoked_before")
+    private Long revokedBefore; // Epoch millis (seconds in rows written before that change); null for a single token
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
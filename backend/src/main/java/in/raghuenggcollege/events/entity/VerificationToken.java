@@ -30,6 +30,10 @@ public class VerificationToken {
     @Column(name = "expires_at", nullable = false)
     private LocalDateTime expiresAt;
 
+    // Wrong guesses at this code, counted across every node
+    @Column(name = "failed_attempts", nullable = false)
+    private int failedAttempts;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
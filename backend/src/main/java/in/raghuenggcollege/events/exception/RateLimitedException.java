@@ -0,0 +1,16 @@
+package in.raghuenggcollege.events.exception;
+
+// Thrown when a caller is over a rate limit; mapped to 429 with Retry-After
+public class RateLimitedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,18 @@
+package in.raghuenggcollege.events.repository;
+
+import in.raghuenggcollege.events.entity.AdmissionTicket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface AdmissionTicketRepository extends JpaRepository<AdmissionTicket, String> {
+
+    @Modifying
+    @Query("DELETE FROM AdmissionTicket t WHERE t.updatedAt < :before")
+    int deleteUpdatedBefore(@Param("before") LocalDateTime before);
+}
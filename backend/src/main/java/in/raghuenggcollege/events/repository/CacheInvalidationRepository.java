@@ -0,0 +1,22 @@
+package in.raghuenggcollege.events.repository;
+
+import in.raghuenggcollege.events.entity.CacheInvalidation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidation, Long> {
+
+    @Query("SELECT i FROM CacheInvalidation i WHERE i.createdAt >= :since AND i.origin <> :origin ORDER BY i.id")
+    List<CacheInvalidation> findFromOthersSince(@Param("since") LocalDateTime since, @Param("origin") String origin);
+
+    @Modifying
+    @Query("DELETE FROM CacheInvalidation i WHERE i.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
@@ -1,13 +1,51 @@
 package in.raghuenggcollege.events.repository;
 
 import in.raghuenggcollege.events.entity.Event;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface EventRepository extends JpaRepository<Event, Long> {
+public interface EventRepository extends JpaRepository<Event, Long>, EventSearchRepository {
+    @EntityGraph(attributePaths = "createdBy")
     List<Event> findByStartTimeAfterOrderByStartTimeAsc(LocalDateTime now);
+
+    // Range scan on idx_events_start_time
+    List<Event> findByStartTimeBetweenOrderByStartTimeAsc(LocalDateTime from, LocalDateTime to);
+
+    @Modifying
+    @Query(value = "UPDATE events SET confirmed_count = confirmed_count + :delta WHERE id = :eventId", nativeQuery = true)
+    void adjustConfirmedCount(@Param("eventId") Long eventId, @Param("delta") long delta);
+
+    // Claims one seat; returns 0 when the event is already full. The row lock
+    // taken here is what serializes seat claims across threads and replicas.
+    @Modifying
+    @Query(value = "UPDATE events SET confirmed_count = confirmed_count + 1 "
+            + "WHERE id = :eventId AND confirmed_count < capacity", nativeQuery = true)
+    int claimSeat(@Param("eventId") Long eventId);
+
+    // Locks the event row and returns its free seats, for claims of several seats at once
+    @Query(value = "SELECT GREATEST(capacity - confirmed_count, 0) FROM events WHERE id = :eventId FOR UPDATE",
+            nativeQuery = true)
+    long lockFreeSeats(@Param("eventId") Long eventId);
+
+    // Rewrites only the rows whose counter has drifted from the registrations table
+    @Modifying
+    @Query(value = "UPDATE events e SET e.confirmed_count = "
+            + "(SELECT COUNT(*) FROM registrations r WHERE r.event_id = e.id AND r.status = 'CONFIRMED') "
+            + "WHERE e.confirmed_count <> "
+            + "(SELECT COUNT(*) FROM registrations r WHERE r.event_id = e.id AND r.status = 'CONFIRMED')", nativeQuery = true)
+    int reconcileConfirmedCounts();
+
+    // Upcoming events with a free seat and someone still waiting for one
+    @Query(value = "SELECT e.id FROM events e WHERE e.start_time > :now AND e.confirmed_count < e.capacity "
+            + "AND EXISTS (SELECT 1 FROM registrations r WHERE r.event_id = e.id AND r.status = 'WAITLIST')",
+            nativeQuery = true)
+    List<Long> findIdsWithFreeSeatsAndWaitlist(@Param("now") LocalDateTime now);
 }
@@ -0,0 +1,12 @@
+package in.raghuenggcollege.events.repository;
+
+import in.raghuenggcollege.events.dto.EventSearchCriteria;
+import in.raghuenggcollege.events.entity.Event;
+
+import java.util.List;
+
+public interface EventSearchRepository {
+
+    // Events matching the criteria ordered by (startTime, id), at most limit rows
+    List<Event> search(EventSearchCriteria criteria, int limit);
+}
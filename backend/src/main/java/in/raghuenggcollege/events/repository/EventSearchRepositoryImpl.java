@@ -0,0 +1,81 @@
+package in.raghuenggcollege.events.repository;
+
+import in.raghuenggcollege.events.dto.EventSearchCriteria;
+import in.raghuenggcollege.events.entity.Event;
+import in.raghuenggcollege.events.entity.EventTag;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class EventSearchRepositoryImpl implements EventSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Event> search(EventSearchCriteria criteria, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Event> query = cb.createQuery(Event.class);
+        Root<Event> event = query.from(Event.class);
+        event.fetch("createdBy", JoinType.LEFT);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.getDepartment() != null) {
+            predicates.add(cb.equal(event.get("department"), criteria.getDepartment()));
+        }
+        if (criteria.getVenue() != null) {
+            predicates.add(cb.equal(event.get("venue"), criteria.getVenue()));
+        }
+        if (criteria.getFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(event.get("startTime"), criteria.getFrom()));
+        }
+        if (criteria.getTo() != null) {
+            predicates.add(cb.lessThan(event.get("startTime"), criteria.getTo()));
+        }
+        if (criteria.getEventIds() != null) {
+            predicates.add(event.get("id").in(criteria.getEventIds()));
+        } else {
+            // Too many candidates for an IN list - let the database walk idx_event_tags_tag
+            if (criteria.getTags() != null) {
+                for (String tag : criteria.getTags()) {
+                    predicates.add(event.get("id").in(taggedEventIds(query, cb, List.of(tag))));
+                }
+            }
+            if (criteria.getAnyTags() != null && !criteria.getAnyTags().isEmpty()) {
+                predicates.add(event.get("id").in(taggedEventIds(query, cb, criteria.getAnyTags())));
+            }
+        }
+        if (criteria.getAfterStartTime() != null && criteria.getAfterId() != null) {
+            LocalDateTime afterStartTime = criteria.getAfterStartTime();
+            predicates.add(cb.or(
+                    cb.greaterThan(event.get("startTime"), afterStartTime),
+                    cb.and(
+                            cb.equal(event.get("startTime"), afterStartTime),
+                            cb.greaterThan(event.get("id"), criteria.getAfterId()))));
+        }
+
+        query.select(event)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(event.get("startTime")), cb.asc(event.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // SELECT t.eventId FROM EventTag t WHERE t.tag IN (:tags)
+    private Subquery<Long> taggedEventIds(CriteriaQuery<?> query, CriteriaBuilder cb, List<String> tags) {
+        Subquery<Long> subquery = query.subquery(Long.class);
+        Root<EventTag> eventTag = subquery.from(EventTag.class);
+        return subquery.select(eventTag.get("eventId")).where(eventTag.get("tag").in(tags));
+    }
+}
@@ -0,0 +1,28 @@
+package in.raghuenggcollege.events.repository;
+
+import in.raghuenggcollege.events.entity.EventTag;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EventTagRepository extends JpaRepository<EventTag, Long> {
+
+    @Modifying
+    @Query("DELETE FROM EventTag t WHERE t.eventId = :eventId")
+    void deleteByEventId(@Param("eventId") Long eventId);
+
+    // (eventId, tag, startTime) rows used to build the in-memory index
+    @Query("SELECT t.eventId, t.tag, e.startTime FROM EventTag t, Event e WHERE e.id = t.eventId")
+    List<Object[]> findAllWithStartTime();
+
+    // Same rows for some events only
+    @Query("SELECT t.eventId, t.tag, e.startTime FROM EventTag t, Event e WHERE e.id = t.eventId "
+            + "AND t.eventId IN :eventIds")
+    List<Object[]> findWithStartTimeByEventIds(@Param("eventIds") Collection<Long> eventIds);
+}
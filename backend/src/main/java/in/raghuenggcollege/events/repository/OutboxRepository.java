@@ -0,0 +1,41 @@
+package in.raghuenggcollege.events.repository;
+
+import in.raghuenggcollege.events.entity.OutboxMessage;
+import in.raghuenggcollege.events.entity.OutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxRepository extends JpaRepository<OutboxMessage, Long> {
+
+    // Rows locked by another relay are skipped, so several nodes can drain the outbox at once
+    @Query(value = "SELECT * FROM notification_outbox WHERE status = 'PENDING' AND available_at <= :now "
+            + "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxMessage> lockNextBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.status = :status WHERE m.id IN :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") OutboxStatus status);
+
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.status = :status, m.availableAt = :availableAt WHERE m.id IN :ids")
+    int reschedule(@Param("ids") Collection<Long> ids, @Param("status") OutboxStatus status,
+            @Param("availableAt") LocalDateTime availableAt);
+
+    // Claims whose relay died before reporting back
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.status = :to WHERE m.status = :from AND m.claimedAt < :cutoff")
+    int releaseClaimsBefore(@Param("cutoff") LocalDateTime cutoff, @Param("from") OutboxStatus from,
+            @Param("to") OutboxStatus to);
+
+    @Modifying
+    @Query("DELETE FROM OutboxMessage m WHERE m.status = :status AND m.createdAt < :cutoff")
+    int deleteByStatusBefore(@Param("status") OutboxStatus status, @Param("cutoff") LocalDateTime cutoff);
+}
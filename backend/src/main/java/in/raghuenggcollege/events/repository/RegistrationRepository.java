@@ -1,14 +1,22 @@
 package in.raghuenggcollege.events.repository;
 
+import in.raghuenggcollege.events.dto.MyRegistration;
+import in.raghuenggcollege.events.dto.Recipient;
 import in.raghuenggcollege.events.entity.Event;
 import in.raghuenggcollege.events.entity.Registration;
 import in.raghuenggcollege.events.entity.RegistrationStatus;
 import in.raghuenggcollege.events.entity.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,5 +39,50 @@ public interface RegistrationRepository extends JpaRepository<Registration, Long
     @Query("SELECT r FROM Registration r JOIN FETCH r.user WHERE r.event.id = :eventId")
     List<Registration> findByEventIdWithUser(@Param("eventId") Long eventId);
 
+    // One keyset chunk of an event's recipients, ordered by registration id
+    @Query("SELECT new in.raghuenggcollege.events.dto.Recipient(r.id, u.email, u.fullName, r.status) "
+            + "FROM Registration r JOIN r.user u "
+            + "WHERE r.event.id = :eventId AND r.status IN :statuses AND r.id > :afterId ORDER BY r.id")
+    List<Recipient> findRecipientsAfter(@Param("eventId") Long eventId,
+            @Param("statuses") Collection<RegistrationStatus> statuses,
+            @Param("afterId") Long afterId, Pageable chunk);
+
+    // An event's waitlist in promotion order
+    @Query("SELECT r.id FROM Registration r WHERE r.event.id = :eventId AND r.status = :status "
+            + "ORDER BY r.registeredAt, r.id")
+    List<Long> findIdsByEventAndStatus(@Param("eventId") Long eventId, @Param("status") RegistrationStatus status);
+
+    @Query("SELECT r.id FROM Registration r WHERE r.event.id = :eventId AND r.status = :status "
+            + "ORDER BY r.registeredAt, r.id")
+    List<Long> findIdsByEventAndStatus(@Param("eventId") Long eventId, @Param("status") RegistrationStatus status,
+            Pageable head);
+
+    // Same, locked; a locking read returns the latest committed rows, not the transaction's snapshot
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r.id FROM Registration r WHERE r.event.id = :eventId AND r.status = :status "
+            + "ORDER BY r.registeredAt, r.id")
+    List<Long> lockIdsByEventAndStatus(@Param("eventId") Long eventId, @Param("status") RegistrationStatus status,
+            Pageable head);
+
+    // Locks the given registrations that are still in the given status
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r.id FROM Registration r WHERE r.id IN :ids AND r.status = :status")
+    List<Long> lockIdsWithStatus(@Param("ids") Collection<Long> ids, @Param("status") RegistrationStatus status);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Registration r SET r.status = :to, r.updatedAt = :now WHERE r.id IN :ids AND r.status = :from")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("from") RegistrationStatus from,
+            @Param("to") RegistrationStatus to, @Param("now") LocalDateTime now);
+
+    @Query("SELECT new in.raghuenggcollege.events.dto.Recipient(r.id, u.email, u.fullName, r.status) "
+            + "FROM Registration r JOIN r.user u WHERE r.id IN :ids")
+    List<Recipient> findRecipientsByIds(@Param("ids") Collection<Long> ids);
+
+    // The user's dashboard in one statement; no Registration, Event or User entities are loaded
+    @Query("SELECT new in.raghuenggcollege.events.dto.MyRegistration(r.id, r.status, r.registeredAt, "
+            + "e.id, e.title, e.venue, e.department, e.startTime, e.endTime, e.bannerUrl) "
+            + "FROM Registration r JOIN r.event e WHERE r.user.email = :email ORDER BY r.id")
+    List<MyRegistration> findMyRegistrations(@Param("email") String email);
+
     void deleteByEvent(Event event);
 }
@@ -0,0 +1,9 @@
+package in.raghuenggcollege.events.repository;
+
+import in.raghuenggcollege.events.entity.ReminderSent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReminderSentRepository extends JpaRepository<ReminderSent, Long> {
+}
@@ -2,6 +2,9 @@ package in.raghuenggcollege.events.repository;
 
 import in.raghuenggcollege.events.entity.VerificationToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -11,4 +14,10 @@ public interface VerificationTokenRepository extends JpaRepository<VerificationT
     Optional<VerificationToken> findByEmail(String email);
 
     void deleteByEmail(String email);
+
+    // Only while the code is still the one guessed at; 0 once it was replaced or used up
+    @Modifying
+    @Query("UPDATE VerificationToken t SET t.failedAttempts = t.failedAttempts + 1 "
+            + "WHERE t.email = :email AND t.otpCode = :otpCode")
+    int incrementFailedAttempts(@Param("email") String email, @Param("otpCode") String otpCode);
 }
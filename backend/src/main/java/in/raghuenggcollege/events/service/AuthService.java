@@ -5,63 +5,56 @@ import in.raghuenggcollege.events.dto.AuthenticationRequest;
 import in.raghuenggcollege.events.dto.AuthenticationResponse;
 import in.raghuenggcollege.events.dto.RegisterRequest;
 import in.raghuenggcollege.events.dto.VerifyRequest;
+import in.raghuenggcollege.events.entity.InvalidationScope;
 import in.raghuenggcollege.events.entity.Role;
 import in.raghuenggcollege.events.entity.User;
-import in.raghuenggcollege.events.entity.VerificationToken;
+import in.raghuenggcollege.events.exception.RateLimitedException;
 import in.raghuenggcollege.events.repository.UserRepository;
-import in.raghuenggcollege.events.repository.VerificationTokenRepository;
 import in.raghuenggcollege.events.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-
-import java.time.LocalDateTime;
-import java.util.Random;
 
 @Service
 @RequiredArgsConstructor
+@lombok.extern.slf4j.Slf4j
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final VerificationTokenRepository tokenRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
-    private final JavaMailSender mailSender;
-
-    // Public method - handles registration flow
-    public void register(RegisterRequest request) {
-        if (userRepository.existsByEmail(request.getEmail())) {
-            User existingUser = userRepository.findByEmail(request.getEmail()).get();
+    private final LoginExecutor loginExecutor;
+    private final OtpService otpService;
+    private final UserPrincipalCache userPrincipalCache;
+    private final ClusterInvalidations clusterInvalidations;
+    private final TokenRevocationList tokenRevocationList;
+    private final MeterRegistry meterRegistry;
+
+    // Public method - handles registration flow. The code is held in memory by
+    // OtpService and mailed from the dispatcher queue, so this returns after one
+    // lookup, one save and the password hash.
+    public void register(RegisterRequest request, String clientIp) {
+        otpService.checkRate(request.getEmail(), clientIp);
+        User existingUser = userRepository.findByEmail(request.getEmail()).orElse(null);
+        if (existingUser != null) {
             if (existingUser.isVerified()) {
                 throw new RuntimeException("Email already registered");
             }
             // User exists but NOT verified -> Update details & Resend OTP
             updateExistingUser(existingUser, request);
-            String otp = generateAndSaveOtp(existingUser.getEmail());
-            sendOtpEmailSafely(existingUser.getEmail(), otp);
+            otpService.issue(existingUser.getEmail());
             return;
         }
 
-        // Create new user and token (transactional)
-        User user = createUserAndToken(request);
-
-        // Send email (non-transactional, with error handling)
-        String otp = tokenRepository.findByEmail(user.getEmail())
-                .orElseThrow(() -> new RuntimeException("Token not found"))
-                .getOtpCode();
-        sendOtpEmailSafely(user.getEmail(), otp);
-    }
-
-    // Transactional: Create user and token atomically
-    @Transactional
-    private User createUserAndToken(RegisterRequest request) {
         var user = User.builder()
                 .fullName(request.getFullName())
                 .email(request.getEmail())
@@ -69,57 +62,21 @@ public class AuthService {
                 .role(Role.STUDENT)
                 .isVerified(false)
                 .build();
-
         userRepository.save(user);
-
-        // Generate and save OTP token
-        String otp = String.format("%06d", new Random().nextInt(999999));
-        var token = VerificationToken.builder()
-                .email(request.getEmail())
-                .otpCode(otp)
-                .expiresAt(LocalDateTime.now().plusMinutes(10))
-                .build();
-
-        tokenRepository.save(token);
-        return user;
+        otpService.issue(user.getEmail());
     }
 
-    // Transactional: Update existing unverified user
-    @Transactional
     private void updateExistingUser(User user, RegisterRequest request) {
         user.setFullName(request.getFullName());
         user.setPassword(passwordEncoder.encode(request.getPassword()));
         userRepository.save(user);
-    }
-
-    // Transactional: Generate and save new OTP
-    @Transactional
-    private String generateAndSaveOtp(String email) {
-        String otp = String.format("%06d", new Random().nextInt(999999));
-        VerificationToken token = tokenRepository.findByEmail(email)
-                .orElse(VerificationToken.builder().email(email).build());
-
-        token.setOtpCode(otp);
-        token.setExpiresAt(LocalDateTime.now().plusMinutes(10));
-        tokenRepository.save(token);
-        return otp;
-    }
-
-    // Non-transactional: Send email with error handling
-    private void sendOtpEmailSafely(String email, String otp) {
-        try {
-            sendOtpEmail(email, otp);
-            System.out.println("✅ OTP email sent successfully to: " + email);
-        } catch (Exception e) {
-            System.err.println("⚠️ Failed to send OTP email to: " + email);
-            System.err.println("   Error: " + e.getMessage());
-            // User is still created - they can request resend later
-            // Don't throw exception - registration should succeed
-        }
+        userPrincipalCache.evict(user.getEmail());
+        clusterInvalidations.publish(InvalidationScope.USER, user.getEmail());
     }
 
     // Public method: Resend OTP to user
-    public void resendOtp(String email) {
+    public void resendOtp(String email, String clientIp) {
+        otpService.checkRate(email, clientIp);
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
@@ -127,23 +84,25 @@ public class AuthService {
             throw new RuntimeException("User already verified");
         }
 
-        // Generate and save new OTP
-        String otp = generateAndSaveOtp(email);
-
-        // Send email (gracefully handles failures)
-        sendOtpEmailSafely(email, otp);
+        otpService.issue(email);
     }
 
+    // auth.login, by outcome; the BCrypt check runs on the login pool and is also
+    // timed on its own (auth.password.hash), as is the wait for a pool thread
+    // (auth.login.queue.wait)
     public AuthenticationResponse authenticate(AuthenticationRequest request) {
+        Timer.Sample sample = Timer.start(meterRegistry);
         try {
-            System.out.println("🔐 Attempting login for: " + request.getEmail());
-            authenticationManager.authenticate(
+            log.debug("Attempting login for {}", request.getEmail());
+            loginExecutor.run(() -> authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
                             request.getEmail(),
-                            request.getPassword()));
-            System.out.println("✅ Login successful for: " + request.getEmail());
+                            request.getPassword())));
+            log.info("Login successful for {}", request.getEmail());
         } catch (Exception e) {
-            System.out.println("❌ Login FAILED for: " + request.getEmail() + " Error: " + e.getMessage());
+            log.warn("Login failed for {}: {}", request.getEmail(), e.getMessage());
+            sample.stop(loginTimer(e instanceof BadCredentialsException ? "bad_credentials"
+                    : e instanceof RateLimitedException ? "rejected" : "error"));
             throw e;
         }
 
@@ -151,10 +110,12 @@ public class AuthService {
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
         if (!user.isVerified()) {
+            sample.stop(loginTimer("unverified"));
             throw new RuntimeException("Account not verified. Please verify your email.");
         }
 
         var jwtToken = jwtUtil.generateToken(user);
+        sample.stop(loginTimer("success"));
         return AuthenticationResponse.builder()
                 .token(jwtToken)
                 .role(user.getRole().name())
@@ -163,39 +124,35 @@ public class AuthService {
     }
 
     public void verify(VerifyRequest request) {
-        var token = tokenRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new RuntimeException("Invalid or expired OTP"));
-
-        if (token.getExpiresAt().isBefore(LocalDateTime.now())) {
-            tokenRepository.delete(token); // Cleanup
-            throw new RuntimeException("OTP expired");
-        }
-
-        if (!token.getOtpCode().equals(request.getOtp())) {
-            throw new RuntimeException("Invalid OTP");
-        }
+        otpService.verify(request.getEmail(), request.getOtp());
 
         var user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
         user.setVerified(true);
         userRepository.save(user);
-
-        tokenRepository.delete(token);
+        userPrincipalCache.evict(user.getEmail());
+        clusterInvalidations.publish(InvalidationScope.USER, user.getEmail());
     }
 
-    private void sendOtpEmail(String to, String otp) {
+    // Revokes the presented token, or with everywhere set every token the user
+    // holds. Logging out with an invalid or expired token is a no-op.
+    public void logout(String token, boolean everywhere) {
+        Claims claims;
         try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(to);
-            message.setSubject("Raghu Engineering College - Email Verification");
-            message.setText("Your verification code is: " + otp + "\n\nThis code expires in 10 minutes.");
-            mailSender.send(message);
-            System.out.println("✅ OTP Email sent successfully to: " + to);
-        } catch (Exception e) {
-            System.err.println("❌ FAILED to send OTP email to: " + to);
-            e.printStackTrace();
-            throw new RuntimeException("Failed to send OTP email: " + e.getMessage());
+            claims = jwtUtil.parseToken(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return;
         }
+        if (everywhere) {
+            tokenRevocationList.revokeAll(claims.getSubject());
+        } else {
+            tokenRevocationList.revoke(claims);
+        }
+        log.info("Logged out {}{}", claims.getSubject(), everywhere ? " everywhere" : "");
+    }
+
+    private Timer loginTimer(String outcome) {
+        return meterRegistry.timer("auth.login", "outcome", outcome);
     }
 }
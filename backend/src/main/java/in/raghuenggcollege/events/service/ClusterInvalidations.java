@@ -0,0 +1,150 @@
+package in.raghuenggcollege.events.service;
+
+import in.raghuenggcollege.events.entity.CacheInvalidation;
+import in.raghuenggcollege.events.entity.InvalidationScope;
+import in.raghuenggcollege.events.repository.CacheInvalidationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Keeps the in-memory state of several nodes in step. Each node applies its
+// own changes to its caches after commit; publish() also writes a row to
+// cache_invalidations in the same transaction, and every other node polls the
+// table and drops or reloads what the row names:
+// - EVENT: tag index entries and reminders are re-read, the "event full" hint,
+//   the upcoming listing and every "my registrations" view are dropped
+// - USER_REGISTRATIONS: that user's "my registrations" view is dropped
+// - USER: that user's cached principal is dropped
+// Only active with broker.mode=relay, the multi-node setup; a single node
+// writes nothing. Other nodes catch up within cluster.sync.poll-interval-ms.
+@Service
+@RequiredArgsConstructor
+@lombok.extern.slf4j.Slf4j
+public class ClusterInvalidations {
+
+    // Polls re-read this far back, to pick up rows whose transaction committed
+    // after the previous poll and to absorb clock drift between nodes
+    private static final long POLL_OVERLAP_SECONDS = 30;
+
+    private final CacheInvalidationRepository invalidationRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TagIndex tagIndex;
+    private final ReminderService reminderService;
+    private final SeatLedger seatLedger;
+    private final UpcomingEventsCache upcomingEventsCache;
+    private final MyRegistrationsCache myRegistrationsCache;
+    private final UserPrincipalCache userPrincipalCache;
+
+    @Value("#{'${broker.mode:simple}'.trim().equalsIgnoreCase('relay')}")
+    private boolean enabled;
+
+    @Value("${cluster.sync.retention-minutes:10}")
+    private long retentionMinutes;
+
+    private final String origin = UUID.randomUUID().toString();
+    // Rows already applied that a later, overlapping poll will see again
+    private final ConcurrentHashMap<Long, LocalDateTime> applied = new ConcurrentHashMap<>();
+    private volatile LocalDateTime polledUpTo = LocalDateTime.now();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Call inside the transaction making the change, so the row commits with it
+    public void publish(InvalidationScope scope, Object subject) {
+        if (enabled) {
+            invalidationRepository.save(CacheInvalidation.builder()
+                    .origin(origin)
+                    .scope(scope)
+                    .subject(String.valueOf(subject))
+                    .build());
+        }
+    }
+
+    // Same for many subjects, as one JDBC batch
+    public void publishAll(InvalidationScope scope, Collection<?> subjects) {
+        if (!enabled || subjects.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = subjects.stream()
+                .map(subject -> new Object[] { origin, scope.name(), String.valueOf(subject), now })
+                .toList();
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO cache_invalidations (origin, scope, subject, created_at) VALUES (?, ?, ?, ?)", rows);
+    }
+
+    @Scheduled(fixedDelayString = "${cluster.sync.poll-interval-ms:1000}",
+            initialDelayString = "${cluster.sync.poll-interval-ms:1000}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            List<CacheInvalidation> fresh = invalidationRepository
+                    .findFromOthersSince(polledUpTo.minusSeconds(POLL_OVERLAP_SECONDS), origin).stream()
+                    .filter(row -> applied.putIfAbsent(row.getId(), row.getCreatedAt()) == null)
+                    .toList();
+            apply(fresh);
+            polledUpTo = now;
+            LocalDateTime forgetBefore = now.minusSeconds(POLL_OVERLAP_SECONDS);
+            applied.values().removeIf(createdAt -> createdAt.isBefore(forgetBefore));
+        } catch (DataAccessException e) {
+            log.warn("Could not poll cache invalidations, retrying next time: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cluster.sync.purge-interval-ms:60000}")
+    public void purge() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Integer purged = transactionTemplate.execute(status ->
+                    invalidationRepository.deleteCreatedBefore(LocalDateTime.now().minusMinutes(retentionMinutes)));
+            log.debug("Purged {} old cache invalidations", purged);
+        } catch (DataAccessException e) {
+            log.warn("Could not purge cache invalidations: {}", e.getMessage());
+        }
+    }
+
+    // One poll's rows are coalesced, so a bulk import costs one reload per node
+    private void apply(List<CacheInvalidation> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Set<Long> eventIds = new HashSet<>();
+        Set<String> registrationsOf = new HashSet<>();
+        Set<String> users = new HashSet<>();
+        for (CacheInvalidation row : rows) {
+            switch (row.getScope()) {
+                case EVENT -> eventIds.add(Long.valueOf(row.getSubject()));
+                case USER_REGISTRATIONS -> registrationsOf.add(row.getSubject());
+                case USER -> users.add(row.getSubject());
+            }
+        }
+
+        if (!eventIds.isEmpty()) {
+            tagIndex.reload(eventIds);
+            reminderService.reload(eventIds);
+            eventIds.forEach(seatLedger::evict);
+            upcomingEventsCache.invalidate();
+            myRegistrationsCache.evictAll(); // Event details are part of every row
+        } else {
+            registrationsOf.forEach(myRegistrationsCache::evict);
+        }
+        users.forEach(userPrincipalCache::evict);
+        log.debug("Applied {} cache invalidations from other nodes", rows.size());
+    }
+}
@@ -0,0 +1,501 @@
+package in.raghuenggcollege.events.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import in.raghuenggcollege.events.dto.EventImportResult;
+import in.raghuenggcollege.events.dto.EventNotification;
+import in.raghuenggcollege.events.entity.Event;
+import in.raghuenggcollege.events.entity.InvalidationScope;
+import in.raghuenggcollege.events.entity.RegistrationStatus;
+import in.raghuenggcollege.events.entity.Role;
+import in.raghuenggcollege.events.entity.User;
+import in.raghuenggcollege.events.repository.EventRepository;
+import in.raghuenggcollege.events.repository.UserRepository;
+import in.raghuenggcollege.events.util.Csv;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.*;
+
+// Semester calendars in and out as CSV or NDJSON. Imports are validated row by
+// row while streaming and inserted in JDBC batches, one transaction per batch;
+// bad rows are reported, not fatal. Exports stream keyset pages straight to the response.
+// Attendee lists for an event stream out the same way.
+//
+// Events keep their IDENTITY ids. Hibernate can't batch IDENTITY inserts, but
+// plain JDBC can: with rewriteBatchedStatements the MySQL driver sends each
+// batch as one multi-row INSERT and still returns every generated key.
+@Service
+@RequiredArgsConstructor
+@lombok.extern.slf4j.Slf4j
+public class EventBulkService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private static final String INSERT_EVENT = "INSERT INTO events "
+            + "(title, description, start_time, end_time, venue, capacity, tags, banner_url, department, "
+            + "confirmed_count, created_by, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?, ?)";
+
+    private static final String SELECT_PAGE = "SELECT id, title, description, start_time, end_time, venue, capacity, "
+            + "tags, banner_url, department, confirmed_count FROM events WHERE id > ? ";
+
+    // Import columns; export writes these first, then id and attendeeCount
+    private static final List<String> COLUMNS = List.of("title", "description", "startTime", "endTime", "venue",
+            "capacity", "tags", "bannerUrl", "department");
+
+    public enum Format {
+        CSV("text/csv"),
+        NDJSON("application/x-ndjson");
+
+        private final String mediaType;
+
+        Format(String mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public String getMediaType() {
+            return mediaType;
+        }
+
+        public static Format fromContentType(String contentType) {
+            if (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith(NDJSON.mediaType)) {
+                return NDJSON;
+            }
+            return CSV;
+        }
+
+        public static Format fromName(String name) {
+            try {
+                return valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Unsupported format: " + name);
+            }
+        }
+    }
+
+    private static final String SELECT_ATTENDEES = "SELECT r.id, r.status, r.registered_at, u.full_name, u.email, "
+            + "u.department FROM registrations r JOIN users u ON u.id = r.user_id "
+            + "WHERE r.event_id = ? AND r.status IN (%s) ORDER BY r.registered_at, r.id";
+
+    private final UserRepository userRepository;
+    private final EventRepository eventRepository;
+    private final TagIndex tagIndex;
+    private final UpcomingEventsCache upcomingEventsCache;
+    private final ReminderService reminderService;
+    private final ClusterInvalidations clusterInvalidations;
+    private final NotificationService notificationService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${events.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${events.export.page-size:1000}")
+    private int pageSize;
+
+    // MySQL ignores this and streams row by row (see attendeeQuery)
+    @Value("${events.attendee-export.fetch-size:500}")
+    private int attendeeFetchSize;
+
+    public EventImportResult importEvents(InputStream body, Format format, String userEmail) {
+        User user = requireAdmin(userEmail);
+        EventImportResult result = EventImportResult.builder().errors(new ArrayList<>()).build();
+
+        try (Reader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            List<Event> batch = new ArrayList<>(batchSize);
+            RowSource rows = format == Format.NDJSON ? new NdjsonRows(reader) : new CsvRows(reader);
+            Row row;
+            while ((row = rows.next()) != null) {
+                String error = row.error() != null ? row.error() : validate(row.event());
+                if (error != null) {
+                    reject(result, row.line(), error);
+                    continue;
+                }
+                batch.add(prepare(row.event(), user));
+                if (batch.size() == batchSize) {
+                    commitBatch(batch, user, result);
+                }
+            }
+            commitBatch(batch, user, result);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            // Batches committed before a failure are kept, so they are announced too
+            announce(result, user);
+        }
+
+        log.info("Imported {} events ({} rejected) for {}", result.getImported(), result.getRejected(), userEmail);
+        return result;
+    }
+
+    // Department admins only get their own department's events
+    public StreamingResponseBody exportEvents(Format format, String userEmail) {
+        User user = requireAdmin(userEmail);
+        String department = user.getRole() == Role.DEPT_ADMIN ? user.getDepartment() : null;
+
+        return out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            JsonGenerator json = null;
+            if (format == Format.NDJSON) {
+                json = objectMapper.getFactory().createGenerator(writer);
+                json.setRootValueSeparator(null); // Rows are separated by the newlines written below
+            } else {
+                List<String> header = new ArrayList<>(COLUMNS);
+                header.add("id");
+                header.add("attendeeCount");
+                writer.write(Csv.line(header.toArray()));
+            }
+
+            long afterId = 0;
+            List<Map<String, Object>> page;
+            do {
+                page = fetchPage(afterId, department);
+                for (Map<String, Object> event : page) {
+                    if (json != null) {
+                        json.writeObject(event);
+                        json.writeRaw('\n');
+                    } else {
+                        writer.write(Csv.line(event.values().toArray()));
+                    }
+                    afterId = (Long) event.get("id");
+                }
+                if (json != null) {
+                    json.flush();
+                }
+                writer.flush();
+            } while (page.size() == pageSize);
+        };
+    }
+
+    // Gate check-in list for one event, read from a forward-only result set and
+    // written as it arrives: no entities, no persistence context, constant memory
+    public StreamingResponseBody exportAttendees(Long eventId, Collection<RegistrationStatus> statuses, Format format,
+            String userEmail) {
+        User user = requireAdmin(userEmail);
+        Event event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new RuntimeException("Event not found"));
+        if (user.getRole() == Role.DEPT_ADMIN && !event.getDepartment().equalsIgnoreCase(user.getDepartment())) {
+            throw new AccessDeniedException("Unauthorized to export this event's attendees");
+        }
+        List<RegistrationStatus> wanted = List.copyOf(statuses);
+
+        return out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            JsonGenerator json = null;
+            if (format == Format.NDJSON) {
+                json = objectMapper.getFactory().createGenerator(writer);
+                json.setRootValueSeparator(null);
+            } else {
+                writer.write(Csv.line("registrationId", "status", "registeredAt", "fullName", "email", "department"));
+            }
+            JsonGenerator ndjson = json;
+            jdbcTemplate.query(attendeeQuery(eventId, wanted), rs -> {
+                try {
+                    Long registrationId = rs.getLong("id");
+                    String status = rs.getString("status");
+                    String registeredAt = rs.getTimestamp("registered_at").toLocalDateTime().toString();
+                    if (ndjson != null) {
+                        ndjson.writeStartObject();
+                        ndjson.writeNumberField("registrationId", registrationId);
+                        ndjson.writeStringField("status", status);
+                        ndjson.writeStringField("registeredAt", registeredAt);
+                        ndjson.writeStringField("fullName", rs.getString("full_name"));
+                        ndjson.writeStringField("email", rs.getString("email"));
+                        ndjson.writeStringField("department", rs.getString("department"));
+                        ndjson.writeEndObject();
+                        ndjson.writeRaw('\n');
+                    } else {
+                        writer.write(Csv.line(registrationId, status, registeredAt, rs.getString("full_name"),
+                                rs.getString("email"), rs.getString("department")));
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e); // Client went away; closes the result set
+                }
+            });
+            if (ndjson != null) {
+                ndjson.flush();
+            }
+            writer.flush();
+        };
+    }
+
+    private PreparedStatementCreator attendeeQuery(Long eventId, List<RegistrationStatus> statuses) {
+        String placeholders = String.join(", ", Collections.nCopies(statuses.size(), "?"));
+        return connection -> {
+            PreparedStatement ps = connection.prepareStatement(String.format(SELECT_ATTENDEES, placeholders),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // Connector/J only streams (instead of buffering the whole result) with this magic value
+            boolean mysql = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("mysql");
+            ps.setFetchSize(mysql ? Integer.MIN_VALUE : attendeeFetchSize);
+            ps.setLong(1, eventId);
+            for (int i = 0; i < statuses.size(); i++) {
+                ps.setString(i + 2, statuses.get(i).name());
+            }
+            return ps;
+        };
+    }
+
+    private List<Map<String, Object>> fetchPage(long afterId, String department) {
+        String sql = SELECT_PAGE + (department != null ? "AND department = ? " : "") + "ORDER BY id LIMIT ?";
+        Object[] args = department != null ? new Object[] { afterId, department, pageSize }
+                : new Object[] { afterId, pageSize };
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            Map<String, Object> event = new LinkedHashMap<>();
+            event.put("title", rs.getString("title"));
+            event.put("description", rs.getString("description"));
+            event.put("startTime", rs.getTimestamp("start_time").toLocalDateTime().toString());
+            event.put("endTime", rs.getTimestamp("end_time").toLocalDateTime().toString());
+            event.put("venue", rs.getString("venue"));
+            event.put("capacity", rs.getInt("capacity"));
+            event.put("tags", rs.getString("tags"));
+            event.put("bannerUrl", rs.getString("banner_url"));
+            event.put("department", rs.getString("department"));
+            event.put("id", rs.getLong("id"));
+            event.put("attendeeCount", rs.getLong("confirmed_count"));
+            return event;
+        }, args);
+    }
+
+    // Each batch commits on its own, so its tag rows reach the in-memory index
+    // right away and nothing from earlier batches is held until the end
+    private void commitBatch(List<Event> batch, User user, EventImportResult result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> insert(batch, user));
+        result.setImported(result.getImported() + batch.size());
+        batch.clear();
+    }
+
+    private void announce(EventImportResult result, User user) {
+        if (result.getImported() == 0) {
+            return;
+        }
+        // One broadcast for the whole calendar instead of one per event
+        transactionTemplate.executeWithoutResult(status -> notificationService.sendEventNotification(
+                EventNotification.builder()
+                        .type(EventNotification.Type.IMPORTED)
+                        .department(user.getRole() == Role.DEPT_ADMIN ? user.getDepartment() : null)
+                        .message(result.getImported() + " new events have been added to the calendar!")
+                        .build()));
+        upcomingEventsCache.invalidate();
+        reminderService.refresh();
+    }
+
+    private User requireAdmin(String userEmail) {
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        if (user.getRole() == Role.STUDENT) {
+            throw new AccessDeniedException("Students cannot import or export events");
+        }
+        return user;
+    }
+
+    // Same department rules as EventService.createEvent
+    private Event prepare(Event event, User user) {
+        if (user.getRole() == Role.DEPT_ADMIN) {
+            event.setDepartment(user.getDepartment());
+        } else if (event.getDepartment() == null || event.getDepartment().isBlank()) {
+            event.setDepartment("General");
+        }
+        return event;
+    }
+
+    private static String validate(Event event) {
+        if (event.getTitle() == null || event.getTitle().isBlank()) {
+            return "title is required";
+        }
+        if (event.getVenue() == null || event.getVenue().isBlank()) {
+            return "venue is required";
+        }
+        if (event.getStartTime() == null || event.getEndTime() == null) {
+            return "startTime and endTime are required";
+        }
+        if (!event.getEndTime().isAfter(event.getStartTime())) {
+            return "endTime must be after startTime";
+        }
+        if (event.getCapacity() == null || event.getCapacity() <= 0) {
+            return "capacity must be a positive number";
+        }
+        for (String text : new String[] { event.getTitle(), event.getVenue(), event.getTags(), event.getBannerUrl(),
+                event.getDepartment() }) {
+            if (text != null && text.length() > MAX_TEXT_LENGTH) {
+                return "values are limited to " + MAX_TEXT_LENGTH + " characters";
+            }
+        }
+        return null;
+    }
+
+    private static void reject(EventImportResult result, long line, String message) {
+        result.setRejected(result.getRejected() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new EventImportResult.RowError(line, message));
+        }
+    }
+
+    private void insert(List<Event> batch, User user) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_EVENT, new String[] { "id" }),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Event event = batch.get(i);
+                        ps.setString(1, event.getTitle());
+                        ps.setString(2, event.getDescription());
+                        ps.setTimestamp(3, Timestamp.valueOf(event.getStartTime()));
+                        ps.setTimestamp(4, Timestamp.valueOf(event.getEndTime()));
+                        ps.setString(5, event.getVenue());
+                        ps.setInt(6, event.getCapacity());
+                        setNullableString(ps, 7, event.getTags());
+                        setNullableString(ps, 8, event.getBannerUrl());
+                        setNullableString(ps, 9, event.getDepartment());
+                        ps.setLong(10, user.getId());
+                        ps.setTimestamp(11, now);
+                        ps.setTimestamp(12, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return batch.size();
+                    }
+                }, keys);
+
+        List<Map<String, Object>> generated = keys.getKeyList();
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).setId(((Number) generated.get(i).values().iterator().next()).longValue());
+        }
+        tagIndex.insertTags(batch);
+        clusterInvalidations.publishAll(InvalidationScope.EVENT, batch.stream().map(Event::getId).toList());
+    }
+
+    private static void setNullableString(PreparedStatement ps, int index, String value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.VARCHAR);
+        } else {
+            ps.setString(index, value);
+        }
+    }
+
+    private record Row(long line, Event event, String error) {
+    }
+
+    private interface RowSource {
+        Row next() throws IOException; // null at end of input
+    }
+
+    // Header row names the columns (any order, case-insensitive); unknown columns are ignored
+    private static class CsvRows implements RowSource {
+
+        private final Csv.Reader csv;
+        private final Map<String, Integer> columns = new HashMap<>();
+
+        CsvRows(Reader reader) throws IOException {
+            csv = new Csv.Reader(reader);
+            List<String> header = csv.readRecord();
+            if (header == null) {
+                return;
+            }
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            for (String required : List.of("title", "starttime", "endtime", "venue", "capacity")) {
+                if (!columns.containsKey(required)) {
+                    throw new RuntimeException("CSV header is missing the " + required + " column");
+                }
+            }
+        }
+
+        @Override
+        public Row next() throws IOException {
+            if (columns.isEmpty()) {
+                return null;
+            }
+            List<String> fields = csv.readRecord();
+            if (fields == null) {
+                return null;
+            }
+            long line = csv.getRecordLine();
+            try {
+                String capacity = field(fields, "capacity");
+                String startTime = field(fields, "starttime");
+                String endTime = field(fields, "endtime");
+                return new Row(line, Event.builder()
+                        .title(field(fields, "title"))
+                        .description(field(fields, "description"))
+                        .startTime(startTime == null ? null : LocalDateTime.parse(startTime))
+                        .endTime(endTime == null ? null : LocalDateTime.parse(endTime))
+                        .venue(field(fields, "venue"))
+                        .capacity(capacity == null ? null : Integer.valueOf(capacity))
+                        .tags(field(fields, "tags"))
+                        .bannerUrl(field(fields, "bannerurl"))
+                        .department(field(fields, "department"))
+                        .build(), null);
+            } catch (RuntimeException e) {
+                return new Row(line, null, "unreadable value: " + e.getMessage());
+            }
+        }
+
+        private String field(List<String> fields, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= fields.size()) {
+                return null;
+            }
+            String value = fields.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+    }
+
+    // One JSON event object per line, same fields as POST /api/events
+    private class NdjsonRows implements RowSource {
+
+        private final BufferedReader reader;
+        private long line;
+
+        NdjsonRows(Reader reader) {
+            this.reader = new BufferedReader(reader);
+        }
+
+        @Override
+        public Row next() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                line++;
+            } while (text != null && text.isBlank());
+            if (text == null) {
+                return null;
+            }
+            try {
+                return new Row(line, objectMapper.readValue(text, Event.class), null);
+            } catch (JsonProcessingException e) {
+                return new Row(line, null, "invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+}
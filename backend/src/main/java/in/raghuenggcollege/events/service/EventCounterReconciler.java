@@ -0,0 +1,56 @@
+package in.raghuenggcollege.events.service;
+
+import in.raghuenggcollege.events.repository.EventRepository;
+import in.raghuenggcollege.events.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Repairs drift between events.confirmed_count and the registrations table,
+// once at startup and then nightly. Also sweeps for upcoming events that have
+// a free seat while people wait: another node's "event full" hint can waitlist
+// a registration moments after a seat freed up there, and nobody else would
+// promote it until the next cancellation.
+@Service
+@RequiredArgsConstructor
+@lombok.extern.slf4j.Slf4j
+public class EventCounterReconciler {
+
+    private final EventRepository eventRepository;
+    private final SeatLedger seatLedger;
+    private final WaitlistEngine waitlistEngine;
+    private final TransactionTemplate transactionTemplate;
+
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 30 3 * * *")
+    public void reconcile() {
+        int repaired = eventRepository.reconcileConfirmedCounts();
+        if (repaired > 0) {
+            log.warn("Repaired confirmed_count on {} events", repaired);
+            // Drop "event full" marks taken from the drifted counts
+            TransactionHooks.afterCommit(seatLedger::evictAll);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${waitlist.sweep-interval-ms:5000}",
+            initialDelayString = "${waitlist.sweep-interval-ms:5000}")
+    public void fillFreeSeats() {
+        List<Long> eventIds = eventRepository.findIdsWithFreeSeatsAndWaitlist(LocalDateTime.now());
+        for (Long eventId : eventIds) {
+            // One transaction per event, so a slow one doesn't hold the others' locks
+            Integer promoted = transactionTemplate.execute(status ->
+                    eventRepository.findById(eventId).map(waitlistEngine::promote).orElse(0));
+            if (promoted != null && promoted > 0) {
+                log.info("Waitlist sweep promoted {} registrations for event {}", promoted, eventId);
+            }
+        }
+    }
+}
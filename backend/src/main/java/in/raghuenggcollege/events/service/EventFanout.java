@@ -0,0 +1,188 @@
+package in.raghuenggcollege.events.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import in.raghuenggcollege.events.dto.EventNotification;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Pushes event notifications to STOMP subscribers. Instead of one topic that
+// every client hears, each notification goes to its department's and tags'
+// topics, and only new events reach the catch-all topic:
+//   /topic/events                   new events and imports
+//   /topic/events.department.{dept} everything in that department
+//   /topic/events.tag.{tag}         everything carrying that tag
+//   /topic/events.event.{id}        edits to that event, for its registrants
+//                                   whatever their department
+// Notifications for the same event inside one window are merged, so a burst of
+// edits goes out as one message with the combined changes.
+@Service
+@RequiredArgsConstructor
+@lombok.extern.slf4j.Slf4j
+public class EventFanout {
+
+    public static final String ALL_EVENTS = "/topic/events";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<Long, EventNotification> pending = new ConcurrentHashMap<>();
+
+    public static String departmentTopic(String department) {
+        return ALL_EVENTS + ".department." + topicSegment(department);
+    }
+
+    public static String tagTopic(String tag) {
+        return ALL_EVENTS + ".tag." + topicSegment(tag);
+    }
+
+    public static String eventTopic(Long eventId) {
+        return ALL_EVENTS + ".event." + eventId;
+    }
+
+    // Takes an outbox broadcast body; rows written before notifications were JSON
+    // are passed through to the catch-all topic as they are
+    public void publish(String destination, String body) {
+        EventNotification notification;
+        try {
+            notification = objectMapper.readValue(body, EventNotification.class);
+        } catch (JsonProcessingException e) {
+            messagingTemplate.convertAndSend(destination, body);
+            return;
+        }
+        publish(notification);
+    }
+
+    public void publish(EventNotification notification) {
+        if (notification.getEventId() == null) {
+            send(notification); // Nothing to merge with
+            return;
+        }
+        pending.merge(notification.getEventId(), notification, EventFanout::coalesce);
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.coalesce-window-ms:2000}")
+    public void flush() {
+        for (Long eventId : new ArrayList<>(pending.keySet())) {
+            EventNotification notification = pending.remove(eventId);
+            if (notification == null) {
+                continue;
+            }
+            try {
+                send(notification);
+            } catch (RuntimeException e) {
+                log.error("Broadcast for event {} failed: {}", eventId, e.getMessage());
+            }
+        }
+    }
+
+    // Serialized once, then one small message per destination. Timed as
+    // notifications.broadcast (the send itself) and notifications.broadcast.delay
+    // (from the change being made, through the outbox and coalescing window)
+    private void send(EventNotification notification) {
+        long start = System.nanoTime();
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(notification);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unserializable notification for event " + notification.getEventId(), e);
+        }
+        for (String destination : destinations(notification)) {
+            messagingTemplate.send(destination, jsonMessage(payload));
+        }
+
+        String type = notification.getType().name().toLowerCase();
+        meterRegistry.timer("notifications.broadcast", "type", type)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (notification.getTimestamp() != null) {
+            meterRegistry.timer("notifications.broadcast.delay", "type", type)
+                    .record(Duration.between(notification.getTimestamp(), LocalDateTime.now()));
+        }
+    }
+
+    static Set<String> destinations(EventNotification notification) {
+        Set<String> destinations = new LinkedHashSet<>();
+        if (notification.getType() != EventNotification.Type.UPDATED) {
+            destinations.add(ALL_EVENTS);
+        } else if (notification.getEventId() != null) {
+            destinations.add(eventTopic(notification.getEventId()));
+        }
+        if (notification.getDepartment() != null && !notification.getDepartment().isBlank()) {
+            destinations.add(departmentTopic(notification.getDepartment()));
+        }
+        if (notification.getTags() != null) {
+            notification.getTags().forEach(tag -> destinations.add(tagTopic(tag)));
+        }
+        return destinations;
+    }
+
+    // A later notification wins, except that an unseen event stays CREATED and
+    // changes accumulate
+    private static EventNotification coalesce(EventNotification earlier, EventNotification later) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (earlier.getChanges() != null) {
+            changes.putAll(earlier.getChanges());
+        }
+        if (later.getChanges() != null) {
+            changes.putAll(later.getChanges());
+        }
+        EventNotification.Type type = earlier.getType() == EventNotification.Type.CREATED
+                ? EventNotification.Type.CREATED
+                : later.getType();
+        return EventNotification.builder()
+                .eventId(later.getEventId())
+                .type(type)
+                .title(later.getTitle())
+                .department(later.getDepartment())
+                .tags(mergeTags(earlier.getTags(), later.getTags()))
+                .message(type == later.getType() ? later.getMessage() : earlier.getMessage())
+                .changes(type == EventNotification.Type.CREATED || changes.isEmpty() ? null : changes)
+                .timestamp(later.getTimestamp())
+                .build();
+    }
+
+    // Subscribers of a tag the burst removed still hear about it
+    private static List<String> mergeTags(List<String> earlier, List<String> later) {
+        Set<String> tags = new LinkedHashSet<>();
+        if (later != null) {
+            tags.addAll(later);
+        }
+        if (earlier != null) {
+            tags.addAll(earlier);
+        }
+        return new ArrayList<>(tags);
+    }
+
+    private static Message<byte[]> jsonMessage(byte[] payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+    }
+
+    // Lowercase, with anything a broker would treat specially turned into '-'
+    private static String topicSegment(String value) {
+        return value.trim().toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9_-]+", "-");
+    }
+}
@@ -1,33 +1,127 @@
 package in.raghuenggcollege.events.service;
 
+import in.raghuenggcollege.events.dto.AnnouncementRequest;
+import in.raghuenggcollege.events.dto.EventNotification;
+import in.raghuenggcollege.events.dto.EventPage;
+import in.raghuenggcollege.events.dto.EventSearchCriteria;
 import in.raghuenggcollege.events.entity.Event;
+import in.raghuenggcollege.events.entity.InvalidationScope;
 import in.raghuenggcollege.events.entity.Role;
 import in.raghuenggcollege.events.entity.User;
 import in.raghuenggcollege.events.repository.EventRepository;
 import in.raghuenggcollege.events.repository.UserRepository;
+import in.raghuenggcollege.events.util.TransactionHooks;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @lombok.extern.slf4j.Slf4j
 public class EventService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_TAG_CANDIDATES = 1000; // Beyond this the search joins event_tags instead
+
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
     private final in.raghuenggcollege.events.repository.RegistrationRepository registrationRepository;
     private final NotificationService notificationService;
+    private final SeatLedger seatLedger;
+    private final UpcomingEventsCache upcomingEventsCache;
+    private final TagIndex tagIndex;
+    private final ReminderService reminderService;
+    private final WaitlistEngine waitlistEngine;
+    private final MyRegistrationsCache myRegistrationsCache;
+    private final ClusterInvalidations clusterInvalidations;
 
     public List<Event> getAllUpcomingEvents() {
         return eventRepository.findByStartTimeAfterOrderByStartTimeAsc(LocalDateTime.now());
     }
 
+    // Same listing as getAllUpcomingEvents, served as cached JSON
+    public byte[] getAllUpcomingEventsJson() {
+        return upcomingEventsCache.get();
+    }
+
+    public EventPage searchEvents(EventSearchCriteria criteria, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        if (cursor != null && !cursor.isBlank()) {
+            decodeCursor(cursor, criteria);
+        }
+
+        List<String> allTags = normalizeTags(criteria.getTags());
+        List<String> anyTags = normalizeTags(criteria.getAnyTags());
+        criteria.setTags(allTags);
+        criteria.setAnyTags(anyTags);
+        if ((!allTags.isEmpty() || !anyTags.isEmpty()) && tagIndex.isBuilt()) {
+            // No match is not taken as an answer: the index may not have caught up
+            // with a change made on another node, so the event_tags join decides
+            long[] candidates = tagIndex.matching(allTags, anyTags);
+            if (candidates.length > 0 && candidates.length <= MAX_TAG_CANDIDATES) {
+                criteria.setEventIds(Arrays.stream(candidates).boxed().toList());
+            }
+        }
+
+        // Fetch one extra row to learn whether another page exists
+        List<Event> events = eventRepository.search(criteria, pageSize + 1);
+        String nextCursor = null;
+        if (events.size() > pageSize) {
+            events = events.subList(0, pageSize);
+            nextCursor = encodeCursor(events.get(pageSize - 1));
+        }
+
+        return EventPage.builder()
+                .items(events)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    public Map<String, Integer> getTagFacets() {
+        return tagIndex.facetCounts(LocalDateTime.now());
+    }
+
+    private List<String> normalizeTags(List<String> tags) {
+        if (tags == null) {
+            return List.of();
+        }
+        return tags.stream()
+                .map(TagIndex::normalize)
+                .filter(tag -> !tag.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    // Cursor is the (startTime, id) of the last row served, base64url encoded
+    private String encodeCursor(Event last) {
+        String position = last.getStartTime() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void decodeCursor(String cursor, EventSearchCriteria criteria) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            criteria.setAfterStartTime(LocalDateTime.parse(position[0]));
+            criteria.setAfterId(Long.parseLong(position[1]));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
     public Event getEventById(Long id) {
         return eventRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Event not found"));
@@ -53,11 +147,23 @@ public class EventService {
         }
 
         event.setCreatedBy(user);
+        event.setAttendeeCount(0L);
         Event saved = eventRepository.save(event);
+        tagIndex.saveTags(saved);
+        clusterInvalidations.publish(InvalidationScope.EVENT, saved.getId());
+        TransactionHooks.afterCommit(() -> reminderService.schedule(saved.getId(), saved.getStartTime()));
         log.info("Created Event: {}, StartTime: {}", saved.getTitle(), saved.getStartTime());
+        TransactionHooks.afterCommit(upcomingEventsCache::invalidate);
 
         // Send Real-time Notification
-        notificationService.sendGlobalNotification("New Event Alert: " + saved.getTitle() + " has been posted!");
+        notificationService.sendEventNotification(EventNotification.builder()
+                .eventId(saved.getId())
+                .type(EventNotification.Type.CREATED)
+                .title(saved.getTitle())
+                .department(saved.getDepartment())
+                .tags(TagIndex.parse(saved.getTags()))
+                .message("New Event Alert: " + saved.getTitle() + " has been posted!")
+                .build());
 
         return saved;
     }
@@ -73,6 +179,18 @@ public class EventService {
             throw new AccessDeniedException("Unauthorized to edit this event");
         }
 
+        int previousCapacity = event.getCapacity();
+        List<String> previousTags = TagIndex.parse(event.getTags());
+        Map<String, Object> changes = new LinkedHashMap<>();
+        track(changes, "title", event.getTitle(), eventDetails.getTitle());
+        track(changes, "description", event.getDescription(), eventDetails.getDescription());
+        track(changes, "startTime", event.getStartTime(), eventDetails.getStartTime());
+        track(changes, "endTime", event.getEndTime(), eventDetails.getEndTime());
+        track(changes, "venue", event.getVenue(), eventDetails.getVenue());
+        track(changes, "capacity", event.getCapacity(), eventDetails.getCapacity());
+        track(changes, "tags", event.getTags(), eventDetails.getTags());
+        track(changes, "bannerUrl", event.getBannerUrl(), eventDetails.getBannerUrl());
+
         event.setTitle(eventDetails.getTitle());
         event.setDescription(eventDetails.getDescription());
         event.setStartTime(eventDetails.getStartTime());
@@ -83,17 +201,46 @@ public class EventService {
         event.setBannerUrl(eventDetails.getBannerUrl());
 
         if (user.getRole() == Role.SUPER_ADMIN) {
+            track(changes, "department", event.getDepartment(), eventDetails.getDepartment());
             event.setDepartment(eventDetails.getDepartment());
         }
 
-        Event updated = eventRepository.save(event);
+        // Flushed so the seat claims below see the new capacity
+        Event updated = eventRepository.saveAndFlush(event);
+        if (updated.getCapacity() != null && updated.getCapacity() > previousCapacity) {
+            waitlistEngine.promote(updated);
+        }
+        tagIndex.saveTags(updated);
+        clusterInvalidations.publish(InvalidationScope.EVENT, updated.getId());
+        TransactionHooks.afterCommit(() -> reminderService.schedule(updated.getId(), updated.getStartTime()));
+        TransactionHooks.afterCommit(upcomingEventsCache::invalidate);
+        TransactionHooks.afterCommit(myRegistrationsCache::evictAll);
 
-        // Send Real-time Notification
-        notificationService.sendGlobalNotification("Event Update: " + updated.getTitle() + " has been modified.");
+        // Send Real-time Notification, unless the save changed nothing
+        if (!changes.isEmpty()) {
+            // Old tags too, so subscribers of a removed tag hear about it
+            Set<String> tags = new LinkedHashSet<>(TagIndex.parse(updated.getTags()));
+            tags.addAll(previousTags);
+            notificationService.sendEventNotification(EventNotification.builder()
+                    .eventId(updated.getId())
+                    .type(EventNotification.Type.UPDATED)
+                    .title(updated.getTitle())
+                    .department(updated.getDepartment())
+                    .tags(new ArrayList<>(tags))
+                    .message("Event Update: " + updated.getTitle() + " has been modified.")
+                    .changes(changes)
+                    .build());
+        }
 
         return updated;
     }
 
+    private static void track(Map<String, Object> changes, String field, Object before, Object after) {
+        if (!Objects.equals(before, after)) {
+            changes.put(field, after);
+        }
+    }
+
     @Transactional
     public void deleteEvent(Long id, String userEmail) {
         Event event = eventRepository.findById(id)
@@ -103,15 +250,13 @@ public class EventService {
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
         if (user.getRole() == Role.SUPER_ADMIN) {
-            registrationRepository.deleteByEvent(event);
-            eventRepository.delete(event);
+            removeEvent(event);
             return;
         }
 
         if (user.getRole() == Role.DEPT_ADMIN) {
             if (event.getDepartment().equalsIgnoreCase(user.getDepartment())) {
-                registrationRepository.deleteByEvent(event);
-                eventRepository.delete(event);
+                removeEvent(event);
                 return;
             }
         }
@@ -119,6 +264,38 @@ public class EventService {
         throw new AccessDeniedException("You do not have permission to delete this event");
     }
 
+    // Emails everyone registered for the event; returns how many emails were queued
+    @Transactional
+    public int announce(Long id, AnnouncementRequest announcement, String userEmail) {
+        Event event = getEventById(id);
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+
+        if (user.getRole() == Role.DEPT_ADMIN && !event.getDepartment().equalsIgnoreCase(user.getDepartment())) {
+            throw new AccessDeniedException("Unauthorized to message this event's attendees");
+        }
+
+        return notificationService.emailRegistrants(
+                event.getId(),
+                announcement.getSubject(),
+                recipient -> "Hello " + recipient.fullName() + ",\n\n" + announcement.getMessage() +
+                        "\n\n- " + event.getTitle());
+    }
+
+    private void removeEvent(Event event) {
+        Long id = event.getId();
+        registrationRepository.deleteByEvent(event);
+        tagIndex.deleteTags(id);
+        eventRepository.delete(event);
+        clusterInvalidations.publish(InvalidationScope.EVENT, id);
+        TransactionHooks.afterCommit(() -> {
+            seatLedger.evict(id);
+            upcomingEventsCache.invalidate();
+            reminderService.unschedule(id);
+            myRegistrationsCache.evictAll();
+        });
+    }
+
     // Helper for Controller to call without email if needed, but safer to pass
     // email
     public void deleteEvent(Long id) {
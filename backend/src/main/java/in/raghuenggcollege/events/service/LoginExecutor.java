@@ -0,0 +1,115 @@
+package in.raghuenggcollege.events.service;
+
+import in.raghuenggcollege.events.exception.RateLimitedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Password checks run here instead of on the Tomcat thread that received the
+// login, so a login storm can use at most auth.login.threads cores and the rest
+// of the API stays responsive. Logins beyond the queue capacity, or ones that
+// waited so long the client has likely given up, are turned away with a 429.
+@Service
+@RequiredArgsConstructor
+@lombok.extern.slf4j.Slf4j
+public class LoginExecutor {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${auth.login.threads:0}")
+    private int threads;
+
+    @Value("${auth.login.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${auth.login.max-queue-wait-ms:3000}")
+    private long maxQueueWaitMs;
+
+    private ThreadPoolExecutor executor;
+    private Timer queueWait;
+
+    @PostConstruct
+    void start() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicLong counter = new AtomicLong();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "login-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        queueWait = meterRegistry.timer("auth.login.queue.wait");
+        log.info("Login pool: {} threads, queue of {}", poolSize, queueCapacity);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+    }
+
+    // Runs the task on the login pool and waits for its result; exceptions
+    // thrown by the task reach the caller unchanged
+    public <T> T run(Supplier<T> task) {
+        long queuedAt = System.nanoTime();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long waited = System.nanoTime() - queuedAt;
+                queueWait.record(waited, TimeUnit.NANOSECONDS);
+                if (waited > TimeUnit.MILLISECONDS.toNanos(maxQueueWaitMs)) {
+                    throw busy("expired");
+                }
+                if (mdc != null) {
+                    MDC.setContextMap(mdc);
+                }
+                try {
+                    return task.get();
+                } finally {
+                    MDC.clear();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw busy("queue_full");
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Login interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    private RateLimitedException busy(String reason) {
+        meterRegistry.counter("auth.login.rejected", "reason", reason).increment();
+        return new RateLimitedException("Too many sign-ins right now. Please try again in a moment.", 1);
+    }
+}
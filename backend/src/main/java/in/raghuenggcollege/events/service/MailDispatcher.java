@@ -0,0 +1,283 @@
+package in.raghuenggcollege.events.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMailMessage;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Sends mail off the request thread. Messages wait in a bounded queue and a
+// small worker pool drains them in batches, each batch going out as one
+// MimeMessage[] over a single SMTP connection. Failed messages are retried
+// with exponential backoff.
+@Service
+@RequiredArgsConstructor
+@lombok.extern.slf4j.Slf4j
+public class MailDispatcher {
+
+    private final JavaMailSender mailSender;
+
+    @Value("${mail.dispatch.workers:2}")
+    private int workers;
+
+    @Value("${mail.dispatch.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${mail.dispatch.batch-size:25}")
+    private int batchSize;
+
+    @Value("${mail.dispatch.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${mail.dispatch.retry-backoff-ms:2000}")
+    private long retryBackoffMs;
+
+    @Value("${mail.dispatch.enqueue-timeout-ms:100}")
+    private long enqueueTimeoutMs;
+
+    private BlockingQueue<PendingMail> queue;
+    private ExecutorService workerPool;
+    private ScheduledExecutorService retryScheduler;
+    private volatile boolean running;
+
+    // Retries waiting out their backoff, so stop() can report them as failed
+    private final Map<Long, PendingMail> pendingRetries = new ConcurrentHashMap<>();
+    private final AtomicLong retryIds = new AtomicLong();
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong sendNanos = new AtomicLong();
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        workerPool = Executors.newFixedThreadPool(workers, namedThreads("mail-dispatch-"));
+        for (int i = 0; i < workers; i++) {
+            workerPool.execute(this::drainQueue);
+        }
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(namedThreads("mail-retry-"));
+    }
+
+    // Anything still queued or waiting to retry is reported to its listener as failed
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        retryScheduler.shutdownNow();
+        workerPool.shutdown();
+        if (!workerPool.awaitTermination(10, TimeUnit.SECONDS)) {
+            workerPool.shutdownNow();
+        }
+
+        List<PendingMail> abandoned = new ArrayList<>();
+        pendingRetries.keySet().forEach(id -> {
+            PendingMail mail = pendingRetries.remove(id);
+            if (mail != null) {
+                abandoned.add(mail);
+            }
+        });
+        int retries = abandoned.size();
+        queue.drainTo(abandoned);
+        if (!abandoned.isEmpty()) {
+            log.warn("Mail dispatcher stopped with {} messages undelivered ({} waiting to retry)", abandoned.size(),
+                    retries);
+            Exception cause = new IllegalStateException("Mail dispatcher stopped");
+            abandoned.forEach(mail -> {
+                failed.incrementAndGet();
+                mail.failed(cause);
+            });
+        }
+    }
+
+    // Queues the message for delivery. Waits briefly when the queue is full and
+    // returns false if it is still full after that.
+    public boolean submit(SimpleMailMessage message) {
+        return submit(message, null);
+    }
+
+    // As above, reporting the final outcome to the listener
+    public boolean submit(SimpleMailMessage message, DeliveryListener listener) {
+        return enqueue(new PendingMail(message, 1, listener));
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    // Mean time to push one batch through an SMTP connection
+    public double getAverageBatchMillis() {
+        long count = batches.get();
+        return count == 0 ? 0 : sendNanos.get() / 1_000_000.0 / count;
+    }
+
+    private boolean enqueue(PendingMail mail) {
+        try {
+            if (running && queue.offer(mail, enqueueTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.incrementAndGet();
+        // The caller gets false and decides whether to retry, so this is not necessarily a loss
+        log.warn("Mail queue full, rejected message to {}", recipients(mail));
+        return false;
+    }
+
+    private void drainQueue() {
+        List<PendingMail> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingMail first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                sendBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Mail worker failed on a batch of {}", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void sendBatch(List<PendingMail> batch) {
+        Map<MimeMessage, PendingMail> messages = new LinkedHashMap<>();
+        for (PendingMail mail : batch) {
+            try {
+                MimeMessage mimeMessage = mailSender.createMimeMessage();
+                mail.message().copyTo(new MimeMailMessage(mimeMessage));
+                messages.put(mimeMessage, mail);
+            } catch (MailException e) {
+                failed.incrementAndGet();
+                log.error("Dropping malformed message to {}: {}", recipients(mail), e.getMessage());
+                mail.failed(e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+            sent.addAndGet(messages.size());
+            messages.values().forEach(PendingMail::delivered);
+        } catch (MailSendException e) {
+            Map<Object, Exception> failedMessages = e.getFailedMessages();
+            messages.forEach((mimeMessage, mail) -> {
+                if (failedMessages.containsKey(mimeMessage)) {
+                    retryOrGiveUp(mail, failedMessages.get(mimeMessage));
+                } else {
+                    sent.incrementAndGet();
+                    mail.delivered();
+                }
+            });
+        } catch (MailException e) {
+            // Connection or authentication failure - nothing in the batch went out
+            messages.values().forEach(mail -> retryOrGiveUp(mail, e));
+        } finally {
+            batches.incrementAndGet();
+            sendNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    private void retryOrGiveUp(PendingMail mail, Exception cause) {
+        if (mail.attempt() >= maxAttempts || !running) {
+            failed.incrementAndGet();
+            log.error("Giving up on mail to {} after {} attempts: {}", recipients(mail), mail.attempt(),
+                    cause.getMessage());
+            mail.failed(cause);
+            return;
+        }
+        long delay = retryBackoffMs << (mail.attempt() - 1);
+        log.warn("Mail to {} failed (attempt {}), retrying in {} ms: {}", recipients(mail), mail.attempt(), delay,
+                cause.getMessage());
+        long retryId = retryIds.incrementAndGet();
+        pendingRetries.put(retryId, mail);
+        try {
+            retryScheduler.schedule(() -> {
+                if (pendingRetries.remove(retryId) == null) {
+                    return; // Already failed by stop()
+                }
+                PendingMail retry = new PendingMail(mail.message(), mail.attempt() + 1, mail.listener());
+                if (!enqueue(retry)) {
+                    retry.failed(new IllegalStateException("Mail queue full"));
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            if (pendingRetries.remove(retryId) != null) {
+                failed.incrementAndGet();
+                mail.failed(e);
+            }
+        }
+    }
+
+    private static String recipients(PendingMail mail) {
+        String[] to = mail.message().getTo();
+        return to == null ? "(none)" : String.join(", ", to);
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicLong counter = new AtomicLong();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // Told how a submitted message ended up; called on a mail worker thread
+    public interface DeliveryListener {
+        void delivered();
+
+        void failed(Exception cause);
+    }
+
+    private record PendingMail(SimpleMailMessage message, int attempt, DeliveryListener listener) {
+
+        void delivered() {
+            if (listener != null) {
+                listener.delivered();
+            }
+        }
+
+        void failed(Exception cause) {
+            if (listener != null) {
+                listener.failed(cause);
+            }
+        }
+    }
+}
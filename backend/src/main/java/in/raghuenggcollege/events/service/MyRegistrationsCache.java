@@ -0,0 +1,83 @@
+package in.raghuenggcollege.events.service;
+
+import in.raghuenggcollege.events.dto.MyRegistration;
+import in.raghuenggcollege.events.repository.RegistrationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Per-user cache of the "my registrations" dashboard. Register, cancel and
+// waitlist promotion evict the user after commit; event edits and deletes
+// clear everything, since event details are part of each row.
+@Component
+@RequiredArgsConstructor
+public class MyRegistrationsCache {
+
+    private static final int STRIPES = 64;
+
+    private final RegistrationRepository registrationRepository;
+
+    @Value("${registrations.my-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${registrations.my-cache.max-size:10000}")
+    private int maxSize;
+
+    private final ConcurrentHashMap<String, CachedRegistrations> cache = new ConcurrentHashMap<>();
+    // Bumped on every eviction of a user hashing to the stripe, so a load that
+    // raced with an eviction doesn't leave its stale result behind
+    private final AtomicLongArray versions = new AtomicLongArray(STRIPES);
+
+    public List<MyRegistration> get(String email) {
+        long now = System.nanoTime();
+        CachedRegistrations cached = cache.get(email);
+        if (cached != null && now - cached.expiresAt() < 0) {
+            return cached.registrations();
+        }
+
+        int stripe = stripe(email);
+        long version = versions.get(stripe);
+        List<MyRegistration> registrations = List.copyOf(registrationRepository.findMyRegistrations(email));
+        if (cache.size() >= maxSize) {
+            makeRoom(now);
+        }
+        CachedRegistrations loaded = new CachedRegistrations(registrations,
+                now + TimeUnit.SECONDS.toNanos(ttlSeconds));
+        cache.put(email, loaded);
+        if (versions.get(stripe) != version) {
+            cache.remove(email, loaded);
+        }
+        return registrations;
+    }
+
+    public void evict(String email) {
+        versions.incrementAndGet(stripe(email));
+        cache.remove(email);
+    }
+
+    public void evictAll() {
+        for (int i = 0; i < STRIPES; i++) {
+            versions.incrementAndGet(i);
+        }
+        cache.clear();
+    }
+
+    private static int stripe(String email) {
+        return Math.floorMod(email.hashCode(), STRIPES);
+    }
+
+    private void makeRoom(long now) {
+        cache.values().removeIf(cached -> now - cached.expiresAt() >= 0);
+        if (cache.size() >= maxSize) {
+            cache.clear();
+        }
+    }
+
+    private record CachedRegistrations(List<MyRegistration> registrations, long expiresAt) {
+    }
+}
@@ -1,32 +1,118 @@
 package in.raghuenggcollege.events.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import in.raghuenggcollege.events.dto.EventNotification;
+import in.raghuenggcollege.events.dto.Recipient;
+import in.raghuenggcollege.events.entity.OutboxChannel;
+import in.raghuenggcollege.events.entity.OutboxMessage;
+import in.raghuenggcollege.events.entity.OutboxStatus;
+import in.raghuenggcollege.events.entity.RegistrationStatus;
+import in.raghuenggcollege.events.repository.OutboxRepository;
+import in.raghuenggcollege.events.repository.RegistrationRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+// Notifications are written to the outbox in the caller's transaction, so
+// they only go out if that transaction commits. OutboxRelay delivers them.
 @Service
 @RequiredArgsConstructor
 public class NotificationService {
 
-    private final SimpMessagingTemplate messagingTemplate;
-    private final JavaMailSender mailSender;
+    // Everyone still holding a place at the event
+    private static final Set<RegistrationStatus> ACTIVE_STATUSES = EnumSet.of(
+            RegistrationStatus.CONFIRMED, RegistrationStatus.WAITLIST, RegistrationStatus.ATTENDED);
+
+    private static final String INSERT_EMAIL = "INSERT INTO notification_outbox "
+            + "(channel, destination, subject, body, status, attempts, available_at, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, 0, ?, ?)";
+
+    private final OutboxRepository outboxRepository;
+    private final RegistrationRepository registrationRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${notifications.fanout.chunk-size:500}")
+    private int chunkSize;
 
-    public void sendGlobalNotification(String message) {
-        messagingTemplate.convertAndSend("/topic/events", message);
+    // Delivered by EventFanout to the event's department and tag topics
+    public void sendEventNotification(EventNotification notification) {
+        if (notification.getTimestamp() == null) {
+            notification.setTimestamp(LocalDateTime.now());
+        }
+        String body;
+        try {
+            body = objectMapper.writeValueAsString(notification);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unserializable notification for event " + notification.getEventId(), e);
+        }
+        outboxRepository.save(OutboxMessage.builder()
+                .channel(OutboxChannel.BROADCAST)
+                .destination(EventFanout.ALL_EVENTS)
+                .body(body)
+                .availableAt(LocalDateTime.now())
+                .build());
     }
 
     public void sendEmail(String to, String subject, String body) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(to);
-            message.setSubject(subject);
-            message.setText(body);
-            mailSender.send(message);
-            System.out.println("📧 Email sent to: " + to);
-        } catch (Exception e) {
-            System.err.println("❌ Failed to send email to: " + to + " Error: " + e.getMessage());
+        outboxRepository.save(OutboxMessage.builder()
+                .channel(OutboxChannel.EMAIL)
+                .destination(to)
+                .subject(subject)
+                .body(body)
+                .availableAt(LocalDateTime.now())
+                .build());
+    }
+
+    // Emails everyone actively registered for the event. Recipients are read in
+    // keyset chunks of (email, name, status) and each chunk goes into the outbox as
+    // one JDBC batch, so memory stays flat however many people registered.
+    // Returns the number of emails queued.
+    public int emailRegistrants(Long eventId, String subject, Function<Recipient, String> bodyFor) {
+        int queued = 0;
+        long afterId = 0;
+        List<Recipient> chunk;
+        do {
+            chunk = registrationRepository.findRecipientsAfter(eventId, ACTIVE_STATUSES, afterId,
+                    PageRequest.of(0, chunkSize));
+            List<Recipient> deliverable = chunk.stream().filter(r -> r.email() != null).toList();
+            insertEmails(deliverable, subject, bodyFor);
+            queued += deliverable.size();
+            if (!chunk.isEmpty()) {
+                afterId = chunk.get(chunk.size() - 1).registrationId();
+            }
+        } while (chunk.size() == chunkSize);
+        return queued;
+    }
+
+    // Emails the given recipients as one outbox batch
+    public void emailRecipients(List<Recipient> recipients, String subject, Function<Recipient, String> bodyFor) {
+        insertEmails(recipients.stream().filter(r -> r.email() != null).toList(), subject, bodyFor);
+    }
+
+    private void insertEmails(List<Recipient> recipients, String subject, Function<Recipient, String> bodyFor) {
+        if (recipients.isEmpty()) {
+            return;
         }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_EMAIL, recipients, recipients.size(), (ps, recipient) -> {
+            ps.setString(1, OutboxChannel.EMAIL.name());
+            ps.setString(2, recipient.email());
+            ps.setString(3, subject);
+            ps.setString(4, bodyFor.apply(recipient));
+            ps.setString(5, OutboxStatus.PENDING.name());
+            ps.setTimestamp(6, now);
+            ps.setTimestamp(7, now);
+        });
     }
 }
@@ -0,0 +1,279 @@
+package in.raghuenggcollege.events.service;
+
+import in.raghuenggcollege.events.entity.VerificationToken;
+import in.raghuenggcollege.events.exception.RateLimitedException;
+import in.raghuenggcollege.events.repository.VerificationTokenRepository;
+import in.raghuenggcollege.events.util.TokenBucketLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Email verification codes. Pending codes live in a sharded in-memory map that
+// expires them, so issuing and checking a code costs no database round trip;
+// with auth.otp.persist=true (implied with several nodes, see
+// ClusterInvalidations) they are also written to verification_tokens, which
+// then decides, wrong-guess count included, so they survive restarts and can be
+// checked on any node. Issuing is throttled per email and per client IP (taken
+// from X-Forwarded-For only behind a trusted proxy, see application.properties),
+// and the email goes out through the MailDispatcher queue, never on the request
+// thread.
+@Service
+@RequiredArgsConstructor
+@lombok.extern.slf4j.Slf4j
+public class OtpService {
+
+    private static final int SHARDS = 32;
+
+    private final VerificationTokenRepository tokenRepository;
+    private final MailDispatcher mailDispatcher;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ClusterInvalidations clusterInvalidations;
+
+    @Value("${auth.otp.ttl-minutes:10}")
+    private long ttlMinutes;
+
+    @Value("${auth.otp.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${auth.otp.persist:false}")
+    private boolean persist;
+
+    @Value("${auth.otp.rate.per-email.capacity:3}")
+    private int perEmailCapacity;
+
+    @Value("${auth.otp.rate.per-email.per-minute:1}")
+    private int perEmailPerMinute;
+
+    @Value("${auth.otp.rate.per-ip.capacity:20}")
+    private int perIpCapacity;
+
+    @Value("${auth.otp.rate.per-ip.per-minute:10}")
+    private int perIpPerMinute;
+
+    private final SecureRandom random = new SecureRandom();
+    private final Shard[] shards = new Shard[SHARDS];
+    private TokenBucketLimiter perEmail;
+    private TokenBucketLimiter perIp;
+
+    @PostConstruct
+    void init() {
+        persist = persist || clusterInvalidations.isEnabled();
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new Shard();
+        }
+        perEmail = new TokenBucketLimiter(perEmailCapacity, perEmailPerMinute);
+        perIp = new TokenBucketLimiter(perIpCapacity, perIpPerMinute);
+    }
+
+    // Call before doing any work for a request that will end in issue()
+    public void checkRate(String email, String clientIp) {
+        long wait = clientIp != null ? perIp.tryAcquire(clientIp) : 0;
+        if (wait > 0) {
+            meterRegistry.counter("auth.otp.throttled", "scope", "ip").increment();
+            throw new RateLimitedException("Too many requests. Please try again in " + wait + " seconds.", wait);
+        }
+        wait = perEmail.tryAcquire(normalize(email));
+        if (wait > 0) {
+            meterRegistry.counter("auth.otp.throttled", "scope", "email").increment();
+            throw new RateLimitedException("A code was sent recently. Please wait " + wait
+                    + " seconds before requesting another.", wait);
+        }
+    }
+
+    // Replaces any pending code for the email and queues it for delivery
+    public void issue(String email) {
+        String key = normalize(email);
+        String code = String.format("%06d", random.nextInt(1_000_000));
+        long expiresAt = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(ttlMinutes);
+        shard(key).put(key, new PendingOtp(code, expiresAt));
+        if (persist) {
+            save(email, code, expiresAt);
+        }
+        deliver(email, code);
+    }
+
+    // Throws if the code is wrong or expired; a correct code is used up
+    public void verify(String email, String code) {
+        String key = normalize(email);
+        Shard shard = shard(key);
+        PendingOtp pending = shard.get(key);
+        if (persist) {
+            // Another node may have issued a newer code or used this one up
+            PendingOtp stored = load(email);
+            if (stored == null) {
+                shard.remove(key);
+            } else if (pending == null || !pending.code().equals(stored.code())) {
+                shard.put(key, stored);
+            }
+            pending = stored;
+        }
+        if (pending == null) {
+            throw new RuntimeException("Invalid or expired OTP");
+        }
+        if (pending.expiresAt() < System.currentTimeMillis()) {
+            discard(key, email);
+            throw new RuntimeException("OTP expired");
+        }
+        if (code == null || !pending.code().equals(code.trim())) {
+            // Persisted codes count wrong guesses in the row, so spreading them over nodes gains nothing
+            boolean exhausted = persist
+                    ? recordStoredFailure(email, pending.code()) >= maxAttempts
+                    : shard.recordFailure(key, pending, maxAttempts);
+            if (exhausted) {
+                discard(key, email);
+                throw new RuntimeException("Too many incorrect attempts. Please request a new code.");
+            }
+            throw new RuntimeException("Invalid OTP");
+        }
+        discard(key, email);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.otp.sweep-interval-ms:60000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        int expired = 0;
+        for (Shard shard : shards) {
+            expired += shard.removeExpired(now);
+        }
+        perEmail.evictIdle();
+        perIp.evictIdle();
+        if (expired > 0) {
+            log.debug("Expired {} unused OTPs", expired);
+        }
+    }
+
+    private void discard(String key, String email) {
+        shard(key).remove(key);
+        if (persist) {
+            transactionTemplate.executeWithoutResult(status -> tokenRepository.deleteByEmail(email));
+        }
+    }
+
+    private void save(String email, String code, long expiresAt) {
+        transactionTemplate.executeWithoutResult(status -> {
+            VerificationToken token = tokenRepository.findByEmail(email)
+                    .orElse(VerificationToken.builder().email(email).build());
+            token.setOtpCode(code);
+            token.setFailedAttempts(0);
+            token.setExpiresAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(expiresAt),
+                    ZoneId.systemDefault()));
+            tokenRepository.save(token);
+        });
+    }
+
+    private PendingOtp load(String email) {
+        return tokenRepository.findByEmail(email)
+                .map(token -> new PendingOtp(token.getOtpCode(),
+                        token.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                        token.getFailedAttempts()))
+                .orElse(null);
+    }
+
+    // Returns the stored failure count including this one; the row lock orders concurrent guesses
+    private int recordStoredFailure(String email, String code) {
+        Integer failures = transactionTemplate.execute(status -> {
+            if (tokenRepository.incrementFailedAttempts(email, code) == 0) {
+                return 0; // Replaced by a new code or used up meanwhile
+            }
+            return tokenRepository.findByEmail(email).map(VerificationToken::getFailedAttempts).orElse(0);
+        });
+        return failures == null ? 0 : failures;
+    }
+
+    // auth.otp.delivery: from queueing to the SMTP server accepting it (or giving up)
+    private void deliver(String email, String code) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(email);
+        message.setSubject("Raghu Engineering College - Email Verification");
+        message.setText("Your verification code is: " + code + "\n\nThis code expires in " + ttlMinutes + " minutes.");
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean queued = mailDispatcher.submit(message, new MailDispatcher.DeliveryListener() {
+            @Override
+            public void delivered() {
+                sample.stop(meterRegistry.timer("auth.otp.delivery", "outcome", "sent"));
+            }
+
+            @Override
+            public void failed(Exception cause) {
+                sample.stop(meterRegistry.timer("auth.otp.delivery", "outcome", "failed"));
+                log.warn("Failed to send OTP email to {}: {}", email, cause.getMessage());
+            }
+        });
+        if (queued) {
+            log.info("OTP email queued for {}", email);
+        } else {
+            // The user can ask for another code once the queue drains
+            sample.stop(meterRegistry.timer("auth.otp.delivery", "outcome", "rejected"));
+            log.warn("Mail queue full, OTP email to {} dropped", email);
+        }
+    }
+
+    private Shard shard(String key) {
+        return shards[(key.hashCode() & 0x7fffffff) % SHARDS];
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase();
+    }
+
+    private record PendingOtp(String code, long expiresAt, int failures) {
+        PendingOtp(String code, long expiresAt) {
+            this(code, expiresAt, 0);
+        }
+    }
+
+    // A plain map behind one lock; 32 of them keep contention negligible
+    private static final class Shard {
+        private final Map<String, PendingOtp> entries = new HashMap<>();
+
+        synchronized PendingOtp get(String key) {
+            return entries.get(key);
+        }
+
+        synchronized void put(String key, PendingOtp otp) {
+            entries.put(key, otp);
+        }
+
+        synchronized void remove(String key) {
+            entries.remove(key);
+        }
+
+        // Returns true once the code has been guessed wrong too often
+        synchronized boolean recordFailure(String key, PendingOtp seen, int maxAttempts) {
+            PendingOtp current = entries.get(key);
+            if (current == null || !current.code().equals(seen.code())) {
+                return false; // Replaced by a new code meanwhile
+            }
+            PendingOtp updated = new PendingOtp(current.code(), current.expiresAt(), current.failures() + 1);
+            entries.put(key, updated);
+            return updated.failures() >= maxAttempts;
+        }
+
+        synchronized int removeExpired(long now) {
+            int removed = 0;
+            for (Iterator<PendingOtp> it = entries.values().iterator(); it.hasNext();) {
+                if (it.next().expiresAt() < now) {
+                    it.remove();
+                    removed++;
+                }
+            }
+            return removed;
+        }
+    }
+}
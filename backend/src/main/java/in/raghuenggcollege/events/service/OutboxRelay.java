@@ -0,0 +1,178 @@
+package in.raghuenggcollege.events.service;
+
+import in.raghuenggcollege.events.entity.OutboxChannel;
+import in.raghuenggcollege.events.entity.OutboxMessage;
+import in.raghuenggcollege.events.entity.OutboxStatus;
+import in.raghuenggcollege.events.repository.OutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Drains notification_outbox: claims PENDING rows, hands emails to the
+// MailDispatcher and passes broadcasts to EventFanout. Rows stay IN_FLIGHT
+// until delivery is confirmed; a claim older than the lease goes back to
+// PENDING, so nothing is lost across restarts (delivery is at-least-once).
+// Every claim counts as an attempt, whether the row then came back through an
+// expired lease or a full mail queue; after outbox.relay.max-attempts claims the
+// row is marked FAILED instead of being tried again.
+@Service
+@RequiredArgsConstructor
+@lombok.extern.slf4j.Slf4j
+public class OutboxRelay {
+
+    private final OutboxRepository outboxRepository;
+    private final MailDispatcher mailDispatcher;
+    private final EventFanout eventFanout;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${outbox.relay.batch-size:200}")
+    private int batchSize;
+
+    @Value("${outbox.relay.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${outbox.relay.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${outbox.relay.requeue-delay-seconds:5}")
+    private long requeueDelaySeconds;
+
+    @Value("${outbox.retention-days:7}")
+    private long retentionDays;
+
+    // Outcomes reported by the mail workers, written back in bulk on the next tick
+    private final Queue<Long> delivered = new ConcurrentLinkedQueue<>();
+    private final Queue<Long> undeliverable = new ConcurrentLinkedQueue<>();
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:1000}")
+    public void relay() {
+        recordOutcomes();
+        transactionTemplate.executeWithoutResult(status -> {
+            int released = outboxRepository.releaseClaimsBefore(LocalDateTime.now().minusSeconds(leaseSeconds),
+                    OutboxStatus.IN_FLIGHT, OutboxStatus.PENDING);
+            if (released > 0) {
+                log.warn("Re-queued {} outbox messages whose delivery was never confirmed", released);
+            }
+        });
+
+        List<OutboxMessage> batch;
+        boolean queueFull;
+        do {
+            batch = transactionTemplate.execute(status -> claimBatch());
+            queueFull = dispatchAll(batch);
+        } while (!queueFull && batch.size() == batchSize);
+        recordOutcomes();
+    }
+
+    @Scheduled(cron = "0 0 4 * * *")
+    public void purgeSent() {
+        Integer purged = transactionTemplate.execute(status -> outboxRepository.deleteByStatusBefore(
+                OutboxStatus.SENT, LocalDateTime.now().minusDays(retentionDays)));
+        log.info("Purged {} delivered outbox messages", purged);
+    }
+
+    // Rows claimed too often are marked FAILED here and skipped by dispatchAll
+    private List<OutboxMessage> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxMessage> batch = outboxRepository.lockNextBatch(now, batchSize);
+        for (OutboxMessage message : batch) {
+            if (message.getAttempts() >= maxAttempts) {
+                log.error("Giving up on outbox message {} to {} after {} attempts", message.getId(),
+                        message.getDestination(), message.getAttempts());
+                message.setStatus(OutboxStatus.FAILED);
+                continue;
+            }
+            message.setStatus(OutboxStatus.IN_FLIGHT);
+            message.setClaimedAt(now);
+            message.setAttempts(message.getAttempts() + 1);
+        }
+        return batch;
+    }
+
+    // Dispatches the batch in order. When the mail queue turns one away, it and
+    // everything after it go back to PENDING in one statement and true is
+    // returned, so the relay stops claiming until the next tick.
+    private boolean dispatchAll(List<OutboxMessage> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxMessage message = batch.get(i);
+            if (message.getStatus() == OutboxStatus.IN_FLIGHT && !dispatch(message)) {
+                List<Long> rest = batch.subList(i, batch.size()).stream()
+                        .filter(m -> m.getStatus() == OutboxStatus.IN_FLIGHT)
+                        .map(OutboxMessage::getId)
+                        .toList();
+                transactionTemplate.executeWithoutResult(status -> outboxRepository.reschedule(
+                        rest, OutboxStatus.PENDING, LocalDateTime.now().plusSeconds(requeueDelaySeconds)));
+                log.warn("Mail queue full, re-queued {} outbox messages for {} s", rest.size(), requeueDelaySeconds);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Returns false only if the mail queue is full
+    private boolean dispatch(OutboxMessage message) {
+        Long id = message.getId();
+        if (message.getChannel() == OutboxChannel.BROADCAST) {
+            try {
+                // Counted as delivered once queued for the next coalescing window
+                eventFanout.publish(message.getDestination(), message.getBody());
+                delivered.add(id);
+            } catch (RuntimeException e) {
+                log.error("Broadcast of outbox message {} failed: {}", id, e.getMessage());
+                undeliverable.add(id);
+            }
+            return true;
+        }
+
+        SimpleMailMessage mail = new SimpleMailMessage();
+        mail.setTo(message.getDestination());
+        mail.setSubject(message.getSubject());
+        mail.setText(message.getBody());
+        boolean queued = mailDispatcher.submit(mail, new MailDispatcher.DeliveryListener() {
+            @Override
+            public void delivered() {
+                delivered.add(id);
+            }
+
+            @Override
+            public void failed(Exception cause) {
+                undeliverable.add(id);
+            }
+        });
+        return queued;
+    }
+
+    private void recordOutcomes() {
+        List<Long> sent = drain(delivered);
+        List<Long> failed = drain(undeliverable);
+        if (sent.isEmpty() && failed.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sent.isEmpty()) {
+                outboxRepository.updateStatus(sent, OutboxStatus.SENT);
+            }
+            if (!failed.isEmpty()) {
+                outboxRepository.updateStatus(failed, OutboxStatus.FAILED);
+            }
+        });
+    }
+
+    private static List<Long> drain(Queue<Long> queue) {
+        List<Long> ids = new ArrayList<>();
+        Long id;
+        while ((id = queue.poll()) != null) {
+            ids.add(id);
+        }
+        return ids;
+    }
+}
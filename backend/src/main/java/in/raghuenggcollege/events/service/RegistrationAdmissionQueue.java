@@ -0,0 +1,270 @@
+package in.raghuenggcollege.events.service;
+
+import in.raghuenggcollege.events.dto.RegistrationTicket;
+import in.raghuenggcollege.events.entity.AdmissionTicket;
+import in.raghuenggcollege.events.entity.Registration;
+import in.raghuenggcollege.events.entity.RegistrationStatus;
+import in.raghuenggcollege.events.repository.AdmissionTicketRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Burst mode for registration openings. Requests become intents in a per-event
+// FIFO lane and the caller gets a ticket straight away. Each lane is drained by
+// at most one worker at a time (a single writer per event), so a spike costs a
+// queue slot instead of a Tomcat thread plus a pooled connection per request.
+// With burst mode off, intents are registered synchronously.
+// An outcome is written to admission_tickets in the registration's own
+// transaction, so GET /tickets/{id} answers on any node once the intent is
+// decided; while it is still QUEUED only the node holding the lane knows it.
+// Outcomes are also pushed to the user's STOMP sessions on
+// /user/queue/registrations, on whichever node they are connected (sessions
+// authenticate on CONNECT, see StompAuthenticationInterceptor and WebSocketConfig).
+@Service
+@RequiredArgsConstructor
+@lombok.extern.slf4j.Slf4j
+public class RegistrationAdmissionQueue {
+
+    public static final String TICKET_QUEUE = "/queue/registrations";
+    private static final int DRAIN_SLICE = 64; // Intents per turn before yielding to other events
+    private static final int MAX_MESSAGE_LENGTH = 255;
+
+    private final RegistrationService registrationService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final AdmissionTicketRepository ticketRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${registration.burst.enabled:false}")
+    private boolean enabled;
+
+    @Value("${registration.burst.workers:4}")
+    private int workers;
+
+    @Value("${registration.burst.max-pending-per-event:20000}")
+    private int maxPendingPerEvent;
+
+    @Value("${registration.burst.ticket-ttl-minutes:30}")
+    private long ticketTtlMinutes;
+
+    private final ConcurrentHashMap<Long, Lane> lanes = new ConcurrentHashMap<>();
+    // QUEUED tickets of this node's lanes; decided ones are read from the table
+    private final ConcurrentHashMap<String, RegistrationTicket> tickets = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+
+    @PostConstruct
+    void start() {
+        if (enabled) {
+            AtomicLong counter = new AtomicLong();
+            executor = Executors.newFixedThreadPool(workers, runnable -> {
+                Thread thread = new Thread(runnable, "registration-lane-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    public RegistrationTicket submit(Long eventId, String userEmail) {
+        RegistrationTicket.RegistrationTicketBuilder ticket = RegistrationTicket.builder()
+                .ticketId(UUID.randomUUID().toString())
+                .eventId(eventId)
+                .userEmail(userEmail);
+
+        if (!enabled) {
+            return complete(register(eventId, userEmail, ticket.build()));
+        }
+
+        // The slot is taken under the map's lock for this event, the same lock
+        // expireTickets retires lanes under, so a lane is never dropped between
+        // being looked up here and receiving the intent
+        long[] slot = new long[1];
+        Lane lane = lanes.compute(eventId, (id, existing) -> {
+            Lane target = existing != null ? existing : new Lane();
+            slot[0] = target.enqueued.incrementAndGet();
+            return target;
+        });
+        long sequence = slot[0];
+        if (sequence - lane.processed.get() > maxPendingPerEvent) {
+            lane.enqueued.decrementAndGet();
+            return ticket.status(RegistrationTicket.Status.REJECTED)
+                    .message("Registration queue is full, please try again shortly")
+                    .updatedAt(LocalDateTime.now())
+                    .build();
+        }
+
+        RegistrationTicket queued = ticket.status(RegistrationTicket.Status.QUEUED)
+                .sequence(sequence)
+                .updatedAt(LocalDateTime.now())
+                .build();
+        tickets.put(queued.getTicketId(), queued);
+        lane.intents.add(queued);
+        scheduleDrain(lane);
+        return withPosition(queued, lane);
+    }
+
+    // Only the user who queued the intent may read its ticket
+    public RegistrationTicket getTicket(String ticketId, String userEmail) {
+        RegistrationTicket ticket = tickets.get(ticketId);
+        if (ticket == null) {
+            ticket = ticketRepository.findById(ticketId).map(RegistrationAdmissionQueue::toTicket).orElse(null);
+        }
+        if (ticket == null || !ticket.getUserEmail().equals(userEmail)) {
+            throw new RuntimeException("Ticket not found");
+        }
+        Lane lane = lanes.get(ticket.getEventId());
+        return lane == null ? ticket : withPosition(ticket, lane);
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void expireTickets() {
+        for (Long eventId : lanes.keySet()) {
+            lanes.computeIfPresent(eventId, (id, lane) -> lane.isIdle() ? null : lane);
+        }
+        if (enabled) {
+            LocalDateTime cutoff = LocalDateTime.now().minusMinutes(ticketTtlMinutes);
+            try {
+                transactionTemplate.execute(status -> ticketRepository.deleteUpdatedBefore(cutoff));
+            } catch (DataAccessException e) {
+                log.warn("Could not expire admission tickets: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void scheduleDrain(Lane lane) {
+        if (lane.draining.compareAndSet(false, true)) {
+            executor.execute(() -> drain(lane));
+        }
+    }
+
+    private void drain(Lane lane) {
+        try {
+            for (int i = 0; i < DRAIN_SLICE; i++) {
+                RegistrationTicket ticket = lane.intents.poll();
+                if (ticket == null) {
+                    break;
+                }
+                complete(register(ticket.getEventId(), ticket.getUserEmail(), ticket));
+                lane.processed.incrementAndGet();
+            }
+        } finally {
+            lane.draining.set(false);
+        }
+        // Re-arm if more arrived (or the slice ran out) after the last poll
+        if (!lane.intents.isEmpty()) {
+            scheduleDrain(lane);
+        }
+    }
+
+    private RegistrationTicket register(Long eventId, String userEmail, RegistrationTicket ticket) {
+        try {
+            return transactionTemplate.execute(status -> {
+                Registration registration = registrationService.registerUser(eventId, userEmail);
+                return record(decided(ticket)
+                        .status(registration.getStatus() == RegistrationStatus.CONFIRMED
+                                ? RegistrationTicket.Status.CONFIRMED
+                                : RegistrationTicket.Status.WAITLIST)
+                        .registrationId(registration.getId())
+                        .build());
+            });
+        } catch (RuntimeException e) {
+            RegistrationTicket rejected = decided(ticket)
+                    .status(RegistrationTicket.Status.REJECTED)
+                    .message(e.getMessage())
+                    .build();
+            if (!enabled) {
+                return rejected;
+            }
+            try {
+                return transactionTemplate.execute(status -> record(rejected));
+            } catch (DataAccessException failed) {
+                // The STOMP push still tells the user
+                log.warn("Could not store rejected ticket {}: {}", ticket.getTicketId(), failed.getMessage());
+                return rejected;
+            }
+        }
+    }
+
+    private static RegistrationTicket.RegistrationTicketBuilder decided(RegistrationTicket ticket) {
+        return ticket.toBuilder()
+                .position(null)
+                .updatedAt(LocalDateTime.now());
+    }
+
+    // Burst mode only; synchronous callers get the outcome in the response
+    private RegistrationTicket record(RegistrationTicket outcome) {
+        if (enabled) {
+            String message = outcome.getMessage();
+            ticketRepository.save(AdmissionTicket.builder()
+                    .ticketId(outcome.getTicketId())
+                    .eventId(outcome.getEventId())
+                    .userEmail(outcome.getUserEmail())
+                    .status(outcome.getStatus())
+                    .registrationId(outcome.getRegistrationId())
+                    .message(message != null && message.length() > MAX_MESSAGE_LENGTH
+                            ? message.substring(0, MAX_MESSAGE_LENGTH) : message)
+                    .updatedAt(outcome.getUpdatedAt())
+                    .build());
+        }
+        return outcome;
+    }
+
+    private RegistrationTicket complete(RegistrationTicket done) {
+        if (enabled) {
+            tickets.remove(done.getTicketId()); // Committed to the table by now
+            messagingTemplate.convertAndSendToUser(done.getUserEmail(), TICKET_QUEUE, done);
+        }
+        return done;
+    }
+
+    private static RegistrationTicket toTicket(AdmissionTicket stored) {
+        return RegistrationTicket.builder()
+                .ticketId(stored.getTicketId())
+                .eventId(stored.getEventId())
+                .userEmail(stored.getUserEmail())
+                .status(stored.getStatus())
+                .registrationId(stored.getRegistrationId())
+                .message(stored.getMessage())
+                .updatedAt(stored.getUpdatedAt())
+                .build();
+    }
+
+    private RegistrationTicket withPosition(RegistrationTicket ticket, Lane lane) {
+        if (ticket.getStatus() != RegistrationTicket.Status.QUEUED) {
+            return ticket;
+        }
+        return ticket.toBuilder()
+                .position(Math.max(0, ticket.getSequence() - lane.processed.get() - 1))
+                .build();
+    }
+
+    private static class Lane {
+        final Queue<RegistrationTicket> intents = new ConcurrentLinkedQueue<>();
+        final AtomicLong enqueued = new AtomicLong();
+        final AtomicLong processed = new AtomicLong();
+        final AtomicBoolean draining = new AtomicBoolean();
+
+        // Every slot handed out has been drained or given back
+        boolean isIdle() {
+            return enqueued.get() == processed.get() && !draining.get();
+        }
+    }
+}
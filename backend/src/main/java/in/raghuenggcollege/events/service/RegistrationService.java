@@ -1,17 +1,23 @@
 package in.raghuenggcollege.events.service;
 
+import in.raghuenggcollege.events.dto.MyRegistration;
 import in.raghuenggcollege.events.entity.Event;
+import in.raghuenggcollege.events.entity.InvalidationScope;
 import in.raghuenggcollege.events.entity.Registration;
 import in.raghuenggcollege.events.entity.RegistrationStatus;
 import in.raghuenggcollege.events.entity.User;
 import in.raghuenggcollege.events.repository.EventRepository;
 import in.raghuenggcollege.events.repository.RegistrationRepository;
 import in.raghuenggcollege.events.repository.UserRepository;
+import in.raghuenggcollege.events.util.TransactionHooks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +29,11 @@ public class RegistrationService {
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
+    private final SeatLedger seatLedger;
+    private final WaitlistEngine waitlistEngine;
+    private final MyRegistrationsCache myRegistrationsCache;
+    private final ClusterInvalidations clusterInvalidations;
+    private final MeterRegistry meterRegistry;
 
     @Transactional
     public Registration registerUser(Long eventId, String userEmail) {
@@ -32,28 +43,32 @@ public class RegistrationService {
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new RuntimeException("Event not found"));
 
+        TransactionHooks.afterCommit(() -> myRegistrationsCache.evict(userEmail));
+        clusterInvalidations.publish(InvalidationScope.USER_REGISTRATIONS, userEmail);
+        Timer.Sample sample = Timer.start(meterRegistry);
+
         Optional<Registration> existingOpt = registrationRepository.findByUserAndEvent(user, event);
         if (existingOpt.isPresent()) {
             Registration existing = existingOpt.get();
             if (existing.getStatus() != RegistrationStatus.CANCELLED) {
+                recordOutcome(sample, "duplicate");
                 throw new RuntimeException("You are already registered for this event");
             }
-            // Re-activate cancelled registration
-            long confirmedCount = registrationRepository.countByEventAndStatus(event, RegistrationStatus.CONFIRMED);
-            RegistrationStatus newStatus = (confirmedCount < event.getCapacity()) ? RegistrationStatus.CONFIRMED
+            // Re-activate cancelled registration; it joins the back of the waitlist, not its old place
+            RegistrationStatus newStatus = seatLedger.tryReserve(event) ? RegistrationStatus.CONFIRMED
                     : RegistrationStatus.WAITLIST;
             existing.setStatus(newStatus);
+            existing.setRegisteredAt(LocalDateTime.now());
 
             Registration saved = registrationRepository.save(existing);
             if (newStatus == RegistrationStatus.CONFIRMED) {
                 sendConfirmationEmail(user, event);
             }
+            recordOutcome(sample, newStatus.name().toLowerCase());
             return saved;
         }
 
-        long confirmedCount = registrationRepository.countByEventAndStatus(event, RegistrationStatus.CONFIRMED);
-
-        RegistrationStatus status = (confirmedCount < event.getCapacity())
+        RegistrationStatus status = seatLedger.tryReserve(event)
                 ? RegistrationStatus.CONFIRMED
                 : RegistrationStatus.WAITLIST;
 
@@ -67,9 +82,15 @@ public class RegistrationService {
         if (status == RegistrationStatus.CONFIRMED) {
             sendConfirmationEmail(user, event);
         }
+        recordOutcome(sample, status.name().toLowerCase());
         return saved;
     }
 
+    // registrations.register, by outcome: confirmed, waitlist or duplicate
+    private void recordOutcome(Timer.Sample sample, String outcome) {
+        sample.stop(meterRegistry.timer("registrations.register", "outcome", outcome));
+    }
+
     private void sendConfirmationEmail(User user, Event event) {
         notificationService.sendEmail(
                 user.getEmail(),
@@ -90,30 +111,21 @@ public class RegistrationService {
             throw new RuntimeException("Unauthorized cancellation");
         }
 
+        RegistrationStatus previousStatus = registration.getStatus();
         registration.setStatus(RegistrationStatus.CANCELLED);
+        TransactionHooks.afterCommit(() -> myRegistrationsCache.evict(userEmail));
+        clusterInvalidations.publish(InvalidationScope.USER_REGISTRATIONS, userEmail);
         registrationRepository.save(registration);
 
-        promoteNextUser(registration.getEvent());
-    }
-
-    private void promoteNextUser(Event event) {
-        long confirmedCount = registrationRepository.countByEventAndStatus(event, RegistrationStatus.CONFIRMED);
-
-        if (confirmedCount < event.getCapacity()) {
-            registrationRepository.findTopByEventAndStatusOrderByRegisteredAtAsc(event, RegistrationStatus.WAITLIST)
-                    .ifPresent(nextUser -> {
-                        nextUser.setStatus(RegistrationStatus.CONFIRMED);
-                        registrationRepository.save(nextUser);
-                    });
+        Event event = registration.getEvent();
+        if (previousStatus == RegistrationStatus.CONFIRMED) {
+            seatLedger.release(event);
+            waitlistEngine.promote(event);
         }
     }
 
-    @Transactional(readOnly = true)
-    public List<Registration> getUserRegistrations(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-        List<Registration> regs = registrationRepository.findByUser(user);
-        System.out.println("📦 Found " + regs.size() + " registrations for user: " + userEmail);
-        return regs;
+    // Served from MyRegistrationsCache; one join query on a miss
+    public List<MyRegistration> getUserRegistrations(String userEmail) {
+        return myRegistrationsCache.get(userEmail);
     }
 }
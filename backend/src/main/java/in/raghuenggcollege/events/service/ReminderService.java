@@ -1,89 +1,223 @@
 package in.raghuenggcollege.events.service;
 
 import in.raghuenggcollege.events.entity.Event;
-import in.raghuenggcollege.events.entity.Registration;
+import in.raghuenggcollege.events.entity.ReminderSent;
+import in.raghuenggcollege.events.entity.ReminderType;
 import in.raghuenggcollege.events.repository.EventRepository;
-import in.raghuenggcollege.events.repository.RegistrationRepository;
+import in.raghuenggcollege.events.repository.ReminderSentRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
-
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+// Fires event reminders 24h, 1h and 15min before start. Upcoming reminders sit
+// in a DelayQueue ordered by fire time; an hourly ranged query tops it up and
+// event create/update/delete keep it current. A reminders_sent row is written in
+// the same transaction as the outbox emails, so each reminder goes out once.
 @Service
 @RequiredArgsConstructor
+@lombok.extern.slf4j.Slf4j
 public class ReminderService {
 
     private final EventRepository eventRepository;
-    private final RegistrationRepository registrationRepository;
+    private final ReminderSentRepository reminderSentRepository;
     private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    // How far ahead (by fire time) reminders are held in memory
+    @Value("${reminders.horizon-hours:2}")
+    private long horizonHours;
+
+    private final DelayQueue<ScheduledReminder> queue = new DelayQueue<>();
+    private final ConcurrentHashMap<ReminderKey, ScheduledReminder> scheduled = new ConcurrentHashMap<>();
+    private Thread worker;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        running = true;
+        worker = new Thread(this::runScheduler, "reminder-scheduler");
+        worker.setDaemon(true);
+        worker.start();
+    }
 
-    // PRODUCTION MODE: Run every hour
+    @PreDestroy
+    void stop() {
+        running = false;
+        worker.interrupt();
+    }
+
+    // Loads every event whose reminders fall inside the horizon
+    @EventListener(ApplicationReadyEvent.class)
     @Scheduled(cron = "0 0 * * * *")
-    public void sendEventReminders() {
-        System.out.println("⏰ Reminder Service: Checking for upcoming events...");
+    public void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime lastStart = now.plusHours(horizonHours).plus(ReminderType.DAY_BEFORE.getOffset());
+        List<Event> events = eventRepository.findByStartTimeBetweenOrderByStartTimeAsc(now, lastStart);
+        events.forEach(event -> schedule(event.getId(), event.getStartTime()));
+        log.info("Reminder scheduler refreshed: {} events in window, {} reminders pending", events.size(),
+                scheduled.size());
+    }
 
+    // Called after an event is created or edited
+    public void schedule(Long eventId, LocalDateTime startTime) {
         LocalDateTime now = LocalDateTime.now();
+        LocalDateTime horizon = now.plusHours(horizonHours);
 
-        // Find all upcoming events (next 7 days)
-        List<Event> upcomingEvents = eventRepository.findAll().stream()
-                .filter(e -> e.getStartTime().isAfter(now))
-                .toList();
-
-        System.out.println("📋 Found " + upcomingEvents.size() + " upcoming events.");
-
-        for (Event event : upcomingEvents) {
-            System.out.println("🔍 Processing event ID: " + event.getId() + ", Title: " + event.getTitle() + " at "
-                    + event.getStartTime());
-
-            // Calculate time until event
-            long hoursUntilEvent = java.time.Duration.between(now, event.getStartTime()).toHours();
-            long minutesUntilEvent = java.time.Duration.between(now, event.getStartTime()).toMinutes();
-
-            System.out
-                    .println("   Time until event: " + hoursUntilEvent + " hours (" + minutesUntilEvent + " minutes)");
-
-            // Send reminders at specific intervals: 24h, 1h, 15min
-            boolean shouldSendReminder = false;
-            String reminderType = "";
-
-            if (hoursUntilEvent >= 23 && hoursUntilEvent <= 25) {
-                shouldSendReminder = true;
-                reminderType = "24 hours";
-            } else if (hoursUntilEvent >= 0 && hoursUntilEvent <= 1 && minutesUntilEvent > 15) {
-                shouldSendReminder = true;
-                reminderType = "1 hour";
-            } else if (minutesUntilEvent >= 10 && minutesUntilEvent <= 20) {
-                shouldSendReminder = true;
-                reminderType = "15 minutes";
+        for (ReminderType type : ReminderType.values()) {
+            ReminderKey key = new ReminderKey(eventId, type);
+            ScheduledReminder previous = scheduled.get(key);
+            if (previous != null && previous.startTime().equals(startTime)) {
+                continue;
             }
+            cancel(key);
 
-            if (!shouldSendReminder) {
-                System.out.println("   ⏭️ Skipping - Not in reminder window (24h, 1h, or 15min before)");
-                continue;
+            LocalDateTime fireAt = startTime.minus(type.getOffset());
+            if (!startTime.isAfter(now) || fireAt.isAfter(horizon)) {
+                continue; // Over, or a later refresh will pick it up
+            }
+            if (fireAt.isBefore(now)) {
+                // Missed (downtime, or the event was created late); only worth sending if still timely
+                if (Duration.between(fireAt, now).compareTo(type.getOffset().dividedBy(4)) > 0) {
+                    continue;
+                }
+                fireAt = now;
             }
 
-            System.out.println("   ✅ Sending " + reminderType + " reminder");
+            ScheduledReminder reminder = new ScheduledReminder(key, startTime, fireAt);
+            scheduled.put(key, reminder);
+            queue.add(reminder);
+        }
+    }
 
-            List<Registration> registrations = registrationRepository.findByEventIdWithUser(event.getId());
-            System.out.println("   Found " + registrations.size() + " registrations for event ID: " + event.getId());
+    // Called for events another node created, edited or deleted
+    public void reload(Collection<Long> eventIds) {
+        Set<Long> gone = new HashSet<>(eventIds);
+        for (Event event : eventRepository.findAllById(eventIds)) {
+            gone.remove(event.getId());
+            schedule(event.getId(), event.getStartTime());
+        }
+        gone.forEach(this::unschedule);
+    }
 
-            for (Registration reg : registrations) {
-                System.out.println("   - Registration ID: " + reg.getId() + ", Status: " + reg.getStatus());
+    // Called after an event is deleted
+    public void unschedule(Long eventId) {
+        for (ReminderType type : ReminderType.values()) {
+            cancel(new ReminderKey(eventId, type));
+        }
+    }
+
+    private void cancel(ReminderKey key) {
+        ScheduledReminder previous = scheduled.remove(key);
+        if (previous != null) {
+            queue.remove(previous);
+        }
+    }
 
-                if (reg.getUser() != null && reg.getUser().getEmail() != null) {
-                    System.out.println("📨 Sending reminder to: " + reg.getUser().getEmail());
-                    notificationService.sendEmail(
-                            reg.getUser().getEmail(),
-                            "Reminder: " + event.getTitle() + " is coming up!",
-                            "Don't forget! " + event.getTitle() + " starts at " + event.getStartTime() +
-                                    " (in approximately " + reminderType + ").\n\nVenue: " + event.getVenue() +
-                                    "\n\nSee you there!");
-                } else {
-                    System.out.println("   ⚠️ Skipping - User or email is null");
+    private void runScheduler() {
+        while (running) {
+            try {
+                ScheduledReminder reminder = queue.take();
+                if (scheduled.remove(reminder.key(), reminder)) {
+                    fire(reminder);
                 }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Reminder dispatch failed", e);
             }
         }
     }
+
+    // reminders.dispatch (by type and outcome) and reminders.recipients (by type)
+    private void fire(ScheduledReminder reminder) {
+        String type = reminder.key().type().getLabel();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            Integer recipients = transactionTemplate.execute(status -> sendReminder(reminder));
+            if (recipients != null) {
+                outcome = "sent";
+                meterRegistry.summary("reminders.recipients", "type", type).record(recipients);
+                log.info("Sent {} reminder for event {} to {} recipients", type, reminder.key().eventId(), recipients);
+            } else {
+                outcome = "skipped";
+            }
+        } catch (DataIntegrityViolationException e) {
+            outcome = "duplicate";
+            log.info("{} reminder for event {} was already sent", type, reminder.key().eventId());
+        } finally {
+            sample.stop(meterRegistry.timer("reminders.dispatch", "type", type, "outcome", outcome));
+        }
+    }
+
+    // Returns the number of recipients, or null if the event is gone or has moved
+    private Integer sendReminder(ScheduledReminder reminder) {
+        Event event = eventRepository.findById(reminder.key().eventId()).orElse(null);
+        if (event == null || !sameMinute(event.getStartTime(), reminder.startTime())) {
+            return null;
+        }
+
+        // Claim first: a duplicate key aborts the transaction before any mail is queued
+        ReminderSent claim = reminderSentRepository.saveAndFlush(ReminderSent.builder()
+                .eventId(event.getId())
+                .reminderType(reminder.key().type())
+                .eventStartTime(event.getStartTime())
+                .build());
+
+        String label = reminder.key().type().getLabel();
+        int recipients = notificationService.emailRegistrants(
+                event.getId(),
+                "Reminder: " + event.getTitle() + " is coming up!",
+                recipient -> "Don't forget! " + event.getTitle() + " starts at " + event.getStartTime() +
+                        " (in approximately " + label + ").\n\nVenue: " + event.getVenue() +
+                        "\n\nSee you there!");
+        claim.setRecipientCount(recipients);
+        return recipients;
+    }
+
+    private static boolean sameMinute(LocalDateTime a, LocalDateTime b) {
+        return a.truncatedTo(ChronoUnit.MINUTES).equals(b.truncatedTo(ChronoUnit.MINUTES));
+    }
+
+    private record ReminderKey(Long eventId, ReminderType type) {
+    }
+
+    private record ScheduledReminder(ReminderKey key, LocalDateTime startTime, LocalDateTime fireAt)
+            implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            long fireAtMillis = fireAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            return unit.convert(fireAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return fireAt.compareTo(((ScheduledReminder) other).fireAt);
+        }
+    }
 }
@@ -0,0 +1,97 @@
+package in.raghuenggcollege.events.service;
+
+import in.raghuenggcollege.events.entity.Event;
+import in.raghuenggcollege.events.repository.EventRepository;
+import in.raghuenggcollege.events.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// CONFIRMED seats per event. events.confirmed_count is the ledger: a seat is
+// claimed by a conditional UPDATE against the capacity, so the decision holds
+// across threads, replicas and cache evictions, and rolls back with the
+// surrounding transaction. Must be called inside that transaction.
+// When a claim finds the event full, that is remembered for a short while so
+// the rest of a registration spike skips the UPDATE (and the row lock) and goes
+// straight to the waitlist. A seat released on this node clears the mark; one
+// released elsewhere is seen once the mark expires.
+@Component
+@RequiredArgsConstructor
+public class SeatLedger {
+
+    private final EventRepository eventRepository;
+
+    @Value("${registration.full-hint-ms:500}")
+    private long fullHintMs;
+
+    // eventId -> System.nanoTime() until which the event is treated as full
+    private final ConcurrentHashMap<Long, Long> fullUntil = new ConcurrentHashMap<>();
+
+    // Claims one seat if the event still has room
+    public boolean tryReserve(Event event) {
+        if (surelyFull(event.getId())) {
+            return false;
+        }
+        if (eventRepository.claimSeat(event.getId()) == 0) {
+            markFull(event.getId());
+            return false;
+        }
+        event.setAttendeeCount(event.getAttendeeCount() + 1);
+        return true;
+    }
+
+    // Claims as many of the wanted seats as the event has room for; returns how
+    // many were claimed. Locks the event row until the transaction ends.
+    public int tryReserveUpTo(Event event, int wanted) {
+        int granted = (int) Math.min(wanted, eventRepository.lockFreeSeats(event.getId()));
+        if (granted <= 0) {
+            markFull(event.getId());
+            return 0;
+        }
+        adjust(event, granted);
+        return granted;
+    }
+
+    // Gives a CONFIRMED seat back, e.g. when a registration is cancelled
+    public void release(Event event) {
+        release(event, 1);
+    }
+
+    public void release(Event event, int count) {
+        adjust(event, -count);
+        TransactionHooks.afterCommit(() -> fullUntil.remove(event.getId()));
+    }
+
+    // Forgets the "full" mark; the seat counts themselves live in the database
+    public void evict(Long eventId) {
+        fullUntil.remove(eventId);
+    }
+
+    public void evictAll() {
+        fullUntil.clear();
+    }
+
+    private void adjust(Event event, int delta) {
+        eventRepository.adjustConfirmedCount(event.getId(), delta);
+        event.setAttendeeCount(event.getAttendeeCount() + delta);
+    }
+
+    private boolean surelyFull(Long eventId) {
+        Long until = fullUntil.get(eventId);
+        if (until == null) {
+            return false;
+        }
+        if (System.nanoTime() - until < 0) {
+            return true;
+        }
+        fullUntil.remove(eventId, until);
+        return false;
+    }
+
+    private void markFull(Long eventId) {
+        fullUntil.put(eventId, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(fullHintMs));
+    }
+}
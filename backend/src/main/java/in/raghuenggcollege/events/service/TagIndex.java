@@ -0,0 +1,281 @@
+package in.raghuenggcollege.events.service;
+
+import in.raghuenggcollege.events.entity.Event;
+import in.raghuenggcollege.events.entity.EventTag;
+import in.raghuenggcollege.events.repository.EventRepository;
+import in.raghuenggcollege.events.repository.EventTagRepository;
+import in.raghuenggcollege.events.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Keeps the event_tags table in sync with Event.tags and mirrors it as an
+// in-memory inverted index: tag -> sorted array of event ids. Posting arrays are
+// never modified in place, so readers need no locking.
+@Service
+@RequiredArgsConstructor
+@lombok.extern.slf4j.Slf4j
+public class TagIndex {
+
+    private static final int MAX_TAG_LENGTH = 64;
+    private static final long[] NO_EVENTS = new long[0];
+    private static final int RELOAD_CHUNK = 1000;
+
+    private final EventTagRepository eventTagRepository;
+    private final EventRepository eventRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ConcurrentHashMap<String, long[]> postings = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, IndexedEvent> indexedEvents = new ConcurrentHashMap<>();
+    private volatile boolean built;
+
+    // "AI, ML , ai" -> [ai, ml]
+    public static List<String> parse(String tags) {
+        if (tags == null || tags.isBlank()) {
+            return List.of();
+        }
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String tag : tags.split(",")) {
+            String cleaned = normalize(tag);
+            if (!cleaned.isEmpty()) {
+                normalized.add(cleaned);
+            }
+        }
+        return new ArrayList<>(normalized);
+    }
+
+    public static String normalize(String tag) {
+        String cleaned = tag.trim().toLowerCase(Locale.ROOT);
+        return cleaned.length() > MAX_TAG_LENGTH ? cleaned.substring(0, MAX_TAG_LENGTH) : cleaned;
+    }
+
+    // Rewrites the event's tag rows; the in-memory index follows after commit
+    public void saveTags(Event event) {
+        List<String> tags = parse(event.getTags());
+        eventTagRepository.deleteByEventId(event.getId());
+        eventTagRepository.saveAll(tags.stream()
+                .map(tag -> EventTag.builder().eventId(event.getId()).tag(tag).build())
+                .toList());
+
+        Long eventId = event.getId();
+        LocalDateTime startTime = event.getStartTime();
+        TransactionHooks.afterCommit(() -> index(eventId, tags, startTime));
+    }
+
+    // Tag rows for freshly inserted events, written as one JDBC batch; the
+    // in-memory index takes the whole batch in one merge per tag after commit
+    public void insertTags(List<Event> events) {
+        Map<Long, IndexedEvent> batch = writeTagRows(events);
+        TransactionHooks.afterCommit(() -> indexAll(batch));
+    }
+
+    private Map<Long, IndexedEvent> writeTagRows(List<Event> events) {
+        Map<Long, IndexedEvent> batch = new HashMap<>();
+        List<Object[]> rows = new ArrayList<>();
+        for (Event event : events) {
+            List<String> tags = parse(event.getTags());
+            tags.forEach(tag -> rows.add(new Object[] { event.getId(), tag }));
+            batch.put(event.getId(), new IndexedEvent(List.copyOf(tags), event.getStartTime()));
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO event_tags (event_id, tag) VALUES (?, ?)", rows);
+        }
+        return batch;
+    }
+
+    public void deleteTags(Long eventId) {
+        eventTagRepository.deleteByEventId(eventId);
+        TransactionHooks.afterCommit(() -> unindex(eventId));
+    }
+
+    // False until the startup rebuild has loaded every event; searches join event_tags until then
+    public boolean isBuilt() {
+        return built;
+    }
+
+    // Ids of events carrying all of allTags and at least one of anyTags; either may be empty
+    public long[] matching(Collection<String> allTags, Collection<String> anyTags) {
+        if (allTags.isEmpty()) {
+            return anyOf(anyTags);
+        }
+        long[] ids = allOf(allTags);
+        return anyTags.isEmpty() ? ids : intersect(ids, anyOf(anyTags));
+    }
+
+    // Ids of events carrying every one of the tags
+    public long[] allOf(Collection<String> tags) {
+        long[] result = null;
+        for (String tag : tags) {
+            long[] ids = postings.getOrDefault(normalize(tag), NO_EVENTS);
+            result = (result == null) ? ids : intersect(result, ids);
+            if (result.length == 0) {
+                break;
+            }
+        }
+        return result == null ? NO_EVENTS : result;
+    }
+
+    // Ids of events carrying at least one of the tags
+    public long[] anyOf(Collection<String> tags) {
+        long[] result = NO_EVENTS;
+        for (String tag : tags) {
+            result = union(result, postings.getOrDefault(normalize(tag), NO_EVENTS));
+        }
+        return result;
+    }
+
+    // Tag -> number of events starting at or after the given time, most used first
+    public Map<String, Integer> facetCounts(LocalDateTime from) {
+        List<Map.Entry<String, Integer>> counts = new ArrayList<>();
+        postings.forEach((tag, ids) -> {
+            int count = 0;
+            for (long id : ids) {
+                IndexedEvent indexed = indexedEvents.get(id);
+                if (indexed != null && !indexed.startTime().isBefore(from)) {
+                    count++;
+                }
+            }
+            if (count > 0) {
+                counts.add(Map.entry(tag, count));
+            }
+        });
+        counts.sort(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+
+        Map<String, Integer> facets = new LinkedHashMap<>();
+        counts.forEach(entry -> facets.put(entry.getKey(), entry.getValue()));
+        return facets;
+    }
+
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (eventTagRepository.count() == 0 && eventRepository.count() > 0) {
+            // First start after the event_tags table was introduced, or events
+            // inserted without their tag rows (DataSeeder); one batch, indexed below
+            writeTagRows(eventRepository.findAll());
+        }
+
+        indexAll(toIndexedEvents(eventTagRepository.findAllWithStartTime()));
+        built = true;
+        log.info("Tag index built: {} tags over {} events", postings.size(), indexedEvents.size());
+    }
+
+    // Re-reads the tags of events changed on another node; events that are gone
+    // or have no tags any more drop out of the index
+    public void reload(Collection<Long> eventIds) {
+        Map<Long, IndexedEvent> events = new HashMap<>();
+        List<Long> ids = new ArrayList<>(eventIds);
+        for (int from = 0; from < ids.size(); from += RELOAD_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + RELOAD_CHUNK, ids.size()));
+            events.putAll(toIndexedEvents(eventTagRepository.findWithStartTimeByEventIds(chunk)));
+        }
+        synchronized (this) {
+            eventIds.stream().filter(id -> !events.containsKey(id)).forEach(this::unindex);
+            indexAll(events);
+        }
+    }
+
+    private static Map<Long, IndexedEvent> toIndexedEvents(List<Object[]> rows) {
+        Map<Long, List<String>> tagsByEvent = new HashMap<>();
+        Map<Long, LocalDateTime> startTimes = new HashMap<>();
+        for (Object[] row : rows) {
+            Long eventId = (Long) row[0];
+            tagsByEvent.computeIfAbsent(eventId, id -> new ArrayList<>()).add((String) row[1]);
+            startTimes.put(eventId, (LocalDateTime) row[2]);
+        }
+        Map<Long, IndexedEvent> events = new HashMap<>();
+        tagsByEvent.forEach((eventId, tags) -> events.put(eventId, new IndexedEvent(tags, startTimes.get(eventId))));
+        return events;
+    }
+
+    private synchronized void index(Long eventId, List<String> tags, LocalDateTime startTime) {
+        unindex(eventId);
+        for (String tag : tags) {
+            postings.merge(tag, new long[] { eventId }, TagIndex::union);
+        }
+        indexedEvents.put(eventId, new IndexedEvent(List.copyOf(tags), startTime));
+    }
+
+    // Same as index() for many events, but each posting array is rebuilt once
+    // instead of once per event
+    private synchronized void indexAll(Map<Long, IndexedEvent> events) {
+        Map<String, List<Long>> additions = new HashMap<>();
+        events.forEach((eventId, indexed) -> {
+            unindex(eventId);
+            indexed.tags().forEach(tag -> additions.computeIfAbsent(tag, t -> new ArrayList<>()).add(eventId));
+            indexedEvents.put(eventId, new IndexedEvent(List.copyOf(indexed.tags()), indexed.startTime()));
+        });
+        additions.forEach((tag, ids) -> {
+            long[] sorted = ids.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+            postings.merge(tag, sorted, TagIndex::union);
+        });
+    }
+
+    private synchronized void unindex(Long eventId) {
+        IndexedEvent previous = indexedEvents.remove(eventId);
+        if (previous == null) {
+            return;
+        }
+        for (String tag : previous.tags()) {
+            postings.computeIfPresent(tag, (key, ids) -> {
+                long[] remaining = remove(ids, eventId);
+                return remaining.length == 0 ? null : remaining;
+            });
+        }
+    }
+
+    private static long[] intersect(long[] a, long[] b) {
+        long[] out = new long[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static long[] union(long[] a, long[] b) {
+        long[] out = new long[a.length + b.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length || j < b.length) {
+            if (j == b.length || (i < a.length && a[i] < b[j])) {
+                out[n++] = a[i++];
+            } else if (i == a.length || b[j] < a[i]) {
+                out[n++] = b[j++];
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static long[] remove(long[] ids, long id) {
+        int position = Arrays.binarySearch(ids, id);
+        if (position < 0) {
+            return ids;
+        }
+        long[] out = new long[ids.length - 1];
+        System.arraycopy(ids, 0, out, 0, position);
+        System.arraycopy(ids, position + 1, out, position, ids.length - position - 1);
+        return out;
+    }
+
+    private record IndexedEvent(List<String> tags, LocalDateTime startTime) {
+    }
+}
@@ -0,0 +1,174 @@
+package in.raghuenggcollege.events.service;
+
+import in.raghuenggcollege.events.entity.TokenRevocation;
+import in.raghuenggcollege.events.repository.TokenRevocationRepository;
+import in.raghuenggcollege.events.util.BloomFilter;
+import in.raghuenggcollege.events.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Revoked JWTs, checked on every authenticated request without touching the
+// database. Single tokens (logout) go into a bloom filter by jti; whole users
+// (logout everywhere, role or password changes) get a cut-off time, and
+// tokens issued at or before it are refused. Entries only need to outlive the
+// tokens they block, so the filter rotates every jwt.expiration: a jti sits in
+// the current filter, then the previous one, then is dropped. A bloom false
+// positive (about 1 in auth.revocation.false-positive-rate) only means that
+// user has to sign in again.
+// Every revocation is also written to token_revocations. Each node loads the
+// live rows at startup and polls for new ones, so a logout on one node reaches
+// the others within auth.revocation.poll-interval-ms and survives restarts.
+@Component
+@RequiredArgsConstructor
+@lombok.extern.slf4j.Slf4j
+public class TokenRevocationList {
+
+    // Polls re-read this far back, to pick up rows whose transaction committed
+    // after the previous poll and to absorb clock drift between nodes
+    private static final long POLL_OVERLAP_SECONDS = 30;
+    // revoked_before values below this are epoch seconds, from before cut-offs moved to millis
+    private static final long FIRST_MILLIS_CUT_OFF = 100_000_000_000L;
+
+    private final JwtUtil jwtUtil;
+    private final TokenRevocationRepository revocationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${auth.revocation.expected-per-period:100000}")
+    private int expectedPerPeriod;
+
+    @Value("${auth.revocation.false-positive-rate:0.0001}")
+    private double falsePositiveRate;
+
+    private volatile BloomFilter current;
+    private volatile BloomFilter previous;
+    private final ConcurrentHashMap<String, Long> revokedBefore = new ConcurrentHashMap<>(); // Epoch millis
+    private volatile LocalDateTime polledUpTo;
+
+    @PostConstruct
+    public void init() {
+        current = newFilter();
+        previous = newFilter();
+        // Nothing created longer than a token lifetime ago can still be live
+        LocalDateTime now = LocalDateTime.now();
+        int loaded = apply(revocationRepository.findActiveSince(
+                now.minusSeconds(jwtUtil.getExpirationMillis() / 1000), now));
+        polledUpTo = now;
+        log.info("Token revocation filters: 2 x {} KB, {} revocations loaded", current.sizeInBytes() / 1024, loaded);
+    }
+
+    // Revokes one token; a no-op for tokens issued without a jti
+    public void revoke(Claims claims) {
+        if (claims.getId() == null) {
+            return;
+        }
+        Date expiration = claims.getExpiration();
+        revocationRepository.save(TokenRevocation.builder()
+                .email(claims.getSubject())
+                .jti(claims.getId())
+                .expiresAt(expiration != null
+                        ? LocalDateTime.ofInstant(expiration.toInstant(), ZoneId.systemDefault())
+                        : tokenLifetimeFrom(System.currentTimeMillis()))
+                .build());
+        current.add(claims.getId());
+        meterRegistry.counter("auth.tokens.revoked", "scope", "token").increment();
+    }
+
+    // Revokes every token the user holds right now; new logins are unaffected
+    public void revokeAll(String email) {
+        long now = System.currentTimeMillis();
+        revocationRepository.save(TokenRevocation.builder()
+                .email(email)
+                .revokedBefore(now)
+                .expiresAt(tokenLifetimeFrom(now))
+                .build());
+        revokedBefore.merge(email, now, Math::max);
+        meterRegistry.counter("auth.tokens.revoked", "scope", "user").increment();
+    }
+
+    public boolean isRevoked(Claims claims) {
+        String jti = claims.getId();
+        if (jti != null && (current.mightContain(jti) || previous.mightContain(jti))) {
+            return true;
+        }
+        Long cutOff = revokedBefore.get(claims.getSubject());
+        if (cutOff == null) {
+            return false;
+        }
+        // A sign-in right after the revocation must work, even within the same second
+        Long issuedAtMillis = claims.get(JwtUtil.ISSUED_AT_MILLIS, Long.class);
+        if (issuedAtMillis != null) {
+            return issuedAtMillis <= cutOff;
+        }
+        // Tokens issued before iat_ms existed: iat has whole seconds, so the cut-off's second counts as revoked
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt == null || issuedAt.getTime() / 1000 <= cutOff / 1000;
+    }
+
+    // Picks up revocations made on other nodes
+    @Scheduled(fixedDelayString = "${auth.revocation.poll-interval-ms:5000}",
+            initialDelayString = "${auth.revocation.poll-interval-ms:5000}")
+    public void poll() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            apply(revocationRepository.findActiveSince(polledUpTo.minusSeconds(POLL_OVERLAP_SECONDS), now));
+            polledUpTo = now;
+        } catch (DataAccessException e) {
+            log.warn("Could not poll token revocations, retrying next time: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.expiration:86400000}", initialDelayString = "${jwt.expiration:86400000}")
+    public void rotate() {
+        previous = current;
+        current = newFilter();
+        long expiredBefore = System.currentTimeMillis() - jwtUtil.getExpirationMillis();
+        revokedBefore.values().removeIf(cutOff -> cutOff < expiredBefore);
+        try {
+            Integer purged = transactionTemplate.execute(status ->
+                    revocationRepository.deleteExpired(LocalDateTime.now()));
+            log.debug("Purged {} expired token revocations", purged);
+        } catch (DataAccessException e) {
+            log.warn("Could not purge expired token revocations: {}", e.getMessage());
+        }
+    }
+
+    // Applying a row twice is harmless, which is what lets polls overlap
+    private int apply(List<TokenRevocation> revocations) {
+        for (TokenRevocation revocation : revocations) {
+            if (revocation.getJti() != null) {
+                current.add(revocation.getJti());
+            } else if (revocation.getRevokedBefore() != null) {
+                long cutOff = revocation.getRevokedBefore();
+                if (cutOff < FIRST_MILLIS_CUT_OFF) {
+                    cutOff = cutOff * 1000 + 999; // The whole second, as it was compared before
+                }
+                revokedBefore.merge(revocation.getEmail(), cutOff, Math::max);
+            }
+        }
+        return revocations.size();
+    }
+
+    private LocalDateTime tokenLifetimeFrom(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis + jwtUtil.getExpirationMillis()),
+                ZoneId.systemDefault());
+    }
+
+    private BloomFilter newFilter() {
+        return new BloomFilter(expectedPerPeriod, falsePositiveRate);
+    }
+}
@@ -0,0 +1,106 @@
+package in.raghuenggcollege.events.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import in.raghuenggcollege.events.entity.Event;
+import in.raghuenggcollege.events.repository.EventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Read-through cache for the public upcoming-events listing. The view is kept
+// as pre-serialized JSON and lives until the first listed event starts or the
+// time bucket ends (which bounds how stale attendee counts can get), whichever
+// comes first. Event writes invalidate it explicitly.
+@Component
+@RequiredArgsConstructor
+@lombok.extern.slf4j.Slf4j
+public class UpcomingEventsCache {
+
+    private final EventRepository eventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${events.cache.bucket-seconds:30}")
+    private long bucketSeconds;
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final Object loadLock = new Object();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public byte[] get() {
+        LocalDateTime now = LocalDateTime.now();
+        Snapshot snapshot = current.get();
+        if (snapshot != null && now.isBefore(snapshot.validUntil())) {
+            hits.incrementAndGet();
+            return snapshot.json();
+        }
+
+        // Only one thread rebuilds the view, the rest wait and reuse it
+        synchronized (loadLock) {
+            snapshot = current.get();
+            if (snapshot != null && now.isBefore(snapshot.validUntil())) {
+                hits.incrementAndGet();
+                return snapshot.json();
+            }
+            if (snapshot != null) {
+                evictions.incrementAndGet();
+            }
+            misses.incrementAndGet();
+
+            long loadedGeneration = generation.get();
+            Snapshot loaded = load(LocalDateTime.now());
+            // An invalidation that raced with the load wins; serve the result but don't keep it
+            if (generation.get() == loadedGeneration) {
+                current.set(loaded);
+            }
+            return loaded.json();
+        }
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        if (current.getAndSet(null) != null) {
+            evictions.incrementAndGet();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    private Snapshot load(LocalDateTime now) {
+        List<Event> events = eventRepository.findByStartTimeAfterOrderByStartTimeAsc(now);
+
+        // The list is ordered by start time, so it changes shape when the first event starts
+        LocalDateTime validUntil = now.plusSeconds(bucketSeconds);
+        if (!events.isEmpty() && events.get(0).getStartTime().isBefore(validUntil)) {
+            validUntil = events.get(0).getStartTime();
+        }
+
+        try {
+            return new Snapshot(objectMapper.writeValueAsBytes(events), validUntil);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize events: " + e.getMessage(), e);
+        }
+    }
+
+    private record Snapshot(byte[] json, LocalDateTime validUntil) {
+    }
+}
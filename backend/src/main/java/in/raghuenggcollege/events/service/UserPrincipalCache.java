@@ -0,0 +1,59 @@
+package in.raghuenggcollege.events.service;
+
+import in.raghuenggcollege.events.entity.User;
+import in.raghuenggcollege.events.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Short-lived cache of the users behind JWTs, so authenticated requests don't
+// re-read the users table. Anything that changes a user's role, department or
+// verification must call evict().
+@Component
+@RequiredArgsConstructor
+public class UserPrincipalCache {
+
+    private final UserRepository userRepository;
+
+    @Value("${auth.principal-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${auth.principal-cache.max-size:10000}")
+    private int maxSize;
+
+    private final ConcurrentHashMap<String, CachedUser> cache = new ConcurrentHashMap<>();
+
+    public User load(String email) {
+        long now = System.nanoTime();
+        CachedUser cached = cache.get(email);
+        if (cached != null && now - cached.expiresAt() < 0) {
+            return cached.user();
+        }
+
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        if (cache.size() >= maxSize) {
+            makeRoom(now);
+        }
+        cache.put(email, new CachedUser(user, now + TimeUnit.SECONDS.toNanos(ttlSeconds)));
+        return user;
+    }
+
+    public void evict(String email) {
+        cache.remove(email);
+    }
+
+    private void makeRoom(long now) {
+        cache.values().removeIf(cached -> now - cached.expiresAt() >= 0);
+        if (cache.size() >= maxSize) {
+            cache.clear();
+        }
+    }
+
+    private record CachedUser(User user, long expiresAt) {
+    }
+}
@@ -0,0 +1,90 @@
+package in.raghuenggcollege.events.service;
+
+import in.raghuenggcollege.events.dto.Recipient;
+import in.raghuenggcollege.events.entity.Event;
+import in.raghuenggcollege.events.entity.InvalidationScope;
+import in.raghuenggcollege.events.entity.RegistrationStatus;
+import in.raghuenggcollege.events.repository.RegistrationRepository;
+import in.raghuenggcollege.events.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Promotes waitlisted registrations into free seats. The waitlist itself is
+// the registrations table in (registered_at, id) order, read through the
+// (event_id, status, registered_at) index, so every node promotes the same
+// people in the same order whoever registered them. Free seats are filled in
+// bulk: one lock, one UPDATE and one outbox batch for however many people move up.
+@Service
+@RequiredArgsConstructor
+@lombok.extern.slf4j.Slf4j
+public class WaitlistEngine {
+
+    private static final int PROMOTE_BATCH = 100;
+
+    private final RegistrationRepository registrationRepository;
+    private final SeatLedger seatLedger;
+    private final NotificationService notificationService;
+    private final MyRegistrationsCache myRegistrationsCache;
+    private final ClusterInvalidations clusterInvalidations;
+
+    // Moves as many waitlisted registrations to CONFIRMED as the event has free
+    // seats for, oldest first. Must run inside the caller's transaction; returns
+    // how many were promoted.
+    public int promote(Event event) {
+        Long eventId = event.getId();
+        List<Long> promoted = new ArrayList<>();
+        while (true) {
+            // Only sizes the seat claim; the locked read below decides who moves up
+            int waiting = registrationRepository.findIdsByEventAndStatus(eventId, RegistrationStatus.WAITLIST,
+                    PageRequest.of(0, PROMOTE_BATCH)).size();
+            if (waiting == 0) {
+                break;
+            }
+            int granted = seatLedger.tryReserveUpTo(event, waiting);
+            if (granted == 0) {
+                break;
+            }
+
+            // The event row is locked now, so no other promotion for this event can
+            // run; a locking read sees every committed waitlister, from any node
+            List<Long> head = registrationRepository.lockIdsByEventAndStatus(eventId, RegistrationStatus.WAITLIST,
+                    PageRequest.of(0, granted));
+            if (head.size() < granted) {
+                seatLedger.release(event, granted - head.size());
+            }
+            if (!head.isEmpty()) {
+                registrationRepository.updateStatus(head, RegistrationStatus.WAITLIST,
+                        RegistrationStatus.CONFIRMED, LocalDateTime.now());
+                promoted.addAll(head);
+            }
+            if (head.size() < granted || granted < waiting) {
+                break; // Out of waitlisters or out of seats
+            }
+        }
+
+        if (!promoted.isEmpty()) {
+            List<Recipient> recipients = registrationRepository.findRecipientsByIds(promoted);
+            TransactionHooks.afterCommit(() -> recipients.forEach(r -> myRegistrationsCache.evict(r.email())));
+            clusterInvalidations.publishAll(InvalidationScope.USER_REGISTRATIONS,
+                    recipients.stream().map(Recipient::email).toList());
+            notifyPromoted(event, recipients);
+            log.info("Promoted {} waitlisted registrations for event {}", promoted.size(), eventId);
+        }
+        return promoted.size();
+    }
+
+    private void notifyPromoted(Event event, List<Recipient> recipients) {
+        notificationService.emailRecipients(recipients,
+                "Registration Confirmed: " + event.getTitle(),
+                recipient -> "Hello " + recipient.fullName() + ",\n\n" +
+                        "A seat opened up and you have been moved off the waitlist for " + event.getTitle() + ".\n" +
+                        "Venue: " + event.getVenue() + "\n" +
+                        "Time: " + event.getStartTime() + "\n\n" +
+                        "See you there!");
+    }
+}
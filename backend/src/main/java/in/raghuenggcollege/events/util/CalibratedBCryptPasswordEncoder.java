@@ -0,0 +1,54 @@
+package in.raghuenggcollege.events.util;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// BCrypt at a cost chosen for this hardware. A stored hash with a lower cost is
+// reported as needing an upgrade, so DaoAuthenticationProvider rehashes it on
+// the user's next successful login. Higher costs are left alone: replicas that
+// calibrate differently would otherwise rehash each other's hashes back and
+// forth, and a cheaper hash is never an upgrade.
+public class CalibratedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Pattern BCRYPT_HASH = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+    private static final String SAMPLE_PASSWORD = "calibration-Passw0rd!";
+    private static final int SAMPLES = 3;
+
+    private final int strength;
+
+    public CalibratedBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    // Each extra cost step doubles the work, so time a few hashes at minStrength
+    // and pick the cost whose estimated time is nearest the target
+    public static CalibratedBCryptPasswordEncoder calibrate(long targetMillis, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        probe.encode(SAMPLE_PASSWORD); // Warm-up
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            probe.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double millisAtMin = best / 1_000_000.0;
+        int steps = (int) Math.round(Math.log(targetMillis / millisAtMin) / Math.log(2));
+        return new CalibratedBCryptPasswordEncoder(Math.max(minStrength, Math.min(maxStrength, minStrength + steps)));
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_HASH.matcher(encodedPassword);
+        return matcher.matches() && Integer.parseInt(matcher.group(1)) < strength;
+    }
+}
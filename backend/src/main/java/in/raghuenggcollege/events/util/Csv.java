@@ -0,0 +1,127 @@
+package in.raghuenggcollege.events.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// RFC 4180 CSV: comma separated, fields optionally quoted, "" inside quotes
+// for a literal quote, quoted fields may span lines
+public final class Csv {
+
+    private Csv() {
+    }
+
+    // Quotes the value only if it needs it; null becomes an empty field
+    public static String escape(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return "\"" + text.replace("\"", "\"\"") + "\"";
+    }
+
+    public static String line(Object... values) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            line.append(escape(values[i]));
+        }
+        return line.append('\n').toString();
+    }
+
+    // Reads one record at a time, so input of any size streams through
+    public static class Reader {
+
+        private final java.io.Reader in;
+        private long line = 1;
+        private long recordLine;
+        private int pending = -2; // -2 = nothing pushed back
+
+        public Reader(java.io.Reader in) {
+            this.in = in;
+        }
+
+        // Line number the last record started on
+        public long getRecordLine() {
+            return recordLine;
+        }
+
+        // Next record's fields, or null at end of input
+        public List<String> readRecord() throws IOException {
+            int c = read();
+            while (c == '\r' || c == '\n') { // Skip blank lines
+                c = read();
+            }
+            if (c == -1) {
+                return null;
+            }
+            recordLine = line;
+
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IOException("Unterminated quoted field starting on line " + recordLine);
+                    }
+                    if (c == '"') {
+                        int next = read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            c = next;
+                            continue;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == '\r' || c == -1) {
+                    if (c == '\r') {
+                        int next = read();
+                        if (next != '\n') {
+                            unread(next);
+                        }
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private int read() throws IOException {
+            int c;
+            if (pending != -2) {
+                c = pending;
+                pending = -2;
+            } else {
+                c = in.read();
+            }
+            if (c == '\n') {
+                line++;
+            }
+            return c;
+        }
+
+        private void unread(int c) {
+            if (c == '\n') {
+                line--;
+            }
+            pending = c;
+        }
+    }
+}
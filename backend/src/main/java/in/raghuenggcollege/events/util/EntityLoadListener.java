@@ -0,0 +1,10 @@
+package in.raghuenggcollege.events.util;
+
+// Default entity listener (see META-INF/orm.xml), called for every entity
+// Hibernate materializes
+public class EntityLoadListener {
+
+    public void postLoad(Object entity) {
+        SqlStatementCounter.entityLoaded();
+    }
+}
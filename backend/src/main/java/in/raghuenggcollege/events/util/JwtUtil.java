@@ -1,9 +1,11 @@
 package in.raghuenggcollege.events.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -12,11 +14,15 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
+    // Issue time in epoch millis; the standard iat claim only has whole seconds
+    public static final String ISSUED_AT_MILLIS = "iat_ms";
+
     // In production, this should be in environment variables
     @Value("${jwt.secret:your_very_secure_secret_key_which_should_be_long_enough_for_hs256_algorithm}")
     private String secret;
@@ -24,8 +30,20 @@ public class JwtUtil {
     @Value("${jwt.expiration:86400000}") // 24 hours
     private long jwtExpiration;
 
-    private Key getSignInKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    // Built once; both are immutable and safe to share between threads
+    private Key signInKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    public void init() {
+        signInKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signInKey)
+                .build();
+    }
+
+    public long getExpirationMillis() {
+        return jwtExpiration;
     }
 
     public String extractUsername(String token) {
@@ -38,11 +56,7 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -53,26 +67,31 @@ public class JwtUtil {
         return buildToken(extraClaims, userDetails, jwtExpiration);
     }
 
+    // Every token gets a random id (jti) so it can be revoked on its own
     private String buildToken(Map<String, Object> extraClaims, UserDetails userDetails, long expiration) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .setClaims(extraClaims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .setIssuedAt(new Date(now))
+                .claim(ISSUED_AT_MILLIS, now)
+                .setExpiration(new Date(now + expiration))
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+    // Verifies the signature and expiry once; read every claim from the result.
+    // Throws JwtException if the token is malformed, forged or expired.
+    public Claims parseToken(String token) {
+        return extractAllClaims(token);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean isTokenValid(String token, UserDetails userDetails) {
+        return isTokenValid(extractAllClaims(token), userDetails);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date());
     }
 }
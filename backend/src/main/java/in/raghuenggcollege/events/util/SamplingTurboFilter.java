@@ -0,0 +1,49 @@
+package in.raghuenggcollege.events.util;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Lets through roughly one in oneIn INFO/DEBUG/TRACE events from loggers under
+// category; WARN and ERROR always pass. Configured per category in
+// logback-spring.xml for chatty per-request loggers. Sampling is random rather
+// than counted so request threads never contend on a shared counter.
+public class SamplingTurboFilter extends TurboFilter {
+
+    private String category = "";
+    private int oneIn = 1;
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public void setOneIn(int oneIn) {
+        this.oneIn = oneIn;
+    }
+
+    @Override
+    public void start() {
+        if (oneIn < 1) {
+            addError("oneIn must be at least 1 for category " + category);
+            return;
+        }
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format is null for isXxxEnabled() guards; only sample the actual events
+        if (oneIn == 1 || format == null || level.isGreaterOrEqual(Level.WARN)
+                || !logger.getName().startsWith(category)) {
+            return FilterReply.NEUTRAL;
+        }
+        if (!level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL; // Disabled anyway; leave it to the level check
+        }
+        return ThreadLocalRandom.current().nextInt(oneIn) == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
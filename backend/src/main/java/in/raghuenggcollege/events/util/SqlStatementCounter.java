@@ -0,0 +1,45 @@
+package in.raghuenggcollege.events.util;
+
+// Per-thread running totals of the SQL Hibernate executed and the entities it
+// loaded. Nothing is ever reset: callers take a snapshot before and after the
+// work they want to measure and look at the difference, which keeps nested
+// measurements (request > service > service) independent of each other.
+//
+// Statements run through JdbcTemplate bypass Hibernate and are not counted.
+// Tests assert on these counts through SqlStatementAssertions.
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<Counters> COUNTERS = ThreadLocal.withInitial(Counters::new);
+
+    private SqlStatementCounter() {
+    }
+
+    private static final class Counters {
+        long statements;
+        long nanos;
+        long entitiesLoaded;
+    }
+
+    public record Snapshot(long statements, long nanos, long entitiesLoaded) {
+
+        public Snapshot since(Snapshot earlier) {
+            return new Snapshot(statements - earlier.statements, nanos - earlier.nanos,
+                    entitiesLoaded - earlier.entitiesLoaded);
+        }
+    }
+
+    public static Snapshot snapshot() {
+        Counters counters = COUNTERS.get();
+        return new Snapshot(counters.statements, counters.nanos, counters.entitiesLoaded);
+    }
+
+    static void statementExecuted(long nanos) {
+        Counters counters = COUNTERS.get();
+        counters.statements++;
+        counters.nanos += nanos;
+    }
+
+    static void entityLoaded() {
+        COUNTERS.get().entitiesLoaded++;
+    }
+}
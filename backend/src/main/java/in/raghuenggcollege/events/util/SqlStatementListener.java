@@ -0,0 +1,31 @@
+package in.raghuenggcollege.events.util;
+
+import org.hibernate.BaseSessionEventListener;
+
+// Registered through hibernate.session.events.auto; Hibernate creates one per
+// session, and a session stays on one thread
+public class SqlStatementListener extends BaseSessionEventListener {
+
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        SqlStatementCounter.statementExecuted(System.nanoTime() - statementStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        SqlStatementCounter.statementExecuted(System.nanoTime() - batchStart);
+    }
+}
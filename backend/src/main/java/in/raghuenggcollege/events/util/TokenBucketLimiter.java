@@ -0,0 +1,74 @@
+package in.raghuenggcollege.events.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+// One token bucket per key (an email, an IP): up to capacity requests at once,
+// refilled at refillPerMinute. Buckets that have refilled completely carry no
+// state, so evictIdle() drops them to keep memory bounded by active callers.
+public class TokenBucketLimiter {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final LongSupplier nanoClock;
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public TokenBucketLimiter(int capacity, int refillPerMinute) {
+        this(capacity, refillPerMinute, System::nanoTime);
+    }
+
+    // Tests pass a fake clock
+    TokenBucketLimiter(int capacity, int refillPerMinute, LongSupplier nanoClock) {
+        if (capacity < 1 || refillPerMinute < 1) {
+            throw new IllegalArgumentException("capacity and refillPerMinute must be at least 1");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        this.nanoClock = nanoClock;
+    }
+
+    // Takes a token; returns 0 on success, otherwise the seconds until one is available
+    public long tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket(capacity, now));
+        synchronized (bucket) {
+            bucket.refill(now);
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            double nanosToToken = (1 - bucket.tokens) / tokensPerNano;
+            return Math.max(1, (long) Math.ceil(nanosToToken / TimeUnit.SECONDS.toNanos(1)));
+        }
+    }
+
+    public void evictIdle() {
+        long now = nanoClock.getAsLong();
+        buckets.values().removeIf(bucket -> {
+            synchronized (bucket) {
+                bucket.refill(now);
+                return bucket.tokens >= capacity;
+            }
+        });
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private final class Bucket {
+        private double tokens;
+        private long refilledAt;
+
+        private Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.refilledAt = now;
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+        }
+    }
+}
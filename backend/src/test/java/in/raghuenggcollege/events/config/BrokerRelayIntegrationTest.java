@@ -0,0 +1,221 @@
+package in.raghuenggcollege.events.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import in.raghuenggcollege.events.CollegeEventsApplication;
+import in.raghuenggcollege.events.dto.EventNotification;
+import in.raghuenggcollege.events.entity.Event;
+import in.raghuenggcollege.events.entity.User;
+import in.raghuenggcollege.events.repository.UserRepository;
+import in.raghuenggcollege.events.service.EventFanout;
+import in.raghuenggcollege.events.service.EventService;
+import in.raghuenggcollege.events.service.MyRegistrationsCache;
+import in.raghuenggcollege.events.service.RegistrationAdmissionQueue;
+import in.raghuenggcollege.events.service.RegistrationService;
+import in.raghuenggcollege.events.service.TagIndex;
+import in.raghuenggcollege.events.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Two nodes in broker.mode=relay against one stand-in broker and one shared
+// database, as behind a load balancer without sticky sessions: messages sent on
+// one node reach clients of the other, and changes made on one node reach the
+// other's caches.
+class BrokerRelayIntegrationTest {
+
+    private static final String ADMIN = "admin@raghuenggcollege.in";
+    private static final String STUDENT = "student@raghuenggcollege.in";
+
+    private StompTestBroker broker;
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+    private WebSocketStompClient stompClient;
+
+    @BeforeEach
+    void start() throws Exception {
+        broker = new StompTestBroker();
+        String database = "relay-" + UUID.randomUUID();
+        nodeA = startNode(database, "create-drop");
+        nodeB = startNode(database, "none");
+        stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+    }
+
+    @AfterEach
+    void stop() throws Exception {
+        stompClient.stop();
+        // Node A owns the schema, so it goes last
+        for (ConfigurableApplicationContext node : new ConfigurableApplicationContext[] {nodeB, nodeA}) {
+            if (node != null) {
+                node.close();
+            }
+        }
+        broker.close();
+    }
+
+    @Test
+    void notificationPublishedOnOneNodeReachesClientsOfTheOther() throws Exception {
+        awaitRelayConnected(nodeA);
+        awaitRelayConnected(nodeB);
+
+        int portB = nodeB.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        StompSession session = stompClient
+                .connectAsync("ws://localhost:" + portB + "/ws/websocket", new StompSessionHandlerAdapter() {
+                })
+                .get(10, TimeUnit.SECONDS);
+
+        BlockingQueue<JsonNode> received = new LinkedBlockingQueue<>();
+        session.subscribe(EventFanout.ALL_EVENTS, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return JsonNode.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                received.add((JsonNode) payload);
+            }
+        });
+        await(() -> broker.subscriberCount(EventFanout.ALL_EVENTS) > 0);
+
+        EventFanout fanout = nodeA.getBean(EventFanout.class);
+        fanout.publish(EventNotification.builder()
+                .eventId(42L)
+                .type(EventNotification.Type.CREATED)
+                .title("Relay Hackathon")
+                .department("CSE")
+                .tags(List.of("coding"))
+                .message("New event: Relay Hackathon")
+                .timestamp(LocalDateTime.now())
+                .build());
+        fanout.flush();
+
+        JsonNode body = received.poll(10, TimeUnit.SECONDS);
+        assertThat(body).isNotNull();
+        assertThat(body.path("title").asText()).isEqualTo("Relay Hackathon");
+        assertThat(body.path("type").asText()).isEqualTo("CREATED");
+    }
+
+    // A user's queue works whichever node the user is connected to
+    @Test
+    void userQueueMessageSentOnOneNodeReachesTheSessionOnTheOther() throws Exception {
+        awaitRelayConnected(nodeA);
+        awaitRelayConnected(nodeB);
+
+        StompHeaders connect = new StompHeaders();
+        User student = nodeA.getBean(UserRepository.class).findByEmail(STUDENT).orElseThrow();
+        connect.add("Authorization", "Bearer " + nodeA.getBean(JwtUtil.class).generateToken(student));
+        int portA = nodeA.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        StompSession session = stompClient
+                .connectAsync("ws://localhost:" + portA + "/ws/websocket", new WebSocketHttpHeaders(), connect,
+                        new StompSessionHandlerAdapter() {
+                        })
+                .get(10, TimeUnit.SECONDS);
+
+        BlockingQueue<JsonNode> received = new LinkedBlockingQueue<>();
+        session.subscribe("/user" + RegistrationAdmissionQueue.TICKET_QUEUE, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return JsonNode.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                received.add((JsonNode) payload);
+            }
+        });
+        await(() -> broker.subscriberCountWithPrefix(RegistrationAdmissionQueue.TICKET_QUEUE + "-user") > 0);
+
+        nodeB.getBean(SimpMessagingTemplate.class)
+                .convertAndSendToUser(STUDENT, RegistrationAdmissionQueue.TICKET_QUEUE, Map.of("ticketId", "t-1"));
+
+        JsonNode body = received.poll(10, TimeUnit.SECONDS);
+        assertThat(body).isNotNull();
+        assertThat(body.path("ticketId").asText()).isEqualTo("t-1");
+    }
+
+    // Tag index, reminders' event list and "my registrations" on node B follow
+    // writes made on node A
+    @Test
+    void changesOnOneNodeReachTheOthersCaches() throws Exception {
+        EventService eventsA = nodeA.getBean(EventService.class);
+        TagIndex tagsB = nodeB.getBean(TagIndex.class);
+        MyRegistrationsCache registrationsB = nodeB.getBean(MyRegistrationsCache.class);
+        assertThat(registrationsB.get(STUDENT)).isEmpty(); // Now cached on B
+
+        Event event = eventsA.createEvent(newEvent("relay-sync"), ADMIN);
+        await(() -> tagsB.allOf(List.of("relay-sync")).length == 1);
+
+        nodeA.getBean(RegistrationService.class).registerUser(event.getId(), STUDENT);
+        await(() -> registrationsB.get(STUDENT).size() == 1);
+
+        eventsA.updateEvent(event.getId(), newEvent("relay-moved"), ADMIN);
+        await(() -> tagsB.allOf(List.of("relay-sync")).length == 0
+                && tagsB.allOf(List.of("relay-moved")).length == 1);
+
+        eventsA.deleteEvent(event.getId(), ADMIN);
+        await(() -> tagsB.allOf(List.of("relay-moved")).length == 0 && registrationsB.get(STUDENT).isEmpty());
+    }
+
+    private static Event newEvent(String tag) {
+        return Event.builder()
+                .title("Relay " + tag)
+                .startTime(LocalDateTime.now().plusDays(3))
+                .endTime(LocalDateTime.now().plusDays(3).plusHours(2))
+                .venue("Seminar Hall")
+                .capacity(50)
+                .department("CSE")
+                .tags(tag)
+                .build();
+    }
+
+    private ConfigurableApplicationContext startNode(String database, String ddlAuto) {
+        return new SpringApplicationBuilder(CollegeEventsApplication.class)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--broker.mode=relay",
+                        "--broker.relay.host=localhost",
+                        "--broker.relay.port=" + broker.getPort(),
+                        "--cluster.sync.poll-interval-ms=200",
+                        "--spring.jpa.hibernate.ddl-auto=" + ddlAuto,
+                        "--spring.datasource.url=jdbc:h2:mem:" + database
+                                + ";DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=60000");
+    }
+
+    private static void awaitRelayConnected(ConfigurableApplicationContext node) throws InterruptedException {
+        StompBrokerRelayMessageHandler relay = node.getBean(StompBrokerRelayMessageHandler.class);
+        await(relay::isBrokerAvailable);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime() - deadline).as("timed out").isNegative();
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package in.raghuenggcollege.events.config;
+
+import in.raghuenggcollege.events.entity.Role;
+import in.raghuenggcollege.events.entity.User;
+import in.raghuenggcollege.events.service.TokenRevocationList;
+import in.raghuenggcollege.events.service.UserPrincipalCache;
+import in.raghuenggcollege.events.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Principal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StompAuthenticationInterceptorTest {
+
+    private static final String EMAIL = "student@raghuenggcollege.in";
+
+    private final JwtUtil jwtUtil = new JwtUtil();
+    private final UserPrincipalCache userPrincipalCache = mock(UserPrincipalCache.class);
+    private final TokenRevocationList tokenRevocationList = mock(TokenRevocationList.class);
+    private final StompAuthenticationInterceptor interceptor =
+            new StompAuthenticationInterceptor(jwtUtil, userPrincipalCache, tokenRevocationList);
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(jwtUtil, "secret", "a_test_secret_that_is_long_enough_for_the_hs256_algorithm");
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpiration", 60_000L);
+        jwtUtil.init();
+        user = User.builder().email(EMAIL).password("x").role(Role.STUDENT).build();
+        when(userPrincipalCache.load(EMAIL)).thenReturn(user);
+    }
+
+    @Test
+    void connectWithAValidTokenBelongsToThatUser() {
+        Principal principal = connect("Bearer " + jwtUtil.generateToken(user));
+
+        assertThat(principal).isNotNull();
+        assertThat(principal.getName()).isEqualTo(EMAIL);
+    }
+
+    @Test
+    void connectWithoutAUsableTokenStaysAnonymous() {
+        assertThat(connect(null)).isNull();
+        assertThat(connect("Basic abc")).isNull();
+        assertThat(connect("Bearer not-a-jwt")).isNull();
+
+        when(tokenRevocationList.isRevoked(any())).thenReturn(true);
+        assertThat(connect("Bearer " + jwtUtil.generateToken(user))).isNull();
+    }
+
+    @Test
+    void tokenOfADeletedUserStaysAnonymous() {
+        String token = jwtUtil.generateToken(user);
+        when(userPrincipalCache.load(EMAIL)).thenThrow(new UsernameNotFoundException("User not found"));
+
+        assertThat(connect("Bearer " + token)).isNull();
+    }
+
+    @Test
+    void onlyConnectFramesAreInspected() {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SEND);
+        accessor.addNativeHeader("Authorization", "Bearer " + jwtUtil.generateToken(user));
+        accessor.setLeaveMutable(true);
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+
+        interceptor.preSend(message, mock(MessageChannel.class));
+
+        assertThat(accessor.getUser()).isNull();
+    }
+
+    private Principal connect(String authorization) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        if (authorization != null) {
+            accessor.addNativeHeader("Authorization", authorization);
+        }
+        accessor.setLeaveMutable(true);
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        interceptor.preSend(message, mock(MessageChannel.class));
+        return accessor.getUser();
+    }
+}
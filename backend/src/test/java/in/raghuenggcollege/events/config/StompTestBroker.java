@@ -0,0 +1,202 @@
+package in.raghuenggcollege.events.config;
+
+import java.io.*;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Just enough of a STOMP 1.2 broker for the relay tests: CONNECT, SUBSCRIBE,
+// UNSUBSCRIBE, SEND fanned out to exact-match subscribers with the sender's
+// own headers kept, DISCONNECT. No heart-beats, acks or transactions.
+class StompTestBroker implements Closeable {
+
+    private final ServerSocket serverSocket;
+    private final CopyOnWriteArrayList<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final Map<Socket, OutputStream> connections = new ConcurrentHashMap<>();
+    private final AtomicLong messageIds = new AtomicLong();
+
+    StompTestBroker() throws IOException {
+        serverSocket = new ServerSocket(0);
+        Thread acceptor = new Thread(this::accept, "stomp-test-broker");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    long subscriberCount(String destination) {
+        return subscriptions.stream().filter(s -> s.destination().equals(destination)).count();
+    }
+
+    long subscriberCountWithPrefix(String prefix) {
+        return subscriptions.stream().filter(s -> s.destination().startsWith(prefix)).count();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket socket : connections.keySet()) {
+            socket.close();
+        }
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.put(socket, new BufferedOutputStream(socket.getOutputStream()));
+                Thread reader = new Thread(() -> serve(socket), "stomp-test-connection");
+                reader.setDaemon(true);
+                reader.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (InputStream in = new BufferedInputStream(socket.getInputStream())) {
+            Frame frame;
+            while ((frame = Frame.read(in)) != null) {
+                switch (frame.command()) {
+                    case "CONNECT", "STOMP" -> write(socket, "CONNECTED",
+                            Map.of("version", "1.2", "heart-beat", "0,0"), new byte[0]);
+                    case "SUBSCRIBE" -> subscriptions.add(
+                            new Subscription(socket, frame.headers().get("id"), frame.headers().get("destination")));
+                    case "UNSUBSCRIBE" -> {
+                        String id = frame.headers().get("id");
+                        subscriptions.removeIf(s -> s.socket() == socket && s.id().equals(id));
+                    }
+                    case "SEND" -> deliver(frame);
+                    case "DISCONNECT" -> {
+                        String receipt = frame.headers().get("receipt");
+                        if (receipt != null) {
+                            write(socket, "RECEIPT", Map.of("receipt-id", receipt), new byte[0]);
+                        }
+                        return;
+                    }
+                    default -> {
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // Connection gone
+        } finally {
+            subscriptions.removeIf(s -> s.socket() == socket);
+            connections.remove(socket);
+        }
+    }
+
+    private void deliver(Frame frame) throws IOException {
+        String destination = frame.headers().get("destination");
+        for (Subscription subscription : subscriptions) {
+            if (subscription.destination().equals(destination)) {
+                Map<String, String> headers = new LinkedHashMap<>(frame.headers());
+                headers.remove("content-length");
+                headers.remove("receipt");
+                headers.put("destination", destination);
+                headers.put("subscription", subscription.id());
+                headers.put("message-id", String.valueOf(messageIds.incrementAndGet()));
+                headers.putIfAbsent("content-type", "text/plain");
+                write(subscription.socket(), "MESSAGE", headers, frame.body());
+            }
+        }
+    }
+
+    private void write(Socket socket, String command, Map<String, String> headers, byte[] body) throws IOException {
+        OutputStream out = connections.get(socket);
+        if (out == null) {
+            return;
+        }
+        StringBuilder head = new StringBuilder(command).append('\n');
+        headers.forEach((name, value) -> head.append(escape(name)).append(':').append(escape(value)).append('\n'));
+        head.append("content-length:").append(body.length).append("\n\n");
+        synchronized (out) {
+            out.write(head.toString().getBytes(StandardCharsets.UTF_8));
+            out.write(body);
+            out.write(0);
+            out.flush();
+        }
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\n", "\\n").replace("\r", "\\r").replace(":", "\\c");
+    }
+
+    private record Subscription(Socket socket, String id, String destination) {
+    }
+
+    private record Frame(String command, Map<String, String> headers, byte[] body) {
+
+        // Null at end of stream; skips heart-beat EOLs between frames
+        static Frame read(InputStream in) throws IOException {
+            String command;
+            do {
+                command = readLine(in);
+                if (command == null) {
+                    return null;
+                }
+            } while (command.isEmpty());
+
+            Map<String, String> headers = new LinkedHashMap<>();
+            String line;
+            while ((line = readLine(in)) != null && !line.isEmpty()) {
+                int colon = line.indexOf(':');
+                headers.putIfAbsent(line.substring(0, colon), unescape(line.substring(colon + 1)));
+            }
+
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            String length = headers.get("content-length");
+            if (length != null) {
+                body.write(in.readNBytes(Integer.parseInt(length)));
+                in.read(); // Trailing NUL
+            } else {
+                int b;
+                while ((b = in.read()) > 0) {
+                    body.write(b);
+                }
+            }
+            return new Frame(command, headers, body.toByteArray());
+        }
+
+        private static String readLine(InputStream in) throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != '\n') {
+                if (b == -1) {
+                    return null;
+                }
+                if (b != '\r') {
+                    line.write(b);
+                }
+            }
+            return line.toString(StandardCharsets.UTF_8);
+        }
+
+        private static String unescape(String value) {
+            StringBuilder out = new StringBuilder(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '\\' && i + 1 < value.length()) {
+                    char next = value.charAt(++i);
+                    out.append(switch (next) {
+                        case 'c' -> ':';
+                        case 'n' -> '\n';
+                        case 'r' -> '\r';
+                        default -> next;
+                    });
+                } else {
+                    out.append(c);
+                }
+            }
+            return out.toString();
+        }
+    }
+}
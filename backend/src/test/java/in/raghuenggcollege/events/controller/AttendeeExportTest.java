@@ -0,0 +1,131 @@
+package in.raghuenggcollege.events.controller;
+
+import in.raghuenggcollege.events.entity.Event;
+import in.raghuenggcollege.events.entity.Role;
+import in.raghuenggcollege.events.entity.User;
+import in.raghuenggcollege.events.repository.EventRepository;
+import in.raghuenggcollege.events.repository.UserRepository;
+import in.raghuenggcollege.events.service.RegistrationService;
+import in.raghuenggcollege.events.util.Csv;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AttendeeExportTest {
+
+    private static final String SUPER_ADMIN = "admin@raghuenggcollege.in";
+    private static final String CSE_ADMIN = "cse.admin@raghuenggcollege.in";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RegistrationService registrationService;
+
+    // Names with separators, quotes and line breaks come back as the same fields
+    @Test
+    void csvEscapesAwkwardValues() throws Exception {
+        Event event = createEvent("CSE");
+        String comma = createStudent("Rao, Kiran");
+        String quote = createStudent("Siva \"Sid\" Kumar");
+        String newline = createStudent("Anil\nKumar");
+        for (String email : List.of(comma, quote, newline)) {
+            registrationService.registerUser(event.getId(), email);
+        }
+
+        String csv = export(event, SUPER_ADMIN);
+
+        Csv.Reader reader = new Csv.Reader(new StringReader(csv));
+        assertThat(reader.readRecord())
+                .containsExactly("registrationId", "status", "registeredAt", "fullName", "email", "department");
+        List<List<String>> rows = List.of(reader.readRecord(), reader.readRecord(), reader.readRecord());
+        assertThat(reader.readRecord()).isNull();
+        assertThat(rows).extracting(row -> row.get(3))
+                .containsExactly("Rao, Kiran", "Siva \"Sid\" Kumar", "Anil\nKumar");
+        assertThat(rows).extracting(row -> row.get(4)).containsExactly(comma, quote, newline);
+        assertThat(rows).allSatisfy(row -> assertThat(row).hasSize(6));
+    }
+
+    @Test
+    void deptAdminCanExportOwnDepartment() throws Exception {
+        Event event = createEvent("CSE");
+        String student = createStudent("CSE Student");
+        registrationService.registerUser(event.getId(), student);
+
+        assertThat(export(event, CSE_ADMIN)).contains(student);
+    }
+
+    @Test
+    void deptAdminCannotExportAnotherDepartment() throws Exception {
+        Event event = createEvent("ECE");
+
+        mockMvc.perform(get("/api/events/{id}/attendees", event.getId()).with(user(CSE_ADMIN).roles("DEPT_ADMIN")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void studentsCannotExport() throws Exception {
+        Event event = createEvent("CSE");
+
+        mockMvc.perform(get("/api/events/{id}/attendees", event.getId())
+                        .with(user("student@raghuenggcollege.in").roles("STUDENT")))
+                .andExpect(status().isForbidden());
+    }
+
+    private String export(Event event, String email) throws Exception {
+        String role = email.equals(SUPER_ADMIN) ? "SUPER_ADMIN" : "DEPT_ADMIN";
+        MvcResult started = mockMvc.perform(get("/api/events/{id}/attendees", event.getId())
+                        .with(user(email).roles(role)))
+                .andExpect(status().isOk())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private Event createEvent(String department) {
+        return eventRepository.save(Event.builder()
+                .title(department + " attendee export")
+                .startTime(LocalDateTime.now().plusDays(3))
+                .endTime(LocalDateTime.now().plusDays(3).plusHours(2))
+                .venue("Seminar Hall")
+                .capacity(50)
+                .department(department)
+                .createdBy(userRepository.findByEmail(SUPER_ADMIN).orElseThrow())
+                .build());
+    }
+
+    private String createStudent(String fullName) {
+        String email = "export." + UUID.randomUUID() + "@raghuenggcollege.in";
+        userRepository.save(User.builder()
+                .fullName(fullName)
+                .email(email)
+                .password("{noop}unused")
+                .role(Role.STUDENT)
+                .department("CSE")
+                .isVerified(true)
+                .build());
+        return email;
+    }
+}
@@ -0,0 +1,70 @@
+package in.raghuenggcollege.events.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Sign-ups through a real Tomcat with one OTP per client IP allowed. The test
+// client connects from loopback, which the default internal-proxies trusts, so
+// its X-Forwarded-For names the client; from an untrusted peer it is ignored.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "auth.otp.rate.per-ip.capacity=1",
+        "auth.otp.rate.per-ip.per-minute=1"
+})
+@ActiveProfiles("test")
+class ClientIpForwardingTest {
+
+    private static final HttpClient HTTP = HttpClient.newHttpClient();
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void perIpThrottleKeysOnTheForwardedClient() throws Exception {
+        assertThat(register(port, "203.0.113.7")).isEqualTo(200);
+        assertThat(register(port, "203.0.113.7")).isEqualTo(429);
+        assertThat(register(port, "203.0.113.8")).isEqualTo(200);
+    }
+
+    @Nested
+    @TestPropertySource(properties = "server.tomcat.remoteip.internal-proxies=10\\.9\\.9\\.9")
+    class FromAnUntrustedPeer {
+
+        @LocalServerPort
+        private int port;
+
+        // Otherwise anyone could dodge the throttle by making up a header per request
+        @Test
+        void forwardedHeaderIsIgnored() throws Exception {
+            assertThat(register(port, "203.0.113.20")).isEqualTo(200);
+            assertThat(register(port, "203.0.113.21")).isEqualTo(429);
+        }
+    }
+
+    private static int register(int port, String forwardedFor) throws Exception {
+        Map<String, String> account = Map.of(
+                "fullName", "Forwarded Client",
+                "email", "ip." + UUID.randomUUID() + "@raghuenggcollege.in",
+                "password", "Forward@123");
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/register"))
+                .header("Content-Type", "application/json")
+                .header("X-Forwarded-For", forwardedFor)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(JSON.writeValueAsBytes(account)))
+                .build();
+        return HTTP.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,95 @@
+package in.raghuenggcollege.events.controller;
+
+import in.raghuenggcollege.events.entity.Event;
+import in.raghuenggcollege.events.entity.User;
+import in.raghuenggcollege.events.repository.EventRepository;
+import in.raghuenggcollege.events.repository.UserRepository;
+import in.raghuenggcollege.events.service.MyRegistrationsCache;
+import in.raghuenggcollege.events.service.RegistrationService;
+import in.raghuenggcollege.events.service.UpcomingEventsCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static in.raghuenggcollege.events.util.SqlStatementAssertions.assertStatements;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The dashboard and listing reads must cost the same number of statements
+// however many rows they return, and nothing at all once cached
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReadEndpointsQueryCountTest {
+
+    private static final String STUDENT = "student@raghuenggcollege.in";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RegistrationService registrationService;
+    @Autowired
+    private MyRegistrationsCache myRegistrationsCache;
+    @Autowired
+    private UpcomingEventsCache upcomingEventsCache;
+
+    @Test
+    void myRegistrationsIsOneQueryHoweverManyRegistrations() throws Exception {
+        registrationService.registerUser(createEvent("Dashboard 0").getId(), STUDENT);
+        myRegistrationsCache.evict(STUDENT);
+        assertStatements(1, this::getMyRegistrations);
+
+        for (int i = 1; i <= 5; i++) {
+            registrationService.registerUser(createEvent("Dashboard " + i).getId(), STUDENT);
+        }
+        myRegistrationsCache.evict(STUDENT);
+        assertStatements(1, this::getMyRegistrations);
+        assertStatements(0, this::getMyRegistrations);
+    }
+
+    @Test
+    void eventListingIsOneQueryHoweverManyEvents() throws Exception {
+        createEvent("Listing 0");
+        upcomingEventsCache.invalidate();
+        assertStatements(1, this::getEvents);
+
+        for (int i = 1; i <= 5; i++) {
+            createEvent("Listing " + i);
+        }
+        upcomingEventsCache.invalidate();
+        assertStatements(1, this::getEvents);
+        assertStatements(0, this::getEvents);
+    }
+
+    private void getMyRegistrations() throws Exception {
+        mockMvc.perform(get("/api/registrations/my").with(user(STUDENT))).andExpect(status().isOk());
+    }
+
+    private void getEvents() throws Exception {
+        mockMvc.perform(get("/api/events")).andExpect(status().isOk());
+    }
+
+    private Event createEvent(String title) {
+        User admin = userRepository.findByEmail("admin@raghuenggcollege.in").orElseThrow();
+        return eventRepository.save(Event.builder()
+                .title(title)
+                .startTime(LocalDateTime.now().plusDays(5))
+                .endTime(LocalDateTime.now().plusDays(5).plusHours(2))
+                .venue("Seminar Hall")
+                .capacity(100)
+                .department("CSE")
+                .tags("Workshop")
+                .createdBy(admin)
+                .build());
+    }
+}
@@ -0,0 +1,90 @@
+package in.raghuenggcollege.events.service;
+
+import in.raghuenggcollege.events.dto.EventImportResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "events.import.batch-size=2")
+@ActiveProfiles("test")
+class EventBulkServiceTest {
+
+    private static final String ADMIN = "admin@raghuenggcollege.in";
+    private static final String HEADER = "title,startTime,endTime,venue,capacity,tags\n";
+
+    @Autowired
+    private EventBulkService eventBulkService;
+    @Autowired
+    private TagIndex tagIndex;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void importsEveryBatchAndIndexesItsTags() {
+        String csv = HEADER + rows("import-batches", 5) + "No venue," + start() + "," + end() + ",,10,import-batches\n";
+
+        EventImportResult result = eventBulkService.importEvents(stream(csv), EventBulkService.Format.CSV, ADMIN);
+
+        assertThat(result.getImported()).isEqualTo(5);
+        assertThat(result.getRejected()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(EventImportResult.RowError::getLine).containsExactly(7L);
+        assertThat(countTagged("import-batches")).isEqualTo(5);
+        assertThat(tagIndex.allOf(List.of("import-batches"))).hasSize(5);
+    }
+
+    // A body that breaks off mid-stream keeps the batches that already committed
+    @Test
+    void keepsCommittedBatchesWhenTheBodyFails() {
+        InputStream broken = new SequenceInputStream(stream(HEADER + rows("import-broken", 3)), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("connection reset");
+            }
+        });
+
+        assertThatThrownBy(() -> eventBulkService.importEvents(broken, EventBulkService.Format.CSV, ADMIN))
+                .isInstanceOf(UncheckedIOException.class);
+
+        assertThat(countTagged("import-broken")).isEqualTo(2);
+        assertThat(tagIndex.allOf(List.of("import-broken"))).hasSize(2);
+    }
+
+    private long countTagged(String tag) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM event_tags WHERE tag = ?", Long.class, tag);
+    }
+
+    private static String rows(String tag, int count) {
+        StringBuilder rows = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            rows.append(tag).append(' ').append(i).append(',').append(start()).append(',').append(end())
+                    .append(",Seminar Hall,50,").append(tag).append('\n');
+        }
+        return rows.toString();
+    }
+
+    private static String start() {
+        return LocalDateTime.now().plusDays(10).withNano(0).toString();
+    }
+
+    private static String end() {
+        return LocalDateTime.now().plusDays(10).plusHours(2).withNano(0).toString();
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,48 @@
+package in.raghuenggcollege.events.service;
+
+import in.raghuenggcollege.events.dto.EventNotification;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventFanoutTest {
+
+    @Test
+    void newEventsGoToEveryone() {
+        EventNotification created = EventNotification.builder()
+                .eventId(7L)
+                .type(EventNotification.Type.CREATED)
+                .department("CSE")
+                .tags(List.of("AI"))
+                .build();
+
+        assertThat(EventFanout.destinations(created)).containsExactly(
+                "/topic/events",
+                "/topic/events.department.cse",
+                "/topic/events.tag.ai");
+    }
+
+    @Test
+    void editsGoToTheEventTopicNotToEveryone() {
+        EventNotification updated = EventNotification.builder()
+                .eventId(7L)
+                .type(EventNotification.Type.UPDATED)
+                .department("Mechanical Engg")
+                .build();
+
+        assertThat(EventFanout.destinations(updated)).containsExactly(
+                "/topic/events.event.7",
+                "/topic/events.department.mechanical-engg");
+    }
+
+    @Test
+    void importsHaveNoEventTopic() {
+        EventNotification imported = EventNotification.builder()
+                .type(EventNotification.Type.IMPORTED)
+                .build();
+
+        assertThat(EventFanout.destinations(imported)).containsExactly("/topic/events");
+    }
+}
@@ -0,0 +1,92 @@
+package in.raghuenggcollege.events.service;
+
+import in.raghuenggcollege.events.dto.EventSearchCriteria;
+import in.raghuenggcollege.events.entity.Event;
+import in.raghuenggcollege.events.entity.EventTag;
+import in.raghuenggcollege.events.repository.EventRepository;
+import in.raghuenggcollege.events.repository.EventTagRepository;
+import in.raghuenggcollege.events.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Events tagged in event_tags behind the index's back, as a change from another
+// node looks until the next poll, are still found by a tag search
+@SpringBootTest
+@ActiveProfiles("test")
+class EventSearchTagFallbackTest {
+
+    private static final String ADMIN = "admin@raghuenggcollege.in";
+
+    @Autowired
+    private EventService eventService;
+    @Autowired
+    private TagIndex tagIndex;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private EventTagRepository eventTagRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void tagTheIndexHasNotSeenIsSearchedInEventTags() {
+        String tag = "unindexed-" + UUID.randomUUID();
+        Event event = createEventTaggedOnlyInTable(tag);
+
+        assertThat(tagIndex.isBuilt()).isTrue();
+        assertThat(tagIndex.allOf(List.of(tag))).isEmpty();
+        assertThat(search(List.of(tag), null)).containsExactly(event.getId());
+        assertThat(search(null, List.of(tag, "no-such-tag"))).containsExactly(event.getId());
+    }
+
+    @Test
+    void searchesJoinEventTagsUntilTheIndexIsBuilt() {
+        String tag = "cold-" + UUID.randomUUID();
+        Event indexed = eventService.createEvent(newEvent(tag), ADMIN);
+        Event unindexed = createEventTaggedOnlyInTable(tag);
+
+        TagIndex target = AopTestUtils.getTargetObject(tagIndex);
+        ReflectionTestUtils.setField(target, "built", false);
+        try {
+            assertThat(search(List.of(tag), null)).containsExactly(indexed.getId(), unindexed.getId());
+        } finally {
+            ReflectionTestUtils.setField(target, "built", true);
+        }
+    }
+
+    private List<Long> search(List<String> tags, List<String> anyTags) {
+        EventSearchCriteria criteria = new EventSearchCriteria();
+        criteria.setTags(tags);
+        criteria.setAnyTags(anyTags);
+        return eventService.searchEvents(criteria, null, 10).getItems().stream().map(Event::getId).toList();
+    }
+
+    private Event createEventTaggedOnlyInTable(String tag) {
+        Event event = eventRepository.save(newEvent(tag));
+        eventTagRepository.save(EventTag.builder().eventId(event.getId()).tag(tag).build());
+        return event;
+    }
+
+    private Event newEvent(String tag) {
+        return Event.builder()
+                .title("Tag search " + tag)
+                .startTime(LocalDateTime.now().plusDays(4))
+                .endTime(LocalDateTime.now().plusDays(4).plusHours(2))
+                .venue("Seminar Hall")
+                .capacity(60)
+                .department("CSE")
+                .tags(tag)
+                .createdBy(userRepository.findByEmail(ADMIN).orElseThrow())
+                .build();
+    }
+}
@@ -0,0 +1,151 @@
+package in.raghuenggcollege.events.service;
+
+import java.io.*;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Just enough SMTP for the mail dispatcher tests: EHLO/HELO, MAIL, RCPT, DATA,
+// RSET, NOOP, QUIT. No auth or TLS. Records which recipients each connection
+// delivered to, can refuse the first few connections with a 421 greeting and
+// rejects chosen recipients with 550.
+class FakeSmtpServer implements Closeable {
+
+    private final ServerSocket serverSocket;
+    private final Set<String> rejectedRecipients = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger connectionsToRefuse = new AtomicInteger();
+    private final CopyOnWriteArrayList<Connection> connections = new CopyOnWriteArrayList<>();
+    private volatile CountDownLatch greetingGate = new CountDownLatch(0);
+
+    FakeSmtpServer() throws IOException {
+        serverSocket = new ServerSocket(0);
+        Thread acceptor = new Thread(this::accept, "fake-smtp");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    void rejectRecipient(String address) {
+        rejectedRecipients.add(address.toLowerCase(Locale.ROOT));
+    }
+
+    void refuseConnections(int count) {
+        connectionsToRefuse.set(count);
+    }
+
+    // Connections wait for release() before they are greeted
+    void holdGreetings() {
+        greetingGate = new CountDownLatch(1);
+    }
+
+    void release() {
+        greetingGate.countDown();
+    }
+
+    List<Connection> getConnections() {
+        return List.copyOf(connections);
+    }
+
+    // Recipients of every accepted message, across connections
+    List<String> delivered() {
+        List<String> delivered = new ArrayList<>();
+        connections.forEach(connection -> delivered.addAll(connection.delivered()));
+        return delivered;
+    }
+
+    @Override
+    public void close() throws IOException {
+        release();
+        serverSocket.close();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                Connection connection = new Connection(System.nanoTime(), new CopyOnWriteArrayList<>());
+                connections.add(connection);
+                Thread session = new Thread(() -> serve(socket, connection), "fake-smtp-session");
+                session.setDaemon(true);
+                session.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket, Connection connection) {
+        try (socket;
+                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                        StandardCharsets.US_ASCII));
+                Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII)) {
+            greetingGate.await(10, TimeUnit.SECONDS);
+            if (connectionsToRefuse.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                reply(out, "421 fake busy, try later");
+                return;
+            }
+            reply(out, "220 fake ESMTP");
+
+            List<String> recipients = new ArrayList<>();
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.toUpperCase(Locale.ROOT);
+                if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+                    reply(out, "250 fake");
+                } else if (command.startsWith("MAIL FROM")) {
+                    recipients.clear();
+                    reply(out, "250 OK");
+                } else if (command.startsWith("RCPT TO")) {
+                    String address = line.substring(line.indexOf('<') + 1, line.lastIndexOf('>'));
+                    if (rejectedRecipients.contains(address.toLowerCase(Locale.ROOT))) {
+                        reply(out, "550 no such user");
+                    } else {
+                        recipients.add(address);
+                        reply(out, "250 OK");
+                    }
+                } else if (command.equals("DATA")) {
+                    reply(out, "354 end with <CRLF>.<CRLF>");
+                    while ((line = in.readLine()) != null && !line.equals(".")) {
+                        // Message content is not inspected
+                    }
+                    connection.delivered().addAll(recipients);
+                    recipients.clear();
+                    reply(out, "250 OK queued");
+                } else if (command.equals("RSET") || command.equals("NOOP")) {
+                    recipients.clear();
+                    reply(out, "250 OK");
+                } else if (command.equals("QUIT")) {
+                    reply(out, "221 bye");
+                    return;
+                } else {
+                    reply(out, "502 not implemented");
+                }
+            }
+        } catch (IOException e) {
+            // Client went away
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void reply(Writer out, String line) throws IOException {
+        out.write(line + "\r\n");
+        out.flush();
+    }
+
+    // One SMTP session: when it was opened and who it delivered to, in order
+    record Connection(long openedNanos, List<String> delivered) {
+    }
+}
@@ -0,0 +1,111 @@
+package in.raghuenggcollege.events.service;
+
+import in.raghuenggcollege.events.exception.RateLimitedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private LoginExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        executor.stop();
+        MDC.clear();
+    }
+
+    @Test
+    void runsTheTaskAndPassesResultsAndExceptionsThrough() {
+        executor = start(2, 10, 1000);
+
+        assertThat(executor.run(() -> "ok")).isEqualTo("ok");
+        assertThatThrownBy(() -> executor.run(() -> {
+            throw new IllegalStateException("Bad credentials");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("Bad credentials");
+    }
+
+    @Test
+    void carriesTheCallersLoggingContext() {
+        executor = start(1, 10, 1000);
+        MDC.put("requestId", "abc");
+
+        assertThat(executor.run(() -> MDC.get("requestId"))).isEqualTo("abc");
+    }
+
+    @Test
+    void turnsAwayLoginsBeyondTheQueue() throws Exception {
+        executor = start(1, 1, 10_000);
+        CountDownLatch release = new CountDownLatch(1);
+        List<CompletableFuture<Object>> blocked = new ArrayList<>();
+        blocked.add(CompletableFuture.supplyAsync(() -> executor.run(() -> await(release))));
+        awaitCondition(() -> executor.getActiveCount() == 1);
+        blocked.add(CompletableFuture.supplyAsync(() -> executor.run(() -> "queued")));
+        awaitCondition(() -> executor.getQueueDepth() == 1);
+
+        assertThatThrownBy(() -> executor.run(() -> "rejected"))
+                .isInstanceOf(RateLimitedException.class)
+                .hasMessageContaining("Too many sign-ins");
+        assertThat(meterRegistry.counter("auth.login.rejected", "reason", "queue_full").count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(blocked.get(1).get(5, TimeUnit.SECONDS)).isEqualTo("queued");
+    }
+
+    @Test
+    void dropsLoginsThatWaitedTooLong() throws Exception {
+        executor = start(1, 10, 50);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture.supplyAsync(() -> executor.run(() -> await(release)));
+        awaitCondition(() -> executor.getActiveCount() == 1);
+        CompletableFuture<Object> stale = CompletableFuture.supplyAsync(() -> executor.run(() -> "too late"));
+        awaitCondition(() -> executor.getQueueDepth() == 1);
+
+        Thread.sleep(100);
+        release.countDown();
+
+        assertThat(stale).failsWithin(5, TimeUnit.SECONDS)
+                .withThrowableOfType(Exception.class)
+                .withRootCauseInstanceOf(RateLimitedException.class);
+        assertThat(meterRegistry.counter("auth.login.rejected", "reason", "expired").count()).isEqualTo(1);
+    }
+
+    private LoginExecutor start(int threads, int queueCapacity, long maxQueueWaitMs) {
+        LoginExecutor loginExecutor = new LoginExecutor(meterRegistry);
+        ReflectionTestUtils.setField(loginExecutor, "threads", threads);
+        ReflectionTestUtils.setField(loginExecutor, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(loginExecutor, "maxQueueWaitMs", maxQueueWaitMs);
+        loginExecutor.start();
+        return loginExecutor;
+    }
+
+    private static Object await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "done";
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime() - deadline).as("timed out").isNegative();
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package in.raghuenggcollege.events.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs the dispatcher against a real JavaMailSenderImpl talking to FakeSmtpServer
+class MailDispatcherTest {
+
+    private static final long BACKOFF_MS = 100;
+
+    private FakeSmtpServer smtp;
+    private MailDispatcher dispatcher;
+    private final Map<String, String> outcomes = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smtp = new FakeSmtpServer();
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtp.getPort());
+
+        dispatcher = new MailDispatcher(mailSender);
+        ReflectionTestUtils.setField(dispatcher, "workers", 1);
+        ReflectionTestUtils.setField(dispatcher, "queueCapacity", 100);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 25);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "retryBackoffMs", BACKOFF_MS);
+        ReflectionTestUtils.setField(dispatcher, "enqueueTimeoutMs", 100L);
+        dispatcher.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        dispatcher.stop();
+        smtp.close();
+    }
+
+    // Whatever queues up while a batch is on the wire goes out together on the next connection
+    @Test
+    void sendsQueuedMessagesAsOneBatchPerConnection() {
+        smtp.holdGreetings();
+        submit("first@raghuenggcollege.in");
+        awaitCondition(() -> smtp.getConnections().size() == 1);
+        for (int i = 0; i < 5; i++) {
+            submit("student" + i + "@raghuenggcollege.in");
+        }
+        smtp.release();
+
+        awaitCondition(() -> outcomes.size() == 6);
+        assertThat(outcomes).allSatisfy((to, outcome) -> assertThat(outcome).isEqualTo("delivered"));
+        assertThat(smtp.getConnections()).extracting(connection -> connection.delivered().size())
+                .containsExactly(1, 5);
+        assertThat(dispatcher.getSentCount()).isEqualTo(6);
+    }
+
+    // Only the rejected recipient is retried; the rest of the batch counts as sent
+    @Test
+    void retriesOnlyTheFailedMessagesOfABatch() {
+        smtp.rejectRecipient("gone@raghuenggcollege.in");
+        smtp.holdGreetings();
+        submit("first@raghuenggcollege.in");
+        awaitCondition(() -> smtp.getConnections().size() == 1);
+        submit("a@raghuenggcollege.in");
+        submit("gone@raghuenggcollege.in");
+        submit("b@raghuenggcollege.in");
+        smtp.release();
+
+        awaitCondition(() -> outcomes.size() == 4);
+        assertThat(outcomes).containsEntry("a@raghuenggcollege.in", "delivered")
+                .containsEntry("b@raghuenggcollege.in", "delivered")
+                .containsEntry("gone@raghuenggcollege.in", "failed");
+        // The first message alone, the batch of three, then one connection per retry
+        assertThat(smtp.getConnections()).extracting(FakeSmtpServer.Connection::delivered).containsExactly(
+                List.of("first@raghuenggcollege.in"),
+                List.of("a@raghuenggcollege.in", "b@raghuenggcollege.in"),
+                List.of(),
+                List.of());
+        assertThat(dispatcher.getSentCount()).isEqualTo(3);
+        assertThat(dispatcher.getFailedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void backsOffExponentiallyWhenTheServerIsDown() {
+        smtp.refuseConnections(2);
+        submit("late@raghuenggcollege.in");
+
+        awaitCondition(() -> outcomes.containsKey("late@raghuenggcollege.in"));
+        assertThat(outcomes).containsEntry("late@raghuenggcollege.in", "delivered");
+        List<FakeSmtpServer.Connection> connections = smtp.getConnections();
+        assertThat(connections).hasSize(3);
+        assertThat(millisBetween(connections.get(0), connections.get(1))).isGreaterThanOrEqualTo(BACKOFF_MS);
+        assertThat(millisBetween(connections.get(1), connections.get(2))).isGreaterThanOrEqualTo(2 * BACKOFF_MS);
+    }
+
+    @Test
+    void failsRetriesStillWaitingWhenStopped() throws Exception {
+        ReflectionTestUtils.setField(dispatcher, "retryBackoffMs", TimeUnit.MINUTES.toMillis(10));
+        smtp.refuseConnections(1);
+        submit("pending@raghuenggcollege.in");
+        awaitCondition(() -> smtp.getConnections().size() == 1);
+        awaitCondition(() -> dispatcher.getQueueDepth() == 0 && dispatcher.getAverageBatchMillis() > 0);
+
+        dispatcher.stop();
+
+        assertThat(outcomes).containsEntry("pending@raghuenggcollege.in", "failed");
+        assertThat(dispatcher.getFailedCount()).isEqualTo(1);
+    }
+
+    private void submit(String to) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("events@raghuenggcollege.in");
+        message.setTo(to);
+        message.setSubject("Reminder");
+        message.setText("See you there");
+        boolean queued = dispatcher.submit(message, new MailDispatcher.DeliveryListener() {
+            @Override
+            public void delivered() {
+                outcomes.put(to, "delivered");
+            }
+
+            @Override
+            public void failed(Exception cause) {
+                outcomes.put(to, "failed");
+            }
+        });
+        assertThat(queued).isTrue();
+    }
+
+    private static long millisBetween(FakeSmtpServer.Connection earlier, FakeSmtpServer.Connection later) {
+        return TimeUnit.NANOSECONDS.toMillis(later.openedNanos() - earlier.openedNanos());
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met within 10 s");
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+}
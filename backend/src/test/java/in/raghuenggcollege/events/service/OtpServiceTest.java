@@ -0,0 +1,198 @@
+package in.raghuenggcollege.events.service;
+
+import in.raghuenggcollege.events.entity.VerificationToken;
+import in.raghuenggcollege.events.exception.RateLimitedException;
+import in.raghuenggcollege.events.repository.VerificationTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OtpServiceTest {
+
+    private static final String EMAIL = "student@raghuenggcollege.in";
+    private static final Pattern CODE = Pattern.compile("code is: (\\d{6})");
+
+    private MailDispatcher mailDispatcher;
+    private OtpService otpService;
+
+    @BeforeEach
+    void setUp() {
+        mailDispatcher = mock(MailDispatcher.class);
+        when(mailDispatcher.submit(any(), any())).thenReturn(true);
+        otpService = new OtpService(mock(VerificationTokenRepository.class), mailDispatcher,
+                mock(TransactionTemplate.class), new SimpleMeterRegistry(), mock(ClusterInvalidations.class));
+        configure(otpService);
+        otpService.init();
+    }
+
+    private static void configure(OtpService service) {
+        ReflectionTestUtils.setField(service, "ttlMinutes", 10L);
+        ReflectionTestUtils.setField(service, "maxAttempts", 3);
+        ReflectionTestUtils.setField(service, "perEmailCapacity", 2);
+        ReflectionTestUtils.setField(service, "perEmailPerMinute", 1);
+        ReflectionTestUtils.setField(service, "perIpCapacity", 3);
+        ReflectionTestUtils.setField(service, "perIpPerMinute", 1);
+    }
+
+    @Test
+    void correctCodeVerifiesOnce() {
+        String code = issue();
+
+        assertThatCode(() -> otpService.verify(" Student@RaghuEnggCollege.in ", code)).doesNotThrowAnyException();
+        assertThatThrownBy(() -> otpService.verify(EMAIL, code)).hasMessage("Invalid or expired OTP");
+    }
+
+    @Test
+    void tooManyWrongAttemptsBurnTheCode() {
+        String code = issue();
+        String wrong = code.equals("000000") ? "111111" : "000000";
+
+        assertThatThrownBy(() -> otpService.verify(EMAIL, wrong)).hasMessage("Invalid OTP");
+        assertThatThrownBy(() -> otpService.verify(EMAIL, wrong)).hasMessage("Invalid OTP");
+        assertThatThrownBy(() -> otpService.verify(EMAIL, wrong))
+                .hasMessage("Too many incorrect attempts. Please request a new code.");
+        // Even the right code is gone now
+        assertThatThrownBy(() -> otpService.verify(EMAIL, code)).hasMessage("Invalid or expired OTP");
+    }
+
+    @Test
+    void newCodeReplacesTheOldOneAndResetsAttempts() {
+        String first = issue();
+        String wrong = first.equals("000000") ? "111111" : "000000";
+        assertThatThrownBy(() -> otpService.verify(EMAIL, wrong)).hasMessage("Invalid OTP");
+        assertThatThrownBy(() -> otpService.verify(EMAIL, wrong)).hasMessage("Invalid OTP");
+
+        String second = issue();
+        String wrongAgain = second.equals("000000") ? "111111" : "000000";
+        assertThatThrownBy(() -> otpService.verify(EMAIL, wrongAgain)).hasMessage("Invalid OTP");
+        assertThatCode(() -> otpService.verify(EMAIL, second)).doesNotThrowAnyException();
+    }
+
+    // With persistence, guessing on several nodes still burns the code after maxAttempts in all
+    @Test
+    void persistedWrongAttemptsCountAcrossNodes() {
+        Map<String, VerificationToken> rows = new ConcurrentHashMap<>();
+        otpService = persistedNode(rows);
+        OtpService otherNode = persistedNode(rows);
+        String code = issue();
+        String wrong = code.equals("000000") ? "111111" : "000000";
+
+        assertThatThrownBy(() -> otpService.verify(EMAIL, wrong)).hasMessage("Invalid OTP");
+        assertThatThrownBy(() -> otherNode.verify(EMAIL, wrong)).hasMessage("Invalid OTP");
+        assertThat(rows.get(EMAIL).getFailedAttempts()).isEqualTo(2);
+        assertThatThrownBy(() -> otpService.verify(EMAIL, wrong))
+                .hasMessage("Too many incorrect attempts. Please request a new code.");
+        assertThat(rows).isEmpty();
+        assertThatThrownBy(() -> otherNode.verify(EMAIL, code)).hasMessage("Invalid or expired OTP");
+
+        // A new code starts counting again
+        String second = issue();
+        String wrongAgain = second.equals("000000") ? "111111" : "000000";
+        assertThatThrownBy(() -> otherNode.verify(EMAIL, wrongAgain)).hasMessage("Invalid OTP");
+        assertThat(rows.get(EMAIL).getFailedAttempts()).isEqualTo(1);
+        assertThatCode(() -> otherNode.verify(EMAIL, second)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void expiredCodeIsRejectedAndDiscarded() throws InterruptedException {
+        ReflectionTestUtils.setField(otpService, "ttlMinutes", 0L);
+        String code = issue();
+        Thread.sleep(5);
+
+        assertThatThrownBy(() -> otpService.verify(EMAIL, code)).hasMessage("OTP expired");
+        assertThatThrownBy(() -> otpService.verify(EMAIL, code)).hasMessage("Invalid or expired OTP");
+    }
+
+    @Test
+    void sweepRemovesExpiredCodes() throws InterruptedException {
+        ReflectionTestUtils.setField(otpService, "ttlMinutes", 0L);
+        String code = issue();
+        Thread.sleep(5);
+
+        otpService.sweep();
+
+        assertThatThrownBy(() -> otpService.verify(EMAIL, code)).hasMessage("Invalid or expired OTP");
+    }
+
+    @Test
+    void throttlesPerEmailAndPerIp() {
+        otpService.checkRate(EMAIL, "10.0.0.1");
+        otpService.checkRate(EMAIL, "10.0.0.2");
+        assertThatThrownBy(() -> otpService.checkRate(EMAIL, "10.0.0.3"))
+                .isInstanceOf(RateLimitedException.class)
+                .hasMessageStartingWith("A code was sent recently");
+
+        otpService.checkRate("a@raghuenggcollege.in", "10.0.0.9");
+        otpService.checkRate("b@raghuenggcollege.in", "10.0.0.9");
+        otpService.checkRate("c@raghuenggcollege.in", "10.0.0.9");
+        assertThatThrownBy(() -> otpService.checkRate("d@raghuenggcollege.in", "10.0.0.9"))
+                .isInstanceOf(RateLimitedException.class)
+                .satisfies(e -> assertThat(((RateLimitedException) e).getRetryAfterSeconds()).isPositive());
+    }
+
+    // A node with auth.otp.persist=true whose verification_tokens table is the given map
+    private OtpService persistedNode(Map<String, VerificationToken> rows) {
+        VerificationTokenRepository tokenRepository = mock(VerificationTokenRepository.class);
+        when(tokenRepository.findByEmail(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(rows.get(invocation.<String>getArgument(0))));
+        when(tokenRepository.save(any())).thenAnswer(invocation -> {
+            VerificationToken token = invocation.getArgument(0);
+            rows.put(token.getEmail(), token);
+            return token;
+        });
+        doAnswer(invocation -> rows.remove(invocation.<String>getArgument(0)))
+                .when(tokenRepository).deleteByEmail(anyString());
+        when(tokenRepository.incrementFailedAttempts(anyString(), anyString())).thenAnswer(invocation -> {
+            VerificationToken token = rows.get(invocation.<String>getArgument(0));
+            if (token == null || !token.getOtpCode().equals(invocation.getArgument(1))) {
+                return 0;
+            }
+            token.setFailedAttempts(token.getFailedAttempts() + 1);
+            return 1;
+        });
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        doCallRealMethod().when(transactionTemplate).executeWithoutResult(any());
+
+        OtpService node = new OtpService(tokenRepository, mailDispatcher, transactionTemplate,
+                new SimpleMeterRegistry(), mock(ClusterInvalidations.class));
+        configure(node);
+        ReflectionTestUtils.setField(node, "persist", true);
+        node.init();
+        return node;
+    }
+
+    // Issues a code and reads it back out of the queued email
+    private String issue() {
+        otpService.issue(EMAIL);
+        ArgumentCaptor<SimpleMailMessage> sent = ArgumentCaptor.forClass(SimpleMailMessage.class);
+        verify(mailDispatcher, atLeastOnce()).submit(sent.capture(), any());
+        Matcher matcher = CODE.matcher(sent.getValue().getText());
+        assertThat(matcher.find()).isTrue();
+        return matcher.group(1);
+    }
+}
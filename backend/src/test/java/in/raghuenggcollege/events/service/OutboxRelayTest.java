@@ -0,0 +1,105 @@
+package in.raghuenggcollege.events.service;
+
+import in.raghuenggcollege.events.entity.OutboxChannel;
+import in.raghuenggcollege.events.entity.OutboxMessage;
+import in.raghuenggcollege.events.entity.OutboxStatus;
+import in.raghuenggcollege.events.repository.OutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+    private OutboxRepository outboxRepository;
+    private MailDispatcher mailDispatcher;
+    private EventFanout eventFanout;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = mock(OutboxRepository.class);
+        mailDispatcher = mock(MailDispatcher.class);
+        eventFanout = mock(EventFanout.class);
+        relay = new OutboxRelay(outboxRepository, mailDispatcher, eventFanout,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(relay, "batchSize", 4);
+        ReflectionTestUtils.setField(relay, "leaseSeconds", 300L);
+        ReflectionTestUtils.setField(relay, "maxAttempts", 3);
+        ReflectionTestUtils.setField(relay, "requeueDelaySeconds", 5L);
+    }
+
+    @Test
+    void stopsAtTheFirstRejectionAndRequeuesTheRestInOneStatement() {
+        OutboxMessage broadcast = message(3, OutboxChannel.BROADCAST, 0);
+        when(outboxRepository.lockNextBatch(any(), anyInt())).thenReturn(List.of(
+                message(1, OutboxChannel.EMAIL, 0), message(2, OutboxChannel.EMAIL, 0),
+                broadcast, message(4, OutboxChannel.EMAIL, 0)));
+        when(mailDispatcher.submit(any(), any())).thenReturn(true, false);
+
+        relay.relay();
+
+        // A full batch would normally mean "claim another", but the queue is full
+        verify(outboxRepository, times(1)).lockNextBatch(any(), anyInt());
+        verify(mailDispatcher, times(2)).submit(any(), any());
+        verify(eventFanout, never()).publish(any(String.class), any());
+        verify(outboxRepository, times(1)).reschedule(eq(List.of(2L, 3L, 4L)), eq(OutboxStatus.PENDING),
+                any(LocalDateTime.class));
+    }
+
+    @Test
+    void keepsClaimingWhileBatchesComeBackFull() {
+        when(outboxRepository.lockNextBatch(any(), anyInt()))
+                .thenReturn(List.of(message(1, OutboxChannel.BROADCAST, 0), message(2, OutboxChannel.BROADCAST, 0),
+                        message(3, OutboxChannel.BROADCAST, 0), message(4, OutboxChannel.BROADCAST, 0)))
+                .thenReturn(List.of(message(5, OutboxChannel.BROADCAST, 0)));
+
+        relay.relay();
+
+        verify(outboxRepository, times(2)).lockNextBatch(any(), anyInt());
+        verify(eventFanout, times(5)).publish(any(), any());
+        verify(outboxRepository).updateStatus(List.of(1L, 2L, 3L, 4L, 5L), OutboxStatus.SENT);
+    }
+
+    @Test
+    void marksRowsFailedOnceTheyRunOutOfAttempts() {
+        OutboxMessage exhausted = message(1, OutboxChannel.EMAIL, 3);
+        OutboxMessage retried = message(2, OutboxChannel.EMAIL, 2);
+        when(outboxRepository.lockNextBatch(any(), anyInt())).thenReturn(List.of(exhausted, retried));
+        when(mailDispatcher.submit(any(), any())).thenReturn(true);
+
+        relay.relay();
+
+        assertThat(exhausted.getStatus()).isEqualTo(OutboxStatus.FAILED);
+        assertThat(exhausted.getAttempts()).isEqualTo(3);
+        assertThat(retried.getStatus()).isEqualTo(OutboxStatus.IN_FLIGHT);
+        assertThat(retried.getAttempts()).isEqualTo(3);
+        verify(mailDispatcher, times(1)).submit(any(), any());
+    }
+
+    private static OutboxMessage message(long id, OutboxChannel channel, int attempts) {
+        return OutboxMessage.builder()
+                .id(id)
+                .channel(channel)
+                .destination(channel == OutboxChannel.EMAIL ? "student" + id + "@raghuenggcollege.in" : "/topic/events")
+                .subject("Subject")
+                .body("{}")
+                .attempts(attempts)
+                .availableAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,173 @@
+package in.raghuenggcollege.events.service;
+
+import in.raghuenggcollege.events.dto.RegistrationTicket;
+import in.raghuenggcollege.events.entity.AdmissionTicket;
+import in.raghuenggcollege.events.entity.Registration;
+import in.raghuenggcollege.events.entity.RegistrationStatus;
+import in.raghuenggcollege.events.repository.AdmissionTicketRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RegistrationAdmissionQueueTest {
+
+    private final CountDownLatch registering = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicLong ids = new AtomicLong();
+    // Stands in for the admission_tickets table both "nodes" share
+    private final Map<String, AdmissionTicket> table = new ConcurrentHashMap<>();
+    private SimpMessagingTemplate messagingTemplate;
+    private AdmissionTicketRepository ticketRepository;
+    private TransactionTemplate transactionTemplate;
+    private RegistrationAdmissionQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        RegistrationService registrationService = mock(RegistrationService.class);
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        // Registrations hold until the test releases them
+        when(registrationService.registerUser(anyLong(), anyString())).thenAnswer(invocation -> {
+            registering.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return Registration.builder().id(ids.incrementAndGet()).status(RegistrationStatus.CONFIRMED).build();
+        });
+        ticketRepository = mock(AdmissionTicketRepository.class);
+        when(ticketRepository.save(any())).thenAnswer(invocation -> {
+            AdmissionTicket ticket = invocation.getArgument(0);
+            table.put(ticket.getTicketId(), ticket);
+            return ticket;
+        });
+        when(ticketRepository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(table.get(invocation.<String>getArgument(0))));
+        transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        queue = newNode(registrationService);
+    }
+
+    private RegistrationAdmissionQueue newNode(RegistrationService registrationService) {
+        RegistrationAdmissionQueue node = new RegistrationAdmissionQueue(registrationService, messagingTemplate,
+                ticketRepository, transactionTemplate);
+        ReflectionTestUtils.setField(node, "enabled", true);
+        ReflectionTestUtils.setField(node, "workers", 2);
+        ReflectionTestUtils.setField(node, "maxPendingPerEvent", 100);
+        ReflectionTestUtils.setField(node, "ticketTtlMinutes", 30L);
+        node.start();
+        return node;
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        queue.stop();
+    }
+
+    @Test
+    void outcomeIsPushedToTheUsersQueue() {
+        release.countDown();
+        RegistrationTicket ticket = queue.submit(7L, "student@raghuenggcollege.in");
+
+        verify(messagingTemplate, timeout(5000)).convertAndSendToUser(eq("student@raghuenggcollege.in"),
+                eq(RegistrationAdmissionQueue.TICKET_QUEUE),
+                argThat(sent -> sent instanceof RegistrationTicket done
+                        && done.getTicketId().equals(ticket.getTicketId())
+                        && done.getStatus() == RegistrationTicket.Status.CONFIRMED));
+    }
+
+    // The outcome is in the table, so a node that never saw the intent can answer for it
+    @Test
+    void decidedTicketCanBeReadOnAnyNode() throws Exception {
+        RegistrationAdmissionQueue otherNode = newNode(mock(RegistrationService.class));
+        try {
+            release.countDown();
+            RegistrationTicket ticket = queue.submit(7L, "student@raghuenggcollege.in");
+            awaitDecided(ticket, "student@raghuenggcollege.in");
+
+            RegistrationTicket read = otherNode.getTicket(ticket.getTicketId(), "student@raghuenggcollege.in");
+            assertThat(read.getStatus()).isEqualTo(RegistrationTicket.Status.CONFIRMED);
+            assertThat(read.getRegistrationId()).isNotNull();
+            assertThatThrownBy(() -> otherNode.getTicket(ticket.getTicketId(), "other@raghuenggcollege.in"))
+                    .hasMessage("Ticket not found");
+        } finally {
+            otherNode.stop();
+        }
+    }
+
+    @Test
+    void expiryKeepsLanesWithWorkAndDropsIdleOnes() throws Exception {
+        RegistrationTicket first = queue.submit(7L, "a@raghuenggcollege.in");
+        RegistrationTicket second = queue.submit(7L, "b@raghuenggcollege.in");
+        assertThat(registering.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // One intent is being registered and one waits behind it: the lane stays
+        queue.expireTickets();
+        assertThat(lanes()).containsKey(7L);
+        assertThat(queue.getTicket(second.getTicketId(), "b@raghuenggcollege.in").getPosition()).isEqualTo(1);
+
+        release.countDown();
+        awaitDecided(first, "a@raghuenggcollege.in");
+        awaitDecided(second, "b@raghuenggcollege.in");
+        awaitCondition(() -> {
+            queue.expireTickets();
+            return lanes().isEmpty();
+        });
+
+        // A fresh lane starts counting positions from zero again
+        RegistrationTicket third = queue.submit(7L, "c@raghuenggcollege.in");
+        assertThat(third.getPosition()).isZero();
+    }
+
+    @Test
+    void rejectsIntentsBeyondTheLaneCapacity() throws Exception {
+        ReflectionTestUtils.setField(queue, "maxPendingPerEvent", 2);
+        queue.submit(7L, "a@raghuenggcollege.in");
+        queue.submit(7L, "b@raghuenggcollege.in");
+
+        RegistrationTicket rejected = queue.submit(7L, "c@raghuenggcollege.in");
+
+        assertThat(rejected.getStatus()).isEqualTo(RegistrationTicket.Status.REJECTED);
+        assertThat(queue.submit(8L, "c@raghuenggcollege.in").getStatus()).isEqualTo(RegistrationTicket.Status.QUEUED);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, ?> lanes() {
+        return (Map<Long, ?>) ReflectionTestUtils.getField(queue, "lanes");
+    }
+
+    private void awaitDecided(RegistrationTicket ticket, String email) throws InterruptedException {
+        awaitCondition(() -> queue.getTicket(ticket.getTicketId(), email).getStatus()
+                == RegistrationTicket.Status.CONFIRMED);
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime() - deadline).as("timed out").isNegative();
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package in.raghuenggcollege.events.service;
+
+import in.raghuenggcollege.events.entity.Event;
+import in.raghuenggcollege.events.entity.ReminderSent;
+import in.raghuenggcollege.events.entity.ReminderType;
+import in.raghuenggcollege.events.repository.EventRepository;
+import in.raghuenggcollege.events.repository.ReminderSentRepository;
+import in.raghuenggcollege.events.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Each "node" is its own ReminderService over the shared database, as another
+// JVM would be; only the mail side is mocked. Reminders that are due now or a
+// little late fire straight away, so nothing here waits for a fire time.
+@SpringBootTest
+@ActiveProfiles("test")
+class ReminderServiceTest {
+
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private ReminderSentRepository reminderSentRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final NotificationService notificationService = mock(NotificationService.class);
+    private final List<ReminderService> nodes = new ArrayList<>();
+    private final List<MeterRegistry> registries = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // Holds the claim's transaction open a moment, so a competing claim overlaps it
+        when(notificationService.emailRegistrants(anyLong(), anyString(), any())).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            return 1;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(ReminderService::stop);
+    }
+
+    @Test
+    void reminderClaimedByTwoNodesIsSentOnce() {
+        LocalDateTime startTime = LocalDateTime.now().plusMinutes(14); // The 15 minute reminder is due
+        Event event = createEvent(startTime);
+        ReminderService first = newNode();
+        ReminderService second = newNode();
+
+        first.schedule(event.getId(), startTime);
+        second.schedule(event.getId(), startTime);
+
+        awaitCondition(() -> dispatched("sent") + dispatched("duplicate") == 2);
+        assertThat(dispatched("sent")).isEqualTo(1);
+        assertThat(dispatched("duplicate")).isEqualTo(1);
+        verify(notificationService, times(1)).emailRegistrants(eq(event.getId()), anyString(), any());
+        assertThat(claims(event)).extracting(ReminderSent::getReminderType)
+                .containsExactly(ReminderType.QUARTER_HOUR_BEFORE);
+    }
+
+    // A reminder missed by more than a quarter of its offset is dropped, not sent late
+    @Test
+    void reminderMoreThanAQuarterOfItsOffsetLateIsSkipped() {
+        LocalDateTime tooLate = LocalDateTime.now().plusMinutes(10); // 15 min reminder 5 min late
+        LocalDateTime stillTimely = LocalDateTime.now().plusMinutes(50); // 1 h reminder 10 min late
+        Event skipped = createEvent(tooLate);
+        Event sent = createEvent(stillTimely);
+        ReminderService node = newNode();
+
+        node.schedule(skipped.getId(), tooLate);
+        node.schedule(sent.getId(), stillTimely);
+
+        awaitCondition(() -> dispatched("sent") == 1);
+        assertThat(claims(skipped)).isEmpty();
+        assertThat(claims(sent)).extracting(ReminderSent::getReminderType)
+                .containsExactly(ReminderType.HOUR_BEFORE);
+        assertThat(pending(node)).isEqualTo(1); // The 15 minute reminder of the timely event
+    }
+
+    @Test
+    void movingTheStartTimeReschedulesTheReminder() {
+        Event event = createEvent(LocalDateTime.now().plusHours(2));
+        ReminderService node = newNode();
+        node.schedule(event.getId(), event.getStartTime());
+        assertThat(pending(node)).isEqualTo(2); // 1 h and 15 min; the 24 h one is long past
+
+        LocalDateTime movedTo = LocalDateTime.now().plusMinutes(14);
+        event.setStartTime(movedTo);
+        eventRepository.save(event);
+        node.reload(List.of(event.getId()));
+
+        awaitCondition(() -> dispatched("sent") == 1);
+        assertThat(claims(event)).singleElement().satisfies(claim -> {
+            assertThat(claim.getReminderType()).isEqualTo(ReminderType.QUARTER_HOUR_BEFORE);
+            assertThat(claim.getEventStartTime()).isCloseTo(movedTo, within(1, ChronoUnit.SECONDS));
+        });
+        assertThat(pending(node)).isZero(); // The old 1 h reminder went with the old start time
+    }
+
+    // A node that has not heard of the move yet fires for the old time and sends nothing
+    @Test
+    void reminderForAnOutdatedStartTimeIsNotSent() {
+        Event event = createEvent(LocalDateTime.now().plusHours(5));
+        ReminderService node = newNode();
+
+        node.schedule(event.getId(), LocalDateTime.now().plusMinutes(14));
+
+        awaitCondition(() -> dispatched("skipped") == 1);
+        assertThat(claims(event)).isEmpty();
+        verify(notificationService, never()).emailRegistrants(anyLong(), anyString(), any());
+    }
+
+    @Test
+    void deletingAnEventDropsItsReminders() {
+        Event event = createEvent(LocalDateTime.now().plusHours(2));
+        ReminderService node = newNode();
+        node.schedule(event.getId(), event.getStartTime());
+        assertThat(pending(node)).isEqualTo(2);
+
+        eventRepository.delete(event);
+        node.reload(List.of(event.getId()));
+        assertThat(pending(node)).isZero();
+
+        // Deleted before the news arrived: fires, finds nothing, sends nothing
+        node.schedule(event.getId(), LocalDateTime.now().plusMinutes(14));
+        awaitCondition(() -> dispatched("skipped") == 1);
+        assertThat(claims(event)).isEmpty();
+        verify(notificationService, never()).emailRegistrants(anyLong(), anyString(), any());
+    }
+
+    private ReminderService newNode() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        ReminderService node = new ReminderService(eventRepository, reminderSentRepository, notificationService,
+                transactionTemplate, registry);
+        ReflectionTestUtils.setField(node, "horizonHours", 2L);
+        node.start();
+        nodes.add(node);
+        registries.add(registry);
+        return node;
+    }
+
+    // Across every node's reminders.dispatch timers
+    private long dispatched(String outcome) {
+        return registries.stream()
+                .flatMap(registry -> registry.find("reminders.dispatch").tag("outcome", outcome).timers().stream())
+                .mapToLong(Timer::count)
+                .sum();
+    }
+
+    private static int pending(ReminderService node) {
+        return ((Map<?, ?>) ReflectionTestUtils.getField(node, "scheduled")).size();
+    }
+
+    private List<ReminderSent> claims(Event event) {
+        return reminderSentRepository.findAll().stream()
+                .filter(claim -> claim.getEventId().equals(event.getId()))
+                .toList();
+    }
+
+    private Event createEvent(LocalDateTime startTime) {
+        return eventRepository.save(Event.builder()
+                .title("Reminder check")
+                .startTime(startTime)
+                .endTime(startTime.plusHours(2))
+                .venue("Seminar Hall")
+                .capacity(50)
+                .department("CSE")
+                .createdBy(userRepository.findByEmail("admin@raghuenggcollege.in").orElseThrow())
+                .build());
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met within 10 s");
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+}
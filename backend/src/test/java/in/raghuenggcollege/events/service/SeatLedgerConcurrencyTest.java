@@ -0,0 +1,144 @@
+package in.raghuenggcollege.events.service;
+
+import in.raghuenggcollege.events.entity.Event;
+import in.raghuenggcollege.events.entity.RegistrationStatus;
+import in.raghuenggcollege.events.repository.EventRepository;
+import in.raghuenggcollege.events.repository.RegistrationRepository;
+import in.raghuenggcollege.events.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 10k students race for 500 seats through two "replicas": the application's
+// RegistrationService and a second one with its own SeatLedger and
+// WaitlistEngine, as another JVM would have. Meanwhile the ledgers are evicted
+// over and over, as drift repair and event deletion do. Exactly 500 must be
+// CONFIRMED.
+@SpringBootTest
+@ActiveProfiles("test")
+class SeatLedgerConcurrencyTest {
+
+    private static final int STUDENTS = 10_000;
+    private static final int SEATS = 500;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private RegistrationService registrationService;
+    @Autowired
+    private SeatLedger seatLedger;
+    @Autowired
+    private RegistrationRepository registrationRepository;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private NotificationService notificationService;
+    @Autowired
+    private MyRegistrationsCache myRegistrationsCache;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private ClusterInvalidations clusterInvalidations;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void neverConfirmsMoreThanCapacity() throws Exception {
+        Event event = eventRepository.save(Event.builder()
+                .title("Seat race")
+                .startTime(LocalDateTime.now().plusDays(7))
+                .endTime(LocalDateTime.now().plusDays(7).plusHours(2))
+                .venue("Main Auditorium")
+                .capacity(SEATS)
+                .department("CSE")
+                .createdBy(userRepository.findByEmail("admin@raghuenggcollege.in").orElseThrow())
+                .build());
+        List<String> emails = seedStudents();
+
+        SeatLedger otherLedger = new SeatLedger(eventRepository);
+        ReflectionTestUtils.setField(otherLedger, "fullHintMs", 500L);
+        WaitlistEngine otherWaitlist = new WaitlistEngine(registrationRepository, otherLedger, notificationService,
+                myRegistrationsCache, clusterInvalidations);
+        RegistrationService otherNode = new RegistrationService(registrationRepository, eventRepository,
+                userRepository, notificationService, otherLedger, otherWaitlist, myRegistrationsCache,
+                clusterInvalidations, meterRegistry);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread evictor = new Thread(() -> {
+            while (running.get()) {
+                seatLedger.evictAll();
+                otherLedger.evict(event.getId());
+                Thread.onSpinWait();
+            }
+        });
+        evictor.start();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<RegistrationStatus>> results = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            String email = emails.get(i);
+            boolean firstNode = i % 2 == 0;
+            results.add(pool.submit(() -> {
+                start.await();
+                return firstNode
+                        ? registrationService.registerUser(event.getId(), email).getStatus()
+                        : transactionTemplate.execute(status -> otherNode.registerUser(event.getId(), email).getStatus());
+            }));
+        }
+        start.countDown();
+
+        int confirmed = 0;
+        int waitlisted = 0;
+        for (Future<RegistrationStatus> result : results) {
+            RegistrationStatus status = result.get(5, TimeUnit.MINUTES);
+            if (status == RegistrationStatus.CONFIRMED) {
+                confirmed++;
+            } else if (status == RegistrationStatus.WAITLIST) {
+                waitlisted++;
+            }
+        }
+        running.set(false);
+        evictor.join();
+        pool.shutdown();
+
+        assertThat(confirmed).isEqualTo(SEATS);
+        assertThat(waitlisted).isEqualTo(STUDENTS - SEATS);
+        Map<String, Object> counts = jdbcTemplate.queryForMap(
+                "SELECT (SELECT confirmed_count FROM events WHERE id = ?) AS counter, "
+                        + "(SELECT COUNT(*) FROM registrations WHERE event_id = ? AND status = 'CONFIRMED') AS booked",
+                event.getId(), event.getId());
+        assertThat(((Number) counts.get("counter")).longValue()).isEqualTo(SEATS);
+        assertThat(((Number) counts.get("booked")).longValue()).isEqualTo(SEATS);
+    }
+
+    private List<String> seedStudents() {
+        List<String> emails = new ArrayList<>(STUDENTS);
+        List<Object[]> rows = new ArrayList<>(STUDENTS);
+        for (int i = 0; i < STUDENTS; i++) {
+            String email = "seat.race." + i + "@raghuenggcollege.in";
+            emails.add(email);
+            rows.add(new Object[] { email, "{noop}unused", "Student " + i });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (email, password, full_name, role, department, is_verified, "
+                + "created_at) VALUES (?, ?, ?, 'STUDENT', 'CSE', TRUE, CURRENT_TIMESTAMP)", rows);
+        return emails;
+    }
+}
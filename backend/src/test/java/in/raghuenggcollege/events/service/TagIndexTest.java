@@ -0,0 +1,129 @@
+package in.raghuenggcollege.events.service;
+
+import in.raghuenggcollege.events.entity.Event;
+import in.raghuenggcollege.events.repository.EventRepository;
+import in.raghuenggcollege.events.repository.EventTagRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+// The in-memory side of TagIndex; outside a transaction every change is indexed straight away
+class TagIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    private TagIndex tagIndex;
+
+    @BeforeEach
+    void setUp() {
+        tagIndex = new TagIndex(mock(EventTagRepository.class), mock(EventRepository.class), mock(JdbcTemplate.class));
+    }
+
+    // Long and short posting lists give the same answer whichever order they are combined in
+    @Test
+    void combinesPostingListsOfDifferentLengths() {
+        LongStream.rangeClosed(1, 200).forEach(id -> save(id, id % 50 == 0 ? "common, rare" : "common"));
+        save(201, "rare");
+        save(202, "other");
+
+        assertThat(tagIndex.allOf(List.of("common", "rare"))).containsExactly(50, 100, 150, 200);
+        assertThat(tagIndex.allOf(List.of("rare", "common"))).containsExactly(50, 100, 150, 200);
+        assertThat(tagIndex.anyOf(List.of("rare", "other"))).containsExactly(50, 100, 150, 200, 201, 202);
+        assertThat(tagIndex.anyOf(List.of("common", "other"))).hasSize(201).startsWith(1, 2).endsWith(200, 202);
+        assertThat(tagIndex.matching(List.of("common"), List.of("rare", "other"))).containsExactly(50, 100, 150, 200);
+        assertThat(tagIndex.matching(List.of("common", "missing"), List.of())).isEmpty();
+    }
+
+    @Test
+    void duplicateTagsCountOnce() {
+        save(1, "AI, ai , Ai,ML");
+        save(1, "AI, ai , Ai,ML"); // Saved again unchanged
+
+        assertThat(TagIndex.parse("AI, ai , Ai,ML")).containsExactly("ai", "ml");
+        assertThat(tagIndex.allOf(List.of("ai", "AI", " ai "))).containsExactly(1);
+        assertThat(tagIndex.anyOf(List.of("ai", "ml", "ai"))).containsExactly(1);
+        assertThat(tagIndex.facetCounts(NOW)).containsExactly(entry("ai", 1), entry("ml", 1));
+    }
+
+    @Test
+    void eventsWithoutTagsAndEmptyQueriesMatchNothing() {
+        save(1, null);
+        save(2, " , ,");
+        save(3, "ai");
+
+        assertThat(TagIndex.parse(" , ,")).isEmpty();
+        assertThat(tagIndex.allOf(List.of())).isEmpty();
+        assertThat(tagIndex.anyOf(List.of())).isEmpty();
+        assertThat(tagIndex.matching(List.of(), List.of())).isEmpty();
+        assertThat(tagIndex.allOf(List.of(""))).isEmpty();
+        assertThat(tagIndex.facetCounts(NOW)).containsOnlyKeys("ai");
+    }
+
+    @Test
+    void retaggingMovesTheEventBetweenTags() {
+        save(1, "ai, ml");
+        save(2, "ai");
+
+        save(1, "ml, robotics");
+
+        assertThat(tagIndex.allOf(List.of("ai"))).containsExactly(2);
+        assertThat(tagIndex.allOf(List.of("ml", "robotics"))).containsExactly(1);
+        assertThat(tagIndex.matching(List.of("ai"), List.of("ml"))).isEmpty();
+
+        save(1, "");
+        assertThat(tagIndex.anyOf(List.of("ml", "robotics"))).isEmpty();
+    }
+
+    @Test
+    void deletedEventsLeaveTheIndex() {
+        save(1, "ai");
+        save(2, "ai, ml");
+
+        tagIndex.deleteTags(2L);
+
+        assertThat(tagIndex.allOf(List.of("ai"))).containsExactly(1);
+        assertThat(tagIndex.anyOf(List.of("ml"))).isEmpty();
+        assertThat(tagIndex.facetCounts(NOW)).containsExactly(entry("ai", 1));
+
+        tagIndex.deleteTags(1L);
+        tagIndex.deleteTags(99L); // Never indexed
+        assertThat(tagIndex.facetCounts(NOW)).isEmpty();
+    }
+
+    @Test
+    void facetCountsFollowUpdatesAndStartTimes() {
+        save(1, "ai, ml", NOW.plusDays(1));
+        save(2, "ai", NOW.plusDays(2));
+        save(3, "ml", NOW.plusDays(3));
+        save(4, "ai", NOW.minusDays(1)); // Already started
+        assertThat(tagIndex.facetCounts(NOW)).containsExactly(entry("ai", 2), entry("ml", 2));
+
+        save(3, "ai, ml", NOW.plusDays(3));
+        assertThat(tagIndex.facetCounts(NOW)).containsExactly(entry("ai", 3), entry("ml", 2));
+
+        save(1, "ml", NOW.minusDays(2)); // Moved into the past
+        tagIndex.deleteTags(2L);
+        assertThat(tagIndex.facetCounts(NOW)).containsExactly(entry("ai", 1), entry("ml", 1));
+        assertThat(tagIndex.facetCounts(NOW.minusDays(3))).containsExactly(entry("ai", 2), entry("ml", 2));
+    }
+
+    private void save(long id, String tags) {
+        save(id, tags, NOW.plusDays(7));
+    }
+
+    private void save(long id, String tags, LocalDateTime startTime) {
+        tagIndex.saveTags(Event.builder().id(id).tags(tags).startTime(startTime).build());
+    }
+
+    private static Map.Entry<String, Integer> entry(String tag, int count) {
+        return Map.entry(tag, count);
+    }
+}
@@ -0,0 +1,204 @@
+package in.raghuenggcollege.events.service;
+
+import in.raghuenggcollege.events.entity.TokenRevocation;
+import in.raghuenggcollege.events.repository.TokenRevocationRepository;
+import in.raghuenggcollege.events.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationListTest {
+
+    private static final long HOUR_MILLIS = 3_600_000;
+    private static final String EMAIL = "student@raghuenggcollege.in";
+
+    // Stands in for the token_revocations table shared by the nodes
+    private final List<TokenRevocation> table = new CopyOnWriteArrayList<>();
+    private TokenRevocationRepository repository;
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(TokenRevocationRepository.class);
+        when(repository.save(any())).thenAnswer(invocation -> {
+            TokenRevocation row = invocation.getArgument(0);
+            row.setCreatedAt(LocalDateTime.now());
+            table.add(row);
+            return row;
+        });
+        when(repository.findActiveSince(any(), any())).thenAnswer(invocation -> {
+            LocalDateTime since = invocation.getArgument(0);
+            LocalDateTime now = invocation.getArgument(1);
+            return table.stream()
+                    .filter(row -> !row.getCreatedAt().isBefore(since) && row.getExpiresAt().isAfter(now))
+                    .toList();
+        });
+        jwtUtil = mock(JwtUtil.class);
+        when(jwtUtil.getExpirationMillis()).thenReturn(HOUR_MILLIS);
+    }
+
+    @Test
+    void revokedTokenSurvivesOneRotationButNotTwo() {
+        TokenRevocationList revocations = node();
+        Claims token = token(System.currentTimeMillis());
+        Claims other = token(System.currentTimeMillis());
+
+        revocations.revoke(token);
+        assertThat(revocations.isRevoked(token)).isTrue();
+        assertThat(revocations.isRevoked(other)).isFalse();
+
+        revocations.rotate();
+        assertThat(revocations.isRevoked(token)).isTrue();
+
+        revocations.rotate();
+        assertThat(revocations.isRevoked(token)).isFalse();
+    }
+
+    @Test
+    void revokeAllBlocksTokensIssuedUpToTheCutOff() {
+        TokenRevocationList revocations = node();
+        long now = System.currentTimeMillis();
+        Claims earlier = token(now - 60_000);
+
+        revocations.revokeAll(EMAIL);
+        long cutOff = table.get(0).getRevokedBefore();
+
+        assertThat(revocations.isRevoked(earlier)).isTrue();
+        assertThat(revocations.isRevoked(token(cutOff))).isTrue();
+        // Signed in again a moment later, within the same second as the revocation
+        assertThat(revocations.isRevoked(token(cutOff + 1))).isFalse();
+        Claims someoneElse = Jwts.claims().setSubject("other@raghuenggcollege.in").setIssuedAt(new Date(now - 60_000));
+        assertThat(revocations.isRevoked(someoneElse)).isFalse();
+    }
+
+    @Test
+    void tokenSignedJustAfterRevokeAllIsAccepted() {
+        JwtUtil issuer = new JwtUtil();
+        ReflectionTestUtils.setField(issuer, "secret", "a_test_secret_that_is_long_enough_for_hmac_sha_256");
+        ReflectionTestUtils.setField(issuer, "jwtExpiration", HOUR_MILLIS);
+        issuer.init();
+        UserDetails user = User.withUsername(EMAIL).password("unused").authorities(List.of()).build();
+        Claims before = issuer.parseToken(issuer.generateToken(user));
+        TokenRevocationList revocations = node();
+
+        revocations.revokeAll(EMAIL);
+        long cutOff = table.get(0).getRevokedBefore();
+        while (System.currentTimeMillis() <= cutOff) {
+            Thread.onSpinWait(); // A real sign-in takes a password check; here the next millisecond will do
+        }
+        Claims after = issuer.parseToken(issuer.generateToken(user));
+
+        assertThat(revocations.isRevoked(before)).isTrue();
+        assertThat(revocations.isRevoked(after)).isFalse();
+    }
+
+    // Tokens without iat_ms and rows holding epoch seconds still block the whole second
+    @Test
+    void secondResolutionIssueTimesAndCutOffsStillApply() {
+        TokenRevocationList revocations = node();
+        revocations.revokeAll(EMAIL);
+        long cutOffSecond = table.get(0).getRevokedBefore() / 1000;
+
+        assertThat(revocations.isRevoked(tokenWithoutMillis(cutOffSecond * 1000 + 999))).isTrue();
+        assertThat(revocations.isRevoked(tokenWithoutMillis((cutOffSecond + 1) * 1000))).isFalse();
+
+        table.clear();
+        table.add(TokenRevocation.builder()
+                .email(EMAIL)
+                .revokedBefore(cutOffSecond)
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .createdAt(LocalDateTime.now())
+                .build());
+        TokenRevocationList restarted = node();
+        assertThat(restarted.isRevoked(token(cutOffSecond * 1000 + 999))).isTrue();
+        assertThat(restarted.isRevoked(token((cutOffSecond + 1) * 1000))).isFalse();
+    }
+
+    @Test
+    void revokeAllCutOffIsKeptForATokenLifetime() {
+        TokenRevocationList revocations = node();
+        Claims earlier = token(System.currentTimeMillis() - 60_000);
+        revocations.revokeAll(EMAIL);
+
+        revocations.rotate();
+        assertThat(revocations.isRevoked(earlier)).isTrue();
+
+        // Once every token from before the cut-off has expired, the entry goes
+        when(jwtUtil.getExpirationMillis()).thenReturn(-HOUR_MILLIS);
+        revocations.rotate();
+        assertThat(revocations.isRevoked(earlier)).isFalse();
+    }
+
+    @Test
+    void otherNodesPickUpRevocationsWhenTheyPoll() {
+        TokenRevocationList nodeA = node();
+        TokenRevocationList nodeB = node();
+        Claims token = token(System.currentTimeMillis());
+        Claims earlier = Jwts.claims().setSubject("other@raghuenggcollege.in")
+                .setIssuedAt(new Date(System.currentTimeMillis() - 60_000));
+
+        nodeA.revoke(token);
+        nodeA.revokeAll("other@raghuenggcollege.in");
+        assertThat(nodeB.isRevoked(token)).isFalse();
+        assertThat(nodeB.isRevoked(earlier)).isFalse();
+
+        nodeB.poll();
+        assertThat(nodeB.isRevoked(token)).isTrue();
+        assertThat(nodeB.isRevoked(earlier)).isTrue();
+    }
+
+    @Test
+    void restartedNodeLoadsLiveRevocations() {
+        Claims token = token(System.currentTimeMillis());
+        node().revoke(token);
+        Claims expired = token(System.currentTimeMillis() - 2 * HOUR_MILLIS);
+        node().revoke(expired);
+
+        TokenRevocationList restarted = node();
+
+        assertThat(restarted.isRevoked(token)).isTrue();
+        assertThat(restarted.isRevoked(expired)).isFalse();
+    }
+
+    private TokenRevocationList node() {
+        TokenRevocationList revocations = new TokenRevocationList(jwtUtil, repository,
+                mock(TransactionTemplate.class), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(revocations, "expectedPerPeriod", 1000);
+        ReflectionTestUtils.setField(revocations, "falsePositiveRate", 0.0001);
+        revocations.init();
+        return revocations;
+    }
+
+    // As JwtUtil issues them
+    private static Claims token(long issuedAtMillis) {
+        Claims claims = tokenWithoutMillis(issuedAtMillis);
+        claims.put(JwtUtil.ISSUED_AT_MILLIS, issuedAtMillis);
+        return claims;
+    }
+
+    // As issued before iat_ms was added; iat is whole seconds
+    private static Claims tokenWithoutMillis(long issuedAtMillis) {
+        return Jwts.claims()
+                .setSubject(EMAIL)
+                .setId(UUID.randomUUID().toString())
+                .setIssuedAt(new Date(issuedAtMillis))
+                .setExpiration(new Date(issuedAtMillis + HOUR_MILLIS));
+    }
+}
@@ -0,0 +1,210 @@
+package in.raghuenggcollege.events.service;
+
+import in.raghuenggcollege.events.entity.Event;
+import in.raghuenggcollege.events.entity.Registration;
+import in.raghuenggcollege.events.entity.RegistrationStatus;
+import in.raghuenggcollege.events.repository.EventRepository;
+import in.raghuenggcollege.events.repository.RegistrationRepository;
+import in.raghuenggcollege.events.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Property: whatever mix of registrations, cancellations and re-registrations
+// happens, on whichever of two nodes, the waitlist is first come first served. The second node is a RegistrationService with its own
+// SeatLedger and WaitlistEngine, as another JVM would have. Each seed drives a
+// random sequence against a small event and checks the database after every
+// step against a plain queue model: the CONFIRMED set matches, and the
+// waitlist, read in promotion order, matches the model queue. A re-registration
+// goes to the back. "Event full" hints are off here: a node's hint may be
+// stale after the other node frees a seat, which the sweep repairs later
+// (staleFullHintIsRepairedBySweep), not within the step the model checks.
+@SpringBootTest
+@ActiveProfiles("test")
+class WaitlistFifoPropertyTest {
+
+    private static final int SEEDS = 25;
+    private static final int STEPS = 80;
+    private static final int CAPACITY = 3;
+    private static final int STUDENTS = 10;
+
+    @Autowired
+    private RegistrationService registrationService;
+    @Autowired
+    private SeatLedger seatLedger;
+    @Autowired
+    private NotificationService notificationService;
+    @Autowired
+    private MyRegistrationsCache myRegistrationsCache;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private ClusterInvalidations clusterInvalidations;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private RegistrationRepository registrationRepository;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EventCounterReconciler eventCounterReconciler;
+
+    private final List<String> students = new ArrayList<>();
+    private Object appHintMs;
+    private SeatLedger otherLedger;
+    private RegistrationService otherNode;
+
+    @BeforeEach
+    void seedStudents() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            String email = "fifo." + i + "@raghuenggcollege.in";
+            if (userRepository.findByEmail(email).isEmpty()) {
+                rows.add(new Object[] { email, "{noop}unused", "Student " + i });
+            }
+            students.add(email);
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (email, password, full_name, role, department, is_verified, "
+                + "created_at) VALUES (?, ?, ?, 'STUDENT', 'CSE', TRUE, CURRENT_TIMESTAMP)", rows);
+
+        appHintMs = ReflectionTestUtils.getField(seatLedger, "fullHintMs");
+        ReflectionTestUtils.setField(seatLedger, "fullHintMs", 0L);
+        otherLedger = new SeatLedger(eventRepository);
+        ReflectionTestUtils.setField(otherLedger, "fullHintMs", 0L);
+        WaitlistEngine otherWaitlist = new WaitlistEngine(registrationRepository, otherLedger, notificationService,
+                myRegistrationsCache, clusterInvalidations);
+        otherNode = new RegistrationService(registrationRepository, eventRepository, userRepository,
+                notificationService, otherLedger, otherWaitlist, myRegistrationsCache, clusterInvalidations,
+                meterRegistry);
+    }
+
+    @AfterEach
+    void restoreHints() {
+        ReflectionTestUtils.setField(seatLedger, "fullHintMs", appHintMs);
+    }
+
+    @Test
+    void waitlistIsFirstComeFirstServed() {
+        for (long seed = 1; seed <= SEEDS; seed++) {
+            run(seed, CAPACITY);
+        }
+    }
+
+    // Node A still believes the event is full after node B freed the seat, so
+    // A waitlists a newcomer; the sweep then moves them into the free seat
+    @Test
+    void staleFullHintIsRepairedBySweep() {
+        ReflectionTestUtils.setField(seatLedger, "fullHintMs", 60_000L);
+        Event event = newEvent(0, 1);
+        Long eventId = event.getId();
+        Registration first = transactionTemplate.execute(status -> otherNode.registerUser(eventId, students.get(0)));
+        assertThat(registrationService.registerUser(eventId, students.get(1)).getStatus())
+                .isEqualTo(RegistrationStatus.WAITLIST); // Node A now holds a full hint
+        registrationService.cancelRegistration(
+                registrationRepository.findIdsByEventAndStatus(eventId, RegistrationStatus.WAITLIST).get(0),
+                students.get(1));
+
+        transactionTemplate.executeWithoutResult(
+                status -> otherNode.cancelRegistration(first.getId(), students.get(0)));
+        Registration late = registrationService.registerUser(eventId, students.get(2));
+        assertThat(late.getStatus()).isEqualTo(RegistrationStatus.WAITLIST);
+
+        eventCounterReconciler.fillFreeSeats();
+
+        assertThat(idsWithStatus(eventId, "CONFIRMED")).containsExactly(late.getId());
+        assertThat(registrationRepository.findIdsByEventAndStatus(eventId, RegistrationStatus.WAITLIST)).isEmpty();
+    }
+
+    private void run(long seed, int capacity) {
+        Random random = new Random(seed);
+        Event event = newEvent(seed, capacity);
+        Long eventId = event.getId();
+
+        Map<String, Long> registrationIds = new HashMap<>();
+        Set<Long> confirmed = new HashSet<>();
+        List<Long> queue = new ArrayList<>(); // Model waitlist, head first
+
+        for (int step = 0; step < STEPS; step++) {
+            String student = students.get(random.nextInt(STUDENTS));
+            Long registrationId = registrationIds.get(student);
+            boolean active = registrationId != null
+                    && (confirmed.contains(registrationId) || queue.contains(registrationId));
+            boolean onOtherNode = random.nextBoolean();
+            String node = onOtherNode ? " on node B" : " on node A";
+            String action;
+            if (!active) {
+                action = "register " + student + node;
+                Registration registration = onOtherNode
+                        ? transactionTemplate.execute(status -> otherNode.registerUser(eventId, student))
+                        : registrationService.registerUser(eventId, student);
+                registrationIds.put(student, registration.getId());
+                if (confirmed.size() < capacity) {
+                    confirmed.add(registration.getId());
+                } else {
+                    queue.add(registration.getId());
+                }
+                assertThat(registration.getStatus()).as("seed %d, step %d: %s", seed, step, action)
+                        .isEqualTo(confirmed.contains(registration.getId())
+                                ? RegistrationStatus.CONFIRMED : RegistrationStatus.WAITLIST);
+            } else {
+                action = "cancel " + student + node;
+                if (onOtherNode) {
+                    transactionTemplate.executeWithoutResult(
+                            status -> otherNode.cancelRegistration(registrationId, student));
+                } else {
+                    registrationService.cancelRegistration(registrationId, student);
+                }
+                if (confirmed.remove(registrationId) && !queue.isEmpty()) {
+                    confirmed.add(queue.remove(0));
+                }
+                queue.remove(registrationId);
+            }
+
+            assertThat(idsWithStatus(eventId, "CONFIRMED")).as("seed %d, step %d: %s", seed, step, action)
+                    .isEqualTo(confirmed);
+            assertThat(registrationRepository.findIdsByEventAndStatus(eventId, RegistrationStatus.WAITLIST))
+                    .as("seed %d, step %d: %s", seed, step, action)
+                    .containsExactlyElementsOf(queue);
+        }
+    }
+
+    private Set<Long> idsWithStatus(Long eventId, String status) {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM registrations WHERE event_id = ? AND status = ?", Long.class, eventId, status));
+    }
+
+    private Event newEvent(long seed, int capacity) {
+        return eventRepository.save(Event.builder()
+                .title("Waitlist property " + seed)
+                .startTime(LocalDateTime.now().plusDays(7))
+                .endTime(LocalDateTime.now().plusDays(7).plusHours(2))
+                .venue("Seminar Hall")
+                .capacity(capacity)
+                .department("CSE")
+                .createdBy(userRepository.findByEmail("admin@raghuenggcollege.in").orElseThrow())
+                .build());
+    }
+}
@@ -0,0 +1,66 @@
+package in.raghuenggcollege.events.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BloomFilterTest {
+
+    @Test
+    void sizedByTheStandardFormula() {
+        // m = -n ln p / (ln 2)^2: 10,000 entries at 1% need 95,851 bits, rounded up to whole longs
+        assertThat(new BloomFilter(10_000, 0.01).sizeInBytes()).isEqualTo(1498 * 8);
+        // Ten times fewer false positives cost about 4.8 more bits per entry
+        assertThat(new BloomFilter(10_000, 0.001).sizeInBytes()).isEqualTo(2247 * 8);
+        assertThat(new BloomFilter(1, 0.5).sizeInBytes()).isEqualTo(8);
+    }
+
+    @Test
+    void neverForgetsAnAddedKey() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        String[] keys = new String[10_000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = UUID.randomUUID().toString();
+            filter.add(keys[i]);
+        }
+        for (String key : keys) {
+            assertThat(filter.mightContain(key)).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheTargetWhenFull() {
+        for (double target : new double[] {0.01, 0.0001}) {
+            BloomFilter filter = new BloomFilter(20_000, target);
+            for (int i = 0; i < 20_000; i++) {
+                filter.add(UUID.randomUUID().toString());
+            }
+            int probes = 1_000_000;
+            int falsePositives = 0;
+            for (int i = 0; i < probes; i++) {
+                if (filter.mightContain(UUID.randomUUID().toString())) {
+                    falsePositives++;
+                }
+            }
+            assertThat((double) falsePositives / probes).as("rate for target %s", target).isLessThan(target * 1.5);
+        }
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(100, 0.01);
+
+        assertThat(filter.mightContain("")).isFalse();
+        assertThat(filter.mightContain("anything")).isFalse();
+    }
+
+    @Test
+    void rejectsInvalidSizing() {
+        assertThatThrownBy(() -> new BloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(10, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(10, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
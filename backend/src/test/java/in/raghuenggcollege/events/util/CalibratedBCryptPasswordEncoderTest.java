@@ -0,0 +1,49 @@
+package in.raghuenggcollege.events.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CalibratedBCryptPasswordEncoderTest {
+
+    private final CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(6);
+
+    @Test
+    void upgradesOnlyCheaperHashes() {
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret"))).isTrue();
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("secret"))).isFalse();
+        // Another replica calibrated higher: keep its hash instead of rehashing it down
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(8).encode("secret"))).isFalse();
+    }
+
+    @Test
+    void ignoresValuesThatAreNotBCryptHashes() {
+        assertThat(encoder.upgradeEncoding(null)).isFalse();
+        assertThat(encoder.upgradeEncoding("")).isFalse();
+        assertThat(encoder.upgradeEncoding("{noop}secret")).isFalse();
+    }
+
+    @Test
+    void matchesHashesOfAnyCost() {
+        assertThat(encoder.matches("secret", new BCryptPasswordEncoder(4).encode("secret"))).isTrue();
+        assertThat(encoder.matches("secret", new BCryptPasswordEncoder(8).encode("secret"))).isTrue();
+        assertThat(encoder.matches("wrong", encoder.encode("secret"))).isFalse();
+    }
+
+    @Test
+    void calibrationStaysWithinBounds() {
+        // However fast or slow this machine is, the cost is clamped to the range
+        assertThat(CalibratedBCryptPasswordEncoder.calibrate(1, 4, 6).getStrength()).isEqualTo(4);
+        assertThat(CalibratedBCryptPasswordEncoder.calibrate(60_000, 4, 6).getStrength()).isEqualTo(6);
+    }
+
+    @Test
+    void calibratedEncoderHashesAtItsStrength() {
+        CalibratedBCryptPasswordEncoder calibrated = CalibratedBCryptPasswordEncoder.calibrate(5, 4, 8);
+        String hash = calibrated.encode("secret");
+
+        assertThat(hash).startsWith(String.format("$2a$%02d$", calibrated.getStrength()));
+        assertThat(calibrated.upgradeEncoding(hash)).isFalse();
+    }
+}
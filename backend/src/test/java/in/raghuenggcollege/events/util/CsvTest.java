@@ -0,0 +1,44 @@
+package in.raghuenggcollege.events.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvTest {
+
+    @Test
+    void leavesPlainValuesUnquoted() {
+        assertThat(Csv.escape("Seminar Hall")).isEqualTo("Seminar Hall");
+        assertThat(Csv.escape(42)).isEqualTo("42");
+        assertThat(Csv.escape(null)).isEmpty();
+    }
+
+    @Test
+    void quotesValuesWithSeparatorsQuotesOrLineBreaks() {
+        assertThat(Csv.escape("Rao, K.")).isEqualTo("\"Rao, K.\"");
+        assertThat(Csv.escape("The \"Hack\" Night")).isEqualTo("\"The \"\"Hack\"\" Night\"");
+        assertThat(Csv.escape("line one\nline two")).isEqualTo("\"line one\nline two\"");
+        assertThat(Csv.escape("carriage\rreturn")).isEqualTo("\"carriage\rreturn\"");
+    }
+
+    @Test
+    void lineEndsWithNewlineAndKeepsEmptyFields() {
+        assertThat(Csv.line(1, null, "Rao, K.", "")).isEqualTo("1,,\"Rao, K.\",\n");
+    }
+
+    @Test
+    void readerRoundTripsWhatLineWrites() throws Exception {
+        List<String> values = List.of("plain", "Rao, K.", "say \"hi\"", "two\nlines", "");
+        String text = Csv.line(values.toArray()) + Csv.line("next", "row");
+
+        Csv.Reader reader = new Csv.Reader(new StringReader(text));
+
+        assertThat(reader.readRecord()).containsExactlyElementsOf(values);
+        assertThat(reader.readRecord()).containsExactly("next", "row");
+        assertThat(reader.getRecordLine()).isEqualTo(3);
+        assertThat(reader.readRecord()).isNull();
+    }
+}
@@ -0,0 +1,36 @@
+package in.raghuenggcollege.events.util;
+
+// Query-count assertions over SqlStatementCounter. Everything must run on the
+// calling thread (MockMvc does).
+public final class SqlStatementAssertions {
+
+    private SqlStatementAssertions() {
+    }
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    public static SqlStatementCounter.Snapshot measure(Action action) throws Exception {
+        SqlStatementCounter.Snapshot before = SqlStatementCounter.snapshot();
+        action.run();
+        return SqlStatementCounter.snapshot().since(before);
+    }
+
+    public static void assertStatements(long expected, Action action) throws Exception {
+        SqlStatementCounter.Snapshot used = measure(action);
+        if (used.statements() != expected) {
+            throw new AssertionError("Expected " + expected + " SQL statements but " + used.statements()
+                    + " were executed (" + used.entitiesLoaded() + " entities loaded)");
+        }
+    }
+
+    public static void assertAtMostStatements(long budget, Action action) throws Exception {
+        SqlStatementCounter.Snapshot used = measure(action);
+        if (used.statements() > budget) {
+            throw new AssertionError("Expected at most " + budget + " SQL statements but " + used.statements()
+                    + " were executed (" + used.entitiesLoaded() + " entities loaded)");
+        }
+    }
+}
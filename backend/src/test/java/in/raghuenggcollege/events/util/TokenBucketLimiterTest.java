@@ -0,0 +1,95 @@
+package in.raghuenggcollege.events.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBucketLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void allowsABurstUpToCapacityThenReportsTheWait() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(3, 1, now::get);
+
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isEqualTo(60);
+        advanceSeconds(45);
+        assertThat(limiter.tryAcquire("a")).isEqualTo(15);
+    }
+
+    @Test
+    void keysHaveSeparateBuckets() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 1, now::get);
+
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isPositive();
+        assertThat(limiter.tryAcquire("b")).isZero();
+    }
+
+    @Test
+    void refillsAtTheConfiguredRate() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, 6, now::get); // One token every 10 seconds
+
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isEqualTo(10);
+
+        advanceSeconds(9);
+        assertThat(limiter.tryAcquire("a")).isEqualTo(1);
+        advanceSeconds(1);
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isEqualTo(10);
+
+        // Capped at capacity however long it sat idle
+        advanceSeconds(3600);
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isEqualTo(10);
+    }
+
+    @Test
+    void failedAttemptsDoNotConsumeTokens() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 6, now::get);
+
+        limiter.tryAcquire("a");
+        for (int i = 0; i < 5; i++) {
+            advanceSeconds(1);
+            limiter.tryAcquire("a");
+        }
+        advanceSeconds(5);
+        assertThat(limiter.tryAcquire("a")).isZero();
+    }
+
+    @Test
+    void evictIdleDropsOnlyFullyRefilledBuckets() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, 6, now::get);
+
+        limiter.tryAcquire("idle");
+        advanceSeconds(5);
+        limiter.tryAcquire("busy");
+        advanceSeconds(5);
+        limiter.evictIdle();
+
+        assertThat(limiter.size()).isEqualTo(1);
+        advanceSeconds(5);
+        limiter.evictIdle();
+        assertThat(limiter.size()).isZero();
+    }
+
+    @Test
+    void rejectsNonPositiveSettings() {
+        assertThatThrownBy(() -> new TokenBucketLimiter(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucketLimiter(1, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void advanceSeconds(long seconds) {
+        now.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+}
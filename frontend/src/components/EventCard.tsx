@@ -1,5 +1,6 @@
 import { Calendar, MapPin, MoreHorizontal, Clock, Users, Edit, Trash2, Check } from 'lucide-react';
 import { api } from '../lib/api';
+import { notifyRegistrationsChanged } from '../hooks/useWebSocket';
 import { useState } from 'react';
 import { useNavigate } from 'react-router-dom';
 import toast from 'react-hot-toast';
@@ -28,6 +29,7 @@ export default function EventCard({ id, title, date, time, venue, tags = [], att
         try {
             setLoading(true);
             await api.post(`/registrations/events/${id}`);
+            notifyRegistrationsChanged();
             toast.success('Successfully Registered!');
             if (onRefresh) onRefresh();
         } catch (err: any) {
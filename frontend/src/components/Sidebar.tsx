@@ -1,5 +1,6 @@
 import { Home, Calendar, Settings, LogOut, PlusCircle, Ticket } from 'lucide-react';
 import { useNavigate, useLocation } from 'react-router-dom';
+import { api } from '../lib/api';
 
 export default function Sidebar() {
     const navigate = useNavigate();
@@ -13,6 +14,11 @@ export default function Sidebar() {
     ];
 
     const handleLogout = () => {
+        // Revoke the token server-side too; pass it explicitly since it is cleared below
+        const token = localStorage.getItem('token');
+        if (token) {
+            api.post('/auth/logout', null, { headers: { Authorization: `Bearer ${token}` } }).catch(() => {});
+        }
         localStorage.removeItem('token');
         localStorage.removeItem('role');
         localStorage.removeItem('department');
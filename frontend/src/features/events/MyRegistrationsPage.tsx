@@ -1,5 +1,6 @@
 import { useEffect, useState } from 'react';
 import { api } from '../../lib/api';
+import { notifyRegistrationsChanged } from '../../hooks/useWebSocket';
 import DashboardLayout from '../../layouts/DashboardLayout';
 import { Calendar, MapPin, Clock } from 'lucide-react';
 
@@ -34,6 +35,7 @@ export default function MyRegistrationsPage() {
         if (!confirm("Are you sure you want to cancel?")) return;
         try {
             await api.delete(`/registrations/${id}`);
+            notifyRegistrationsChanged();
             fetchRegistrations(); // Refresh list
         } catch (err) {
             alert("Failed to cancel");
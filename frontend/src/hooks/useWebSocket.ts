@@ -1,45 +1,133 @@
 import { useEffect, useRef, useState } from 'react';
-import { Client } from '@stomp/stompjs';
+import { Client, StompSubscription } from '@stomp/stompjs';
 import SockJS from 'sockjs-client';
 import toast from 'react-hot-toast';
+import { api } from '../lib/api';
 
 interface NotificationMessage {
     content: string;
     timestamp: string;
 }
 
+// Mirrors the backend's EventNotification
+interface EventNotification {
+    eventId?: number;
+    type: 'CREATED' | 'UPDATED' | 'IMPORTED';
+    title?: string;
+    department?: string;
+    tags?: string[];
+    message: string;
+    changes?: Record<string, unknown>;
+    timestamp: string;
+}
+
+interface MyRegistration {
+    status: 'CONFIRMED' | 'WAITLIST' | 'CANCELLED';
+    event: { id: number };
+}
+
+// Fired after the user registers or cancels, so the hook follows their events
+export const REGISTRATIONS_CHANGED = 'registrations-changed';
+
+export const notifyRegistrationsChanged = () => window.dispatchEvent(new Event(REGISTRATIONS_CHANGED));
+
+// Same rule as EventFanout.topicSegment on the server
+const topicSegment = (value: string) => value.trim().toLowerCase().replace(/[^a-z0-9_-]+/g, '-');
+
+const parseNotification = (body: string): EventNotification => {
+    try {
+        return JSON.parse(body);
+    } catch {
+        // Sent before notifications were JSON
+        return { type: 'UPDATED', message: body, timestamp: new Date().toISOString() };
+    }
+};
+
 export const useWebSocket = () => {
     const [notifications, setNotifications] = useState<NotificationMessage[]>([]);
     const clientRef = useRef<Client | null>(null);
+    // An edit can arrive on the department, tag and event topics at once
+    const seenRef = useRef<Set<string>>(new Set());
+    const eventSubscriptionsRef = useRef<Map<number, StompSubscription>>(new Map());
 
     useEffect(() => {
+        let syncEventTopics = () => {};
         const socket = new SockJS('http://localhost:8080/ws');
+        // Signed-in sessions also receive per-user messages (/user/queue/...)
+        const token = localStorage.getItem('token');
         const client = new Client({
             webSocketFactory: () => socket,
+            connectHeaders: token ? { Authorization: `Bearer ${token}` } : {},
             debug: (str) => {
                 console.log('STOMP: ' + str);
             },
             onConnect: () => {
                 console.log('✅ Connected to WebSocket');
-                client.subscribe('/topic/events', (message) => {
-                    if (message.body) {
-                        const newNotification = {
-                            content: message.body,
-                            timestamp: new Date().toLocaleTimeString(),
-                        };
-                        setNotifications((prev) => [newNotification, ...prev]);
-
-                        // Trigger toast notification
-                        toast.success(message.body, {
-                            duration: 5000,
-                            position: 'top-right',
-                            style: {
-                                background: '#10B981',
-                                color: '#fff',
-                            },
-                        });
+                const onMessage = (message: { body: string }) => {
+                    if (!message.body) {
+                        return;
+                    }
+                    const notification = parseNotification(message.body);
+                    const key = `${notification.type}:${notification.eventId ?? ''}:${notification.timestamp}`;
+                    if (seenRef.current.has(key)) {
+                        return;
                     }
-                });
+                    seenRef.current.add(key);
+                    if (seenRef.current.size > 200) {
+                        seenRef.current.clear();
+                    }
+
+                    const newNotification = {
+                        content: notification.message,
+                        timestamp: new Date().toLocaleTimeString(),
+                    };
+                    setNotifications((prev) => [newNotification, ...prev]);
+
+                    // Trigger toast notification
+                    toast.success(notification.message, {
+                        duration: 5000,
+                        position: 'top-right',
+                        style: {
+                            background: '#10B981',
+                            color: '#fff',
+                        },
+                    });
+                };
+
+                // New events for everyone; edits for the user's own department and
+                // for every event they are registered for, whichever department runs it
+                client.subscribe('/topic/events', onMessage);
+                const department = localStorage.getItem('department');
+                if (department) {
+                    client.subscribe(`/topic/events.department.${topicSegment(department)}`, onMessage);
+                }
+                syncEventTopics = () => {
+                    api.get<MyRegistration[]>('/registrations/my')
+                        .then((res) => {
+                            const wanted = new Set(res.data
+                                .filter((reg) => reg.status !== 'CANCELLED')
+                                .map((reg) => reg.event.id));
+                            eventSubscriptionsRef.current.forEach((subscription, eventId) => {
+                                if (!wanted.has(eventId)) {
+                                    subscription.unsubscribe();
+                                    eventSubscriptionsRef.current.delete(eventId);
+                                }
+                            });
+                            wanted.forEach((eventId) => {
+                                if (!eventSubscriptionsRef.current.has(eventId)) {
+                                    eventSubscriptionsRef.current.set(eventId,
+                                        client.subscribe(`/topic/events.event.${eventId}`, onMessage));
+                                }
+                            });
+                        })
+                        .catch((err) => console.warn('Failed to fetch registrations', err));
+                };
+                if (localStorage.getItem('token')) {
+                    syncEventTopics();
+                }
+            },
+            onDisconnect: () => {
+                eventSubscriptionsRef.current.clear();
             },
             onStompError: (frame) => {
                 console.error('broker reported error: ' + frame.headers['message']);
@@ -50,12 +138,17 @@ export const useWebSocket = () => {
         client.activate();
         clientRef.current = client;
 
+        // Registering or cancelling anywhere in the app re-syncs the event topics
+        const onRegistrationsChanged = () => syncEventTopics();
+        window.addEventListener(REGISTRATIONS_CHANGED, onRegistrationsChanged);
+
         // Request Notification permission on mount
         if (Notification.permission !== 'granted') {
             Notification.requestPermission();
         }
 
         return () => {
+            window.removeEventListener(REGISTRATIONS_CHANGED, onRegistrationsChanged);
             if (clientRef.current) {
                 clientRef.current.deactivate();
             }